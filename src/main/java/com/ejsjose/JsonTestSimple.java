@@ -1,11 +1,33 @@
 package com.ejsjose;
 
+import com.ejsjose.entities.Product;
+import com.ejsjose.infra.MethodMetrics;
 import com.ejsjose.repositories.IProductRepository;
-import com.ejsjose.repositories.ProductRepository;
+import com.ejsjose.repositories.ProductRepositories;
 import com.ejsjose.services.IProductService;
 import com.ejsjose.services.ProductService;
+import com.ejsjose.services.PageCursor;
+import com.ejsjose.services.ProductJsonCache;
 import com.ejsjose.services.ProductJsonService;
-import com.ejsjose.infra.HibernateUtil;
+import com.ejsjose.services.ProductPayloadParser;
+import com.ejsjose.services.dto.ProductCreateDTO;
+import com.ejsjose.services.dto.ValidationError;
+import com.ejsjose.utils.JsonUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * Teste simples do sistema JSON
@@ -16,8 +38,9 @@ public class JsonTestSimple {
         System.out.println("=== TESTE SIMPLES JSON ===");
         
         // Configurar dependências
-        IProductRepository repository = new ProductRepository();
-        IProductService service = new ProductService(repository);
+        IProductRepository repository = MethodMetrics.instrument(IProductRepository.class,
+                ProductRepositories.fromSystemProperties());
+        IProductService service = MethodMetrics.instrument(IProductService.class, new ProductService(repository));
         ProductJsonService jsonService = new ProductJsonService(service);
         
         try {
@@ -73,12 +96,247 @@ public class JsonTestSimple {
             String resultStats = jsonService.getStatistics();
             System.out.println(resultStats);
             
+            // Teste 6: Leitura condicional
+            System.out.println("\n🔁 6. LEITURA CONDICIONAL (versão):");
+            ProductJsonService.VersionedJson first = jsonService.findAllProductsIfChanged(null);
+            ProductJsonService.VersionedJson again = jsonService.findAllProductsIfChanged(first.getVersion());
+            System.out.println("🔹 Versão: " + first.getVersion() + " | modificado na 2ª leitura: " + again.isModified());
+            check("leitura condicional sem escritas", !again.isModified());
+            
+            // Teste 7: Projeção de campos
+            System.out.println("\n✂️ 7. SÓ ALGUNS CAMPOS (JSON):");
+            String resultFields = jsonService.findProductsWithFilters("{\"status\": true, \"fields\": [\"id\", \"price\"]}");
+            System.out.println(resultFields);
+            check("projeção sem campos não pedidos", !resultFields.contains("\"name\""));
+            
+            // Teste 8: Métricas por método
+            System.out.println("\n⏱️ 8. MÉTRICAS POR MÉTODO (JSON):");
+            String resultMetrics = jsonService.getMethodMetrics();
+            System.out.println(resultMetrics);
+            check("métricas do service", resultMetrics.contains("\"IProductService.createProduct\""));
+            
+            // Teste 9: Estatísticas de persistência (-Dtstcrud.statistics=true para coletar)
+            System.out.println("\n🗄️ 9. ESTATÍSTICAS DE PERSISTÊNCIA (JSON):");
+            String resultPersistence = jsonService.getPersistenceStatistics();
+            System.out.println(resultPersistence);
+            check("estatísticas de persistência", resultPersistence.contains("\"enabled\""));
+            
+            // Teste 10: Eventos JFR (desligados por padrão; a gravação liga o tipo)
+            System.out.println("\n🎥 10. EVENTOS JFR:");
+            Path jfrFile = Files.createTempFile("tstcrud", ".jfr");
+            try (Recording recording = new Recording()) {
+                recording.enable("com.ejsjose.JsonOperation");
+                recording.start();
+                jsonService.getStatistics();
+                recording.stop();
+                recording.dump(jfrFile);
+                boolean recorded = false;
+                for (RecordedEvent event : RecordingFile.readAllEvents(jfrFile)) {
+                    System.out.println(event.getEventType().getName() + " " + event.getString("operation")
+                            + " " + event.getDuration().toMillis() + " ms");
+                    recorded |= "getStatistics".equals(event.getString("operation"));
+                }
+                check("evento JsonOperation de getStatistics", recorded);
+            } finally {
+                Files.deleteIfExists(jfrFile);
+            }
+
+            // Teste 11: Importação em lotes (nome repetido, no banco e no próprio lote, e item inválido)
+            System.out.println("\n📥 11. IMPORTAÇÃO EM LOTES (JSON):");
+            String importJson = """
+                [
+                    {"name": "Importado A", "price": 10.0, "quantity": 1},
+                    {"name": "IPHONE 15 PRO", "price": 10.0},
+                    {"name": "Importado inválido", "price": -1.0},
+                    {"name": "importado a", "price": 10.0},
+                    {"name": "Importado B", "price": 20.0, "quantity": 2}
+                ]
+                """;
+            String resultImport = jsonService.importProducts(
+                    new ByteArrayInputStream(importJson.getBytes(StandardCharsets.UTF_8)), 2);
+            System.out.println(resultImport);
+            JsonNode importSummary = JsonUtils.fromJson(resultImport, JsonNode.class);
+            List<Long> rejectedPositions = new ArrayList<>();
+            for (JsonNode rejection : importSummary.get("rejections")) {
+                rejectedPositions.add(rejection.get("position").asLong());
+            }
+            check("importação grava só os válidos e únicos", importSummary.get("inserted").asLong() == 2
+                    && importSummary.get("rejected").asLong() == 3);
+            check("importação informa as posições rejeitadas", rejectedPositions.equals(List.of(1L, 2L, 3L)));
+            boolean trailingRejected = false;
+            try {
+                jsonService.importProducts(new ByteArrayInputStream(
+                        "[{\"name\": \"Sobra\", \"price\": 1.0}] []".getBytes(StandardCharsets.UTF_8)), 2);
+            } catch (JsonProcessingException e) {
+                System.out.println("🔹 Recusado: " + e.getOriginalMessage());
+                trailingRejected = true;
+            }
+            check("importação recusa conteúdo após o array", trailingRejected
+                    && service.findProductsByName("Sobra").isEmpty());
+
+            // Teste 12: Exportação em array JSON e em NDJSON
+            System.out.println("\n📤 12. EXPORTAÇÃO (JSON ARRAY E NDJSON):");
+            int catalogSize = JsonUtils.fromJson(jsonService.findAllProducts(), JsonNode.class).size();
+            ByteArrayOutputStream arrayOutput = new ByteArrayOutputStream();
+            long arrayCount = jsonService.exportProducts(arrayOutput, null, ProductJsonService.ExportFormat.JSON_ARRAY);
+            String exportedArray = arrayOutput.toString(StandardCharsets.UTF_8);
+            System.out.println(exportedArray);
+            JsonNode exportedNodes = JsonUtils.fromJson(exportedArray, JsonNode.class);
+            check("exportação em array JSON", exportedNodes.isArray()
+                    && exportedNodes.size() == catalogSize && arrayCount == catalogSize);
+
+            ByteArrayOutputStream ndjsonOutput = new ByteArrayOutputStream();
+            long ndjsonCount = jsonService.exportProducts(ndjsonOutput, null, ProductJsonService.ExportFormat.NDJSON);
+            String exportedLines = ndjsonOutput.toString(StandardCharsets.UTF_8);
+            System.out.print(exportedLines);
+            boolean oneObjectPerLine = exportedLines.endsWith("\n");
+            String[] lines = exportedLines.split("\n");
+            for (String line : lines) {
+                oneObjectPerLine &= JsonUtils.fromJson(line, JsonNode.class).isObject();
+            }
+            check("exportação em NDJSON", oneObjectPerLine
+                    && lines.length == catalogSize && ndjsonCount == catalogSize);
+
+            // Teste 13: Paginação por cursor (assinatura, escopo e última página)
+            System.out.println("\n📄 13. PAGINAÇÃO POR CURSOR (JSON):");
+            String signed = PageCursor.encode(PageCursor.scope("all"), null, 42);
+            PageCursor decoded = PageCursor.decode(signed, PageCursor.scope("all"));
+            check("cursor decodificado", decoded != null && decoded.getLastId() == 42);
+
+            int dot = signed.indexOf('.');
+            String tamperedPayload = flipChar(signed, 0);
+            String tamperedSignature = flipChar(signed, dot + 1);
+            check("cursor com conteúdo alterado rejeitado",
+                    rejects(() -> PageCursor.decode(tamperedPayload, PageCursor.scope("all"))));
+            check("cursor com assinatura alterada rejeitado",
+                    rejects(() -> PageCursor.decode(tamperedSignature, PageCursor.scope("all"))));
+
+            JsonNode firstPage = JsonUtils.fromJson(jsonService.findAllProductsPage(null, catalogSize - 1), JsonNode.class);
+            String nextCursor = firstPage.get("nextCursor").asText(null);
+            System.out.println(firstPage);
+            check("primeira página com próximo cursor", firstPage.get("items").size() == catalogSize - 1
+                    && nextCursor != null);
+            check("cursor de outra consulta rejeitado",
+                    rejects(() -> jsonService.findProductsByStatusPage(true, nextCursor, 1)));
+
+            JsonNode lastPage = JsonUtils.fromJson(jsonService.findAllProductsPage(nextCursor, 1), JsonNode.class);
+            System.out.println(lastPage);
+            check("página que esgota o resultado sem próximo cursor", lastPage.get("items").size() == 1
+                    && lastPage.get("nextCursor").isNull());
+            JsonNode wholePage = JsonUtils.fromJson(jsonService.findAllProductsPage(null, catalogSize), JsonNode.class);
+            check("página do tamanho exato do catálogo sem próximo cursor",
+                    wholePage.get("items").size() == catalogSize && wholePage.get("nextCursor").isNull());
+
+            // Teste 14: Leitura e validação em uma passada (erros acumulados e conversões)
+            System.out.println("\n🧪 14. LEITURA E VALIDAÇÃO DO PAYLOAD:");
+            ProductPayloadParser.Result<ProductCreateDTO> invalid = ProductPayloadParser.parseCreate(
+                    "{\"name\": \" \", \"price\": \"abc\", \"quantity\": -1, \"extra\": {\"a\": [1]}}");
+            System.out.println("🔹 Erros: " + invalid.getErrorMessage());
+            List<String> errorFields = new ArrayList<>();
+            for (ValidationError error : invalid.getErrors()) {
+                errorFields.add(error.getField());
+            }
+            check("payload acumula todos os erros", !invalid.isValid() && invalid.getValue() == null
+                    && errorFields.equals(List.of("name", "price", "quantity")));
+
+            ProductPayloadParser.Result<ProductCreateDTO> coerced = ProductPayloadParser.parseCreate(
+                    "{\"name\": 123, \"price\": \" 12.5 \", \"quantity\": 3.0, \"status\": \"FALSE\"}");
+            ProductCreateDTO coercedDTO = coerced.getValue();
+            check("payload converte texto, número e booleano", coerced.isValid()
+                    && "123".equals(coercedDTO.getName()) && coercedDTO.getPrice() == 12.5
+                    && coercedDTO.getQuantity() == 3 && Boolean.FALSE.equals(coercedDTO.getStatus()));
+            check("quantidade fracionária recusada",
+                    !ProductPayloadParser.parseCreate("{\"name\": \"X\", \"price\": 1, \"quantity\": 2.5}").isValid());
+
+            // Teste 15: Cache de JSON (invalidação na escrita e leitura concorrente com escrita)
+            System.out.println("\n🗃️ 15. CACHE DE JSON:");
+            Integer cachedId = firstPage.get("items").get(0).get("id").asInt();
+            jsonService.findProductById(cachedId);
+            jsonService.updateProduct(cachedId, "{\"quantity\": 7}");
+            String afterUpdate = jsonService.findProductById(cachedId);
+            System.out.println(afterUpdate);
+            check("cache invalidado pela atualização", afterUpdate.contains("\"quantity\":7"));
+
+            Product product = service.findProductById(cachedId).orElseThrow();
+            ProductJsonCache cache = new ProductJsonCache();
+            long staleStamp = cache.stamp();
+            cache.invalidate(cachedId); // escrita entre a marca e a leitura
+            cache.encode(product, staleStamp);
+            check("leitura anterior à invalidação não fica em cache", cache.get(cachedId) == null);
+            cache.encode(product, cache.stamp());
+            check("leitura posterior à invalidação fica em cache", cache.get(cachedId) != null);
+
+            // Teste 16: Listagem direta do banco igual à serialização das entidades (com produto sem preço)
+            System.out.println("\n🧾 16. LISTAGEM DIRETA x ENTIDADES:");
+            Product unpriced = new Product();
+            unpriced.setName("Produto sem preço");
+            unpriced.setQuantity(1);
+            unpriced.setStatus(true);
+            repository.save(unpriced);
+            String scannedActive = new String(jsonService.findProductsByStatus(true, "application/json"), StandardCharsets.UTF_8);
+            String entityActive = JsonUtils.toJson(service.findProductsByStatus(true));
+            System.out.println(scannedActive);
+            check("listagem por status igual à das entidades", scannedActive.equals(entityActive)
+                    && scannedActive.contains("\"Produto sem preço\""));
+            check("listagem completa igual à das entidades",
+                    jsonService.findAllProducts().equals(JsonUtils.toJson(service.findAllProducts())));
+
+            // Teste 17: Páginas por status cobrem a listagem inteira (inclusive o produto sem preço)
+            System.out.println("\n📄 17. PÁGINAS POR STATUS x LISTAGEM:");
+            List<Integer> pagedIds = new ArrayList<>();
+            String statusCursor = null;
+            do {
+                JsonNode statusPage = JsonUtils.fromJson(jsonService.findProductsByStatusPage(true, statusCursor, 2), JsonNode.class);
+                for (JsonNode item : statusPage.get("items")) {
+                    pagedIds.add(item.get("id").asInt());
+                }
+                statusCursor = statusPage.get("nextCursor").asText(null);
+            } while (statusCursor != null);
+            List<Integer> listedIds = new ArrayList<>();
+            for (Product listed : service.findProductsByStatus(true)) {
+                listedIds.add(listed.getId());
+            }
+            System.out.println("🔹 Paginado: " + pagedIds + " | listagem: " + listedIds);
+            check("páginas por status iguais à listagem", pagedIds.equals(listedIds)
+                    && pagedIds.contains(unpriced.getId()));
+
         } catch (Exception e) {
             System.err.println("❌ Erro: " + e.getMessage());
             e.printStackTrace();
         } finally {
-            HibernateUtil.shutdown();
+            ProductRepositories.shutdown();
             System.out.println("\n✅ Teste concluído!");
         }
     }
+    
+    private static void check(String name, boolean passed) {
+        if (passed) {
+            System.out.println("✓ Teste " + name + ": PASSOU");
+        } else {
+            System.err.println("❌ Teste " + name + ": FALHOU");
+        }
+    }
+
+    /**
+     * @return true se a chamada foi recusada com IllegalArgumentException
+     */
+    private static boolean rejects(Callable<?> call) {
+        try {
+            call.call();
+            return false;
+        } catch (IllegalArgumentException e) {
+            System.out.println("🔹 Recusado: " + e.getMessage());
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Troca um caractere Base64 por outro, alterando o cursor sem mudar seu formato
+     */
+    private static String flipChar(String text, int index) {
+        char replacement = text.charAt(index) == 'A' ? 'B' : 'A';
+        return text.substring(0, index) + replacement + text.substring(index + 1);
+    }
 }
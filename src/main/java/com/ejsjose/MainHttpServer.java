@@ -0,0 +1,48 @@
+package com.ejsjose;
+
+import com.ejsjose.http.HttpServerConfig;
+import com.ejsjose.http.ProductHttpServer;
+import com.ejsjose.infra.MethodMetrics;
+import com.ejsjose.infra.OperationEvents;
+import com.ejsjose.infra.PersistenceStatistics;
+import com.ejsjose.repositories.IProductRepository;
+import com.ejsjose.repositories.ProductRepositories;
+import com.ejsjose.services.IProductService;
+import com.ejsjose.services.ProductJsonService;
+import com.ejsjose.services.ProductService;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Sobe o servidor HTTP de produtos
+ * 
+ * Configuração pelas propriedades tstcrud.http.* (ver {@link HttpServerConfig});
+ * a implementação do repositório por tstcrud.repository (ver {@link ProductRepositories});
+ * estatísticas do Hibernate e log de SQL lento por tstcrud.statistics (ver {@link PersistenceStatistics});
+ * eventos JFR das operações ligados na gravação (ver {@link OperationEvents}).
+ * Ctrl+C (ou SIGTERM) faz o encerramento gracioso.
+ */
+public class MainHttpServer {
+    
+    public static void main(String[] args) throws Exception {
+        HttpServerConfig config = HttpServerConfig.fromSystemProperties();
+        
+        // Repositório e service medidos por método (GET /metrics/methods)
+        IProductRepository repository = MethodMetrics.instrument(IProductRepository.class,
+                ProductRepositories.fromSystemProperties());
+        IProductService service = MethodMetrics.instrument(IProductService.class, new ProductService(repository));
+        ProductHttpServer server = new ProductHttpServer(new ProductJsonService(service), repository, config);
+        
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println("Encerrando servidor...");
+            server.close();
+            stopped.countDown();
+        }, "http-shutdown"));
+        
+        server.start();
+        System.out.println("Servidor de produtos em http://localhost:" + server.getPort() + "/products");
+        System.out.println(config);
+        stopped.await();
+    }
+}
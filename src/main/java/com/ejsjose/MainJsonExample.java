@@ -23,7 +23,7 @@ public class MainJsonExample {
         // Configurar dependências
         IProductRepository repository = new ProductRepository();
         IProductService service = new ProductService(repository);
-        this.jsonService = new ProductJsonService(service);
+        this.jsonService = new ProductJsonService(service, JsonUtils.OutputMode.PRETTY);
         this.scanner = new Scanner(System.in);
     }
     
@@ -2,13 +2,16 @@ package com.ejsjose.entities;
 
 import javax.persistence.*;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+@NoArgsConstructor
 @JsonPropertyOrder({"id", "name", "price", "quantity", "status"})
 @Table(name = "products")
 @Entity
@@ -26,4 +29,25 @@ public class Product {
 
     private boolean status;
 
+    /**
+     * Sequência da última escrita no produto, para sincronização incremental
+     * (não faz parte do JSON, com qualquer ObjectMapper)
+     */
+    @JsonIgnore
+    @Column(name = "updated_seq")
+    private long updatedSeq;
+
+    /**
+     * Construtor de cópia: nova instância, desacoplada do EntityManager
+     * @param source produto original
+     */
+    public Product(Product source) {
+        this.id = source.id;
+        this.name = source.name;
+        this.price = source.price;
+        this.quantity = source.quantity;
+        this.status = source.status;
+        this.updatedSeq = source.updatedSeq;
+    }
+
 }
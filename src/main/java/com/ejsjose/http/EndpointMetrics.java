@@ -0,0 +1,103 @@
+package com.ejsjose.http;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de latência por endpoint
+ *
+ * O registro usa apenas LongAdder e AtomicLong, sem lock: pode ser
+ * chamado por todos os workers ao mesmo tempo.
+ */
+public final class EndpointMetrics {
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Registra uma requisição atendida
+     * @param endpoint nome do endpoint (ex: "GET /products/{id}")
+     * @param elapsedNanos duração do atendimento
+     * @param status código HTTP da resposta
+     */
+    public void record(String endpoint, long elapsedNanos, int status) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.count.increment();
+        stats.totalNanos.add(elapsedNanos);
+        stats.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        if (status >= 500) {
+            stats.serverErrors.increment();
+        } else if (status >= 400) {
+            stats.clientErrors.increment();
+        }
+    }
+
+    /**
+     * Retrato dos contadores, ordenado pelo nome do endpoint
+     * @return um item por endpoint já chamado
+     */
+    public List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<>(endpoints.size());
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint stats = entry.getValue();
+            long count = stats.count.sum();
+            snapshots.add(new Snapshot(entry.getKey(), count, stats.clientErrors.sum(), stats.serverErrors.sum(),
+                    count > 0 ? stats.totalNanos.sum() / 1e6 / count : 0.0,
+                    stats.maxNanos.get() / 1e6));
+        }
+        snapshots.sort(Comparator.comparing(Snapshot::getEndpoint));
+        return snapshots;
+    }
+
+    private static final class Endpoint {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+    }
+
+    /**
+     * Contadores de um endpoint
+     */
+    @JsonPropertyOrder({"endpoint", "count", "clientErrors", "serverErrors", "meanMillis", "maxMillis"})
+    public static final class Snapshot {
+        private final String endpoint;
+        private final long count;
+        private final long clientErrors;
+        private final long serverErrors;
+        private final double meanMillis;
+        private final double maxMillis;
+
+        public Snapshot(String endpoint, long count, long clientErrors, long serverErrors,
+                        double meanMillis, double maxMillis) {
+            this.endpoint = endpoint;
+            this.count = count;
+            this.clientErrors = clientErrors;
+            this.serverErrors = serverErrors;
+            this.meanMillis = meanMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        public String getEndpoint() { return endpoint; }
+
+        public long getCount() { return count; }
+
+        /** Respostas 4xx */
+        public long getClientErrors() { return clientErrors; }
+
+        /** Respostas 5xx (inclui 503 por sobrecarga) */
+        public long getServerErrors() { return serverErrors; }
+
+        public double getMeanMillis() { return meanMillis; }
+
+        public double getMaxMillis() { return maxMillis; }
+    }
+}
@@ -0,0 +1,105 @@
+package com.ejsjose.http;
+
+import com.ejsjose.utils.JsonLimits;
+
+/**
+ * Configuração do servidor HTTP embutido
+ *
+ * Os valores podem vir das propriedades de sistema {@code tstcrud.http.*}
+ * (port, workers, queue, maxRequestBytes, keepAliveSeconds, drainSeconds).
+ */
+public final class HttpServerConfig {
+
+    /** Porta 8080, dois workers por processador, fila de 1000 requisições, corpo de até 8 MiB */
+    public static final HttpServerConfig DEFAULT = new HttpServerConfig(8080,
+            Math.max(4, Runtime.getRuntime().availableProcessors() * 2), 1000,
+            JsonLimits.DEFAULT.getMaxBytes(), 30, 10);
+
+    private final int port;
+    private final int workerThreads;
+    private final int queueCapacity;
+    private final long maxRequestBytes;
+    private final int keepAliveSeconds;
+    private final int drainSeconds;
+
+    /**
+     * @param port porta TCP (0 para uma porta livre qualquer)
+     * @param workerThreads threads que atendem as requisições
+     * @param queueCapacity requisições aguardando worker; além disso a resposta é 503
+     * @param maxRequestBytes tamanho máximo do corpo da requisição
+     * @param keepAliveSeconds tempo que uma conexão ociosa fica aberta
+     * @param drainSeconds espera máxima pelas requisições em andamento no encerramento
+     */
+    public HttpServerConfig(int port, int workerThreads, int queueCapacity, long maxRequestBytes,
+                            int keepAliveSeconds, int drainSeconds) {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Porta inválida: " + port);
+        }
+        if (workerThreads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Workers e fila devem ser maiores que zero");
+        }
+        if (maxRequestBytes <= 0) {
+            throw new IllegalArgumentException("Tamanho máximo da requisição deve ser maior que zero");
+        }
+        if (keepAliveSeconds <= 0 || drainSeconds < 0) {
+            throw new IllegalArgumentException("Tempos de keep-alive e de encerramento inválidos");
+        }
+        this.port = port;
+        this.workerThreads = workerThreads;
+        this.queueCapacity = queueCapacity;
+        this.maxRequestBytes = maxRequestBytes;
+        this.keepAliveSeconds = keepAliveSeconds;
+        this.drainSeconds = drainSeconds;
+    }
+
+    /**
+     * Lê a configuração das propriedades de sistema, com {@link #DEFAULT}
+     * para as ausentes
+     * @return configuração
+     */
+    public static HttpServerConfig fromSystemProperties() {
+        return new HttpServerConfig(
+                Integer.getInteger("tstcrud.http.port", DEFAULT.port),
+                Integer.getInteger("tstcrud.http.workers", DEFAULT.workerThreads),
+                Integer.getInteger("tstcrud.http.queue", DEFAULT.queueCapacity),
+                Long.getLong("tstcrud.http.maxRequestBytes", DEFAULT.maxRequestBytes),
+                Integer.getInteger("tstcrud.http.keepAliveSeconds", DEFAULT.keepAliveSeconds),
+                Integer.getInteger("tstcrud.http.drainSeconds", DEFAULT.drainSeconds));
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getMaxRequestBytes() {
+        return maxRequestBytes;
+    }
+
+    public int getKeepAliveSeconds() {
+        return keepAliveSeconds;
+    }
+
+    public int getDrainSeconds() {
+        return drainSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpServerConfig{" +
+                "port=" + port +
+                ", workerThreads=" + workerThreads +
+                ", queueCapacity=" + queueCapacity +
+                ", maxRequestBytes=" + maxRequestBytes +
+                ", keepAliveSeconds=" + keepAliveSeconds +
+                ", drainSeconds=" + drainSeconds +
+                '}';
+    }
+}
@@ -0,0 +1,686 @@
+package com.ejsjose.http;
+
+import com.ejsjose.services.ProductJsonService;
+import com.ejsjose.services.ProductNotFoundException;
+import com.ejsjose.services.dto.ProductBatchResult;
+import com.ejsjose.utils.JsonUtils;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP embutido que expõe o {@link ProductJsonService}
+ *
+ * Usa o HttpServer do JDK com um pool de workers de tamanho fixo e fila
+ * limitada: com a fila cheia a requisição recebe 503 na hora, sem passar
+ * pelo service. Conexões HTTP/1.1 ficam abertas (keep-alive) entre
+ * requisições. O corpo da requisição é limitado por
+ * {@link HttpServerConfig#getMaxRequestBytes()} (413 acima disso).
+ *
+ * Endpoints:
+ * <pre>
+ * GET    /products                 lista (?active=, ?name=, ?q= aproximada, ?limit= e ?cursor= paginada)
+ * POST   /products                 cria
+ * GET    /products/{id}            busca por ID
+ * PUT    /products/{id}            atualização parcial (PATCH também)
+ * DELETE /products/{id}            remove
+ * POST   /products/{id}/activate   ativa
+ * POST   /products/{id}/deactivate desativa
+ * POST   /products/{id}/price      altera preço (?value=)
+ * GET    /products/price-range     faixa de preço (?min=, ?max=)
+ * POST   /products/search          filtros no corpo (?limit= e ?cursor= paginada)
+ * POST   /products/discount        desconto (?percent=) nos produtos do filtro
+ * POST   /products/batch           lote de comandos (?mode=best_effort)
+ * GET    /products/export          exportação em streaming (?format=ndjson)
+ * GET    /products/changes         alterações desde uma sequência (?since=, ?limit=)
+ * GET    /statistics               estatísticas
+ * GET    /metrics                  latência por endpoint
+ * GET    /metrics/methods          latência por método do repositório e do service
+ * GET    /metrics/persistence      estatísticas do Hibernate e comandos lentos
+ * </pre>
+ *
+ * Criação, atualização, busca por ID e listagens simples aceitam Smile e
+ * CBOR pelo Content-Type/Accept; as demais respostas são JSON.
+ *
+ * Dados rejeitados pelo service respondem 400; ID de produto inexistente
+ * (busca, atualização, remoção, ativação, desativação e preço) responde 404.
+ *
+ * Listagens, busca por ID e estatísticas enviam ETag com a versão do
+ * catálogo (ou do produto); com If-None-Match igual a resposta é 304,
+ * sem consultar o banco.
+ */
+public class ProductHttpServer implements AutoCloseable {
+
+    private static final String JSON_UTF8 = "application/json; charset=utf-8";
+
+    /** Limite padrão da busca aproximada por nome */
+    private static final int FUZZY_LIMIT = 20;
+
+    /** Marca a requisição recusada pelo pool, atendida na thread do despachante */
+    private static final ThreadLocal<Boolean> rejected = new ThreadLocal<>();
+
+    private final ProductJsonService jsonService;
+    private final AutoCloseable resources;
+    private final HttpServerConfig config;
+    private final EndpointMetrics metrics = new EndpointMetrics();
+    private final ThreadPoolExecutor workers;
+    private final HttpServer server;
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean draining;
+
+    /**
+     * Cria o servidor (ainda parado)
+     *
+     * O keep-alive é configurado pelas propriedades sun.net.httpserver.*,
+     * que valem para o processo inteiro e são lidas na criação do primeiro
+     * servidor; valores já definidos na linha de comando prevalecem.
+     * @param jsonService service JSON a expor
+     * @param resources recursos por trás do service (em geral o repositório),
+     *        fechados no {@link #close()}
+     * @param config configuração
+     * @throws IOException se a porta não pode ser aberta
+     */
+    public ProductHttpServer(ProductJsonService jsonService, AutoCloseable resources,
+                             HttpServerConfig config) throws IOException {
+        this.jsonService = jsonService;
+        this.resources = resources;
+        this.config = config;
+
+        long idleMillis = TimeUnit.SECONDS.toMillis(config.getKeepAliveSeconds());
+        System.getProperties().putIfAbsent("sun.net.httpserver.idleInterval", String.valueOf(idleMillis));
+        System.getProperties().putIfAbsent("sun.net.httpserver.maxIdleConnections",
+                String.valueOf(config.getWorkerThreads() * 4));
+
+        this.workers = new ThreadPoolExecutor(config.getWorkerThreads(), config.getWorkerThreads(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                new WorkerThreadFactory(),
+                (task, executor) -> {
+                    // Fila cheia (ou encerrando): responde 503 sem ocupar um worker
+                    rejected.set(Boolean.TRUE);
+                    try {
+                        task.run();
+                    } finally {
+                        rejected.remove();
+                    }
+                });
+
+        this.server = HttpServer.create(new InetSocketAddress(config.getPort()), 0);
+        this.server.setExecutor(workers);
+        this.server.createContext("/", this::handle);
+    }
+
+    /**
+     * Começa a aceitar conexões
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Porta em uso (útil quando a configuração pede a porta 0)
+     * @return porta TCP
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public EndpointMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Encerramento gracioso
+     *
+     * Novas requisições passam a receber 503; as que estão em andamento têm
+     * até {@link HttpServerConfig#getDrainSeconds()} para terminar. Depois o
+     * servidor para, os workers são encerrados e os recursos recebidos no
+     * construtor (EntityManagerFactory ou pool de conexões) são fechados.
+     * Chamadas repetidas não têm efeito.
+     */
+    @Override
+    public void close() {
+        if (!stopped.compareAndSet(false, true)) {
+            return;
+        }
+
+        draining = true;
+        try {
+            // O stop(delay) do JDK espera o prazo inteiro mesmo sem requisições: a espera é feita aqui
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getDrainSeconds());
+            while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            server.stop(0);
+            workers.shutdown();
+            if (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.stop(0);
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                resources.close();
+            } catch (Exception e) {
+                System.err.println("Erro ao liberar os recursos do servidor: " + e.getMessage());
+            }
+        }
+    }
+
+    // === ATENDIMENTO ===
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        String endpoint = exchange.getRequestMethod() + " ?";
+        int status = 500;
+        boolean aborted = false;
+
+        try {
+            Request request = new Request(exchange);
+            endpoint = request.endpoint();
+            if (rejected.get() != null || draining) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                exchange.getResponseHeaders().set("Connection", "close");
+                status = send(exchange, 503, error(503, draining ? "Servidor em encerramento" : "Servidor sobrecarregado"));
+                return;
+            }
+
+            inFlight.incrementAndGet();
+            try {
+                status = dispatch(request);
+            } catch (ResponseAbortedException e) {
+                // Cabeçalhos já enviados: não cabe mais resposta de erro. A exceção sai do
+                // handler sem fechar a troca e o HttpServer derruba a conexão, então o
+                // cliente vê a resposta incompleta em vez de um 200 truncado
+                aborted = true;
+                System.err.println("Erro em " + endpoint + " com a resposta já iniciada: " + e.getCause().getMessage());
+                throw e;
+            } catch (HttpStatusException e) {
+                if (e.status == 413) {
+                    exchange.getResponseHeaders().set("Connection", "close");
+                }
+                status = send(exchange, e.status, error(e.status, e.getMessage()));
+            } catch (StreamConstraintsException e) {
+                status = send(exchange, 413, error(413, e.getOriginalMessage()));
+            } catch (JsonProcessingException e) {
+                status = send(exchange, 400, error(400, "JSON inválido: " + e.getOriginalMessage()));
+            } catch (ProductNotFoundException e) {
+                status = send(exchange, 404, error(404, e.getMessage()));
+            } catch (IllegalArgumentException e) {
+                status = send(exchange, 400, error(400, e.getMessage()));
+            } catch (RuntimeException e) {
+                System.err.println("Erro em " + endpoint + ": " + e.getMessage());
+                status = send(exchange, 500, error(500, "Erro interno"));
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        } finally {
+            if (!aborted) {
+                exchange.close();
+            }
+            metrics.record(endpoint, System.nanoTime() - start, status);
+        }
+    }
+
+    private int dispatch(Request request) throws IOException {
+        String[] path = request.path;
+        if (path.length == 1 && path[0].equals("statistics")) {
+            request.requireMethod("GET");
+            if (request.notModified(jsonService.getCatalogVersion())) {
+                return 304;
+            }
+            return sendJson(request.exchange, 200, jsonService.getStatistics());
+        }
+        if (path.length == 1 && path[0].equals("metrics")) {
+            request.requireMethod("GET");
+            return sendJson(request.exchange, 200, JsonUtils.toJson(metrics.snapshot()));
+        }
+        if (path.length == 2 && path[0].equals("metrics") && path[1].equals("methods")) {
+            request.requireMethod("GET");
+            return sendJson(request.exchange, 200, jsonService.getMethodMetrics());
+        }
+        if (path.length == 2 && path[0].equals("metrics") && path[1].equals("persistence")) {
+            request.requireMethod("GET");
+            return sendJson(request.exchange, 200, jsonService.getPersistenceStatistics());
+        }
+        if (path.length == 0 || !path[0].equals("products")) {
+            throw new HttpStatusException(404, "Recurso não encontrado");
+        }
+
+        if (path.length == 1) {
+            return request.method.equals("POST") ? createProduct(request) : listProducts(request);
+        }
+        if (path.length == 2) {
+            switch (path[1]) {
+                case "price-range" -> {
+                    request.requireMethod("GET");
+                    byte[] body = jsonService.findProductsByPriceRange(
+                            request.doubleParam("min"), request.doubleParam("max"), request.accept());
+                    return send(request.exchange, 200, body, request.accept());
+                }
+                case "search" -> {
+                    request.requireMethod("POST");
+                    return search(request);
+                }
+                case "discount" -> {
+                    request.requireMethod("POST");
+                    return sendJson(request.exchange, 200,
+                            jsonService.applyDiscount(request.bodyAsString(), request.requiredDoubleParam("percent")));
+                }
+                case "batch" -> {
+                    request.requireMethod("POST");
+                    String mode = request.param("mode");
+                    ProductBatchResult.Mode batchMode = mode == null ? ProductBatchResult.Mode.ALL_OR_NOTHING
+                            : ProductBatchResult.Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+                    return sendJson(request.exchange, 200, jsonService.executeBatch(request.bodyAsString(), batchMode));
+                }
+                case "export" -> {
+                    request.requireMethod("GET");
+                    return export(request);
+                }
+                case "changes" -> {
+                    request.requireMethod("GET");
+                    return sendJson(request.exchange, 200, jsonService.findChangesSince(
+                            request.longParam("since", 0), request.intParam("limit", ProductJsonService.MAX_PAGE_SIZE)));
+                }
+                default -> {
+                    return productById(request, request.id());
+                }
+            }
+        }
+        if (path.length == 3) {
+            Integer id = request.id();
+            request.requireMethod("POST");
+            switch (path[2]) {
+                case "activate" -> {
+                    return sendJson(request.exchange, 200, jsonService.activateProduct(id));
+                }
+                case "deactivate" -> {
+                    return sendJson(request.exchange, 200, jsonService.deactivateProduct(id));
+                }
+                case "price" -> {
+                    return sendJson(request.exchange, 200,
+                            jsonService.updateProductPrice(id, request.requiredDoubleParam("value")));
+                }
+                default -> throw new HttpStatusException(404, "Recurso não encontrado");
+            }
+        }
+        throw new HttpStatusException(404, "Recurso não encontrado");
+    }
+
+    private int createProduct(Request request) throws IOException {
+        String contentType = request.contentType();
+        byte[] body = jsonService.createProduct(request.body(), contentType);
+        return send(request.exchange, 201, body, contentType);
+    }
+
+    private int listProducts(Request request) throws IOException {
+        request.requireMethod("GET");
+        if (request.notModified(jsonService.getCatalogVersion())) {
+            return 304;
+        }
+        String active = request.param("active");
+        Boolean status = active != null ? Boolean.valueOf(active) : null;
+
+        if (request.param("limit") != null || request.param("cursor") != null) {
+            int limit = request.intParam("limit", ProductJsonService.MAX_PAGE_SIZE);
+            String page = status != null
+                    ? jsonService.findProductsByStatusPage(status, request.param("cursor"), limit)
+                    : jsonService.findAllProductsPage(request.param("cursor"), limit);
+            return sendJson(request.exchange, 200, page);
+        }
+        if (request.param("name") != null) {
+            return sendJson(request.exchange, 200, jsonService.findProductsByName(request.param("name")));
+        }
+        if (request.param("q") != null) {
+            return sendJson(request.exchange, 200, jsonService.findProductsByNameFuzzy(
+                    request.param("q"), request.intParam("maxEdits", 2), request.intParam("max", FUZZY_LIMIT)));
+        }
+
+        String accept = request.accept();
+        byte[] body = status != null
+                ? jsonService.findProductsByStatus(status, accept)
+                : jsonService.findAllProducts(accept);
+        return send(request.exchange, 200, body, accept);
+    }
+
+    private int productById(Request request, Integer id) throws IOException {
+        switch (request.method) {
+            case "GET" -> {
+                if (request.notModified(jsonService.getProductVersion(id))) {
+                    return 304;
+                }
+                byte[] body = jsonService.findProductById(id, request.accept());
+                if (body == null) {
+                    throw new HttpStatusException(404, "Produto com ID " + id + " não encontrado");
+                }
+                return send(request.exchange, 200, body, request.accept());
+            }
+            case "PUT", "PATCH" -> {
+                String contentType = request.contentType();
+                return send(request.exchange, 200, jsonService.updateProduct(id, request.body(), contentType), contentType);
+            }
+            case "DELETE" -> {
+                return sendJson(request.exchange, 200, jsonService.deleteProduct(id));
+            }
+            default -> throw new HttpStatusException(405, "Método não permitido: " + request.method);
+        }
+    }
+
+    private int search(Request request) throws IOException {
+        if (request.param("limit") != null || request.param("cursor") != null) {
+            return sendJson(request.exchange, 200, jsonService.findProductsWithFiltersPage(request.bodyAsString(),
+                    request.param("cursor"), request.intParam("limit", ProductJsonService.MAX_PAGE_SIZE)));
+        }
+        String contentType = request.contentType();
+        return send(request.exchange, 200, jsonService.findProductsWithFilters(request.body(), contentType), contentType);
+    }
+
+    private int export(Request request) throws IOException {
+        boolean ndjson = "ndjson".equalsIgnoreCase(request.param("format"));
+        HttpExchange exchange = request.exchange;
+        exchange.getResponseHeaders().set("Content-Type", ndjson ? "application/x-ndjson" : JSON_UTF8);
+        // Tamanho desconhecido: resposta em chunks, escrita enquanto o banco é lido
+        exchange.sendResponseHeaders(200, 0);
+        try {
+            jsonService.exportProducts(exchange.getResponseBody(), null,
+                    ndjson ? ProductJsonService.ExportFormat.NDJSON : ProductJsonService.ExportFormat.JSON_ARRAY);
+        } catch (IOException | RuntimeException e) {
+            throw new ResponseAbortedException(e);
+        }
+        return 200;
+    }
+
+    // === RESPOSTAS ===
+
+    private static int sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        return send(exchange, status, json.getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    private static int send(HttpExchange exchange, int status, byte[] body, String mediaType) throws IOException {
+        JsonUtils.WireFormat format = JsonUtils.WireFormat.fromContentType(mediaType);
+        exchange.getResponseHeaders().set("Content-Type",
+                format == JsonUtils.WireFormat.JSON ? JSON_UTF8 : format.getContentType());
+        // Tamanho fixo: a conexão pode ser reaproveitada pelo cliente
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            exchange.getResponseBody().write(body);
+        }
+        return status;
+    }
+
+    private static int send(HttpExchange exchange, int status, ErrorBody error) throws IOException {
+        exchange.getResponseHeaders().remove("ETag");
+        return send(exchange, status, JsonUtils.toJsonBytes(error), null);
+    }
+
+    private static ErrorBody error(int status, String message) {
+        return new ErrorBody(status, message);
+    }
+
+    // === REQUISIÇÃO ===
+
+    /**
+     * Método, caminho e parâmetros já separados
+     */
+    private final class Request {
+        private final HttpExchange exchange;
+        private final String method;
+        private final String[] path;
+        private final Map<String, String> query;
+
+        private Request(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.method = exchange.getRequestMethod().toUpperCase(Locale.ROOT);
+            String rawPath = exchange.getRequestURI().getRawPath();
+            String trimmed = rawPath.replaceAll("^/+|/+$", "");
+            this.path = trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+            this.query = parseQuery(exchange.getRequestURI().getRawQuery());
+        }
+
+        /** Nome do endpoint nas métricas: segmentos numéricos viram {id} */
+        private String endpoint() {
+            StringBuilder name = new StringBuilder(method).append(' ');
+            if (path.length == 0) {
+                name.append('/');
+            }
+            for (String segment : path) {
+                name.append('/').append(!segment.isEmpty() && segment.chars().allMatch(Character::isDigit)
+                        ? "{id}" : segment);
+            }
+            return name.toString();
+        }
+
+        private void requireMethod(String expected) {
+            if (!method.equals(expected)) {
+                throw new HttpStatusException(405, "Método não permitido: " + method);
+            }
+        }
+
+        private Integer id() {
+            try {
+                return Integer.valueOf(path[1]);
+            } catch (NumberFormatException e) {
+                throw new HttpStatusException(404, "Recurso não encontrado");
+            }
+        }
+
+        private String contentType() {
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            try {
+                JsonUtils.WireFormat.fromContentType(contentType);
+                return contentType;
+            } catch (IllegalArgumentException e) {
+                throw new HttpStatusException(415, e.getMessage());
+            }
+        }
+
+        /**
+         * Primeiro formato suportado do Accept (JSON se ausente)
+         */
+        private String accept() {
+            Headers headers = exchange.getRequestHeaders();
+            String accept = headers.getFirst("Accept");
+            if (accept == null || accept.isBlank()) {
+                return null;
+            }
+            for (String candidate : accept.split(",")) {
+                try {
+                    JsonUtils.WireFormat.fromContentType(candidate);
+                    return candidate.trim();
+                } catch (IllegalArgumentException e) {
+                    // tenta o próximo
+                }
+            }
+            throw new HttpStatusException(406, "Formato não suportado: " + accept);
+        }
+
+        /**
+         * Grava o ETag da versão e, se o If-None-Match já a contém, responde 304
+         * @param version versão lida antes da consulta
+         * @return true se a resposta 304 foi enviada
+         */
+        private boolean notModified(String version) throws IOException {
+            String etag = "W/\"" + version + "\"";
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("ETag", etag);
+            headers.set("Cache-Control", "no-cache");
+            headers.set("Vary", "Accept");
+
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                // Comparação fraca: W/"v" e "v" são a mesma versão
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals(etag.substring(2))) {
+                    exchange.sendResponseHeaders(304, -1);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Lê o corpo respeitando o limite de tamanho
+         */
+        private byte[] body() throws IOException {
+            long maxBytes = config.getMaxRequestBytes();
+            String length = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (length != null) {
+                try {
+                    if (Long.parseLong(length.trim()) > maxBytes) {
+                        throw new HttpStatusException(413, "Corpo maior que " + maxBytes + " bytes");
+                    }
+                } catch (NumberFormatException e) {
+                    throw new HttpStatusException(400, "Content-Length inválido");
+                }
+            }
+
+            try (InputStream input = exchange.getRequestBody()) {
+                byte[] body = input.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxBytes + 1));
+                if (body.length > maxBytes) {
+                    throw new HttpStatusException(413, "Corpo maior que " + maxBytes + " bytes");
+                }
+                return body;
+            }
+        }
+
+        private String bodyAsString() throws IOException {
+            return new String(body(), StandardCharsets.UTF_8);
+        }
+
+        private String param(String name) {
+            return query.get(name);
+        }
+
+        private int intParam(String name, int defaultValue) {
+            String value = query.get(name);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                throw new HttpStatusException(400, "Parâmetro '" + name + "' deve ser número inteiro");
+            }
+        }
+
+        private long longParam(String name, long defaultValue) {
+            String value = query.get(name);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                throw new HttpStatusException(400, "Parâmetro '" + name + "' deve ser número inteiro");
+            }
+        }
+
+        private Double doubleParam(String name) {
+            String value = query.get(name);
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            try {
+                return Double.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                throw new HttpStatusException(400, "Parâmetro '" + name + "' deve ser número");
+            }
+        }
+
+        private Double requiredDoubleParam(String name) {
+            Double value = doubleParam(name);
+            if (value == null) {
+                throw new HttpStatusException(400, "Parâmetro '" + name + "' é obrigatório");
+            }
+            return value;
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals >= 0 ? pair.substring(0, equals) : pair;
+            String value = equals >= 0 ? pair.substring(equals + 1) : "";
+            query.putIfAbsent(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    // === CLASSES AUXILIARES ===
+
+    /** Interrompe o atendimento com um código HTTP específico */
+    private static class HttpStatusException extends RuntimeException {
+        private final int status;
+
+        private HttpStatusException(int status, String message) {
+            super(message, null, false, false);
+            this.status = status;
+        }
+    }
+
+    /** Falha depois de enviados os cabeçalhos: a conexão é abortada */
+    private static class ResponseAbortedException extends IOException {
+        private ResponseAbortedException(Exception cause) {
+            super(cause);
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            return new Thread(task, "http-worker-" + counter.incrementAndGet());
+        }
+    }
+
+    /**
+     * Corpo das respostas de erro
+     */
+    @JsonPropertyOrder({"status", "error"})
+    public static class ErrorBody {
+        private final int status;
+        private final String error;
+
+        public ErrorBody(int status, String error) {
+            this.status = status;
+            this.error = error;
+        }
+
+        public int getStatus() { return status; }
+
+        public String getError() { return error; }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ejsjose.infra;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Esquema do banco (tabelas e índices), o mesmo para o Hibernate e para o JDBC
+ */
+public final class DatabaseSchema {
+
+    private DatabaseSchema() {}
+
+    /**
+     * Cria as tabelas e índices que ainda não existem
+     * 
+     * Deve rodar dentro de uma transação: o chamador confirma.
+     * @param connection conexão com o banco
+     * @throws SQLException se erro no banco
+     */
+    public static void createIfNotExists(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(
+                "CREATE TABLE IF NOT EXISTS products (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "name TEXT, " +
+                "price REAL, " +
+                "quantity INTEGER NOT NULL, " +
+                "status BOOLEAN NOT NULL, " +
+                "updated_seq INTEGER NOT NULL DEFAULT 0" +
+                ")"
+            );
+            addUpdatedSeqIfMissing(statement);
+            statement.executeUpdate(
+                "CREATE INDEX IF NOT EXISTS idx_products_updated_seq ON products (updated_seq)"
+            );
+            // Produtos removidos, para a sincronização incremental
+            statement.executeUpdate(
+                "CREATE TABLE IF NOT EXISTS product_tombstones (" +
+                "id INTEGER PRIMARY KEY, " +
+                "deleted_seq INTEGER NOT NULL" +
+                ")"
+            );
+            statement.executeUpdate(
+                "CREATE INDEX IF NOT EXISTS idx_product_tombstones_deleted_seq ON product_tombstones (deleted_seq)"
+            );
+        }
+    }
+
+    /**
+     * Bancos criados antes da sincronização incremental não têm updated_seq:
+     * a coluna é incluída e as linhas existentes recebem sequências
+     * distintas (o próprio ID), para aparecerem em uma sincronização do zero
+     */
+    private static void addUpdatedSeqIfMissing(Statement statement) throws SQLException {
+        try (ResultSet columns = statement.executeQuery(
+                "SELECT COUNT(*) FROM pragma_table_info('products') WHERE name = 'updated_seq'")) {
+            if (columns.next() && columns.getInt(1) > 0) {
+                return;
+            }
+        }
+        statement.executeUpdate("ALTER TABLE products ADD COLUMN updated_seq INTEGER NOT NULL DEFAULT 0");
+        statement.executeUpdate("UPDATE products SET updated_seq = id");
+    }
+}
@@ -4,9 +4,19 @@ import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
 import javax.persistence.EntityManager;
 
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernateEntityManagerFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.HashMap;
+import java.util.Map;
+
 public class HibernateUtil {
 
-    private static final EntityManagerFactory emf = Persistence.createEntityManagerFactory("crudHibernatePU");
+    private static final EntityManagerFactory emf =
+            Persistence.createEntityManagerFactory("crudHibernatePU", statisticsSettings());
 
     static {
         // Criar a tabela products se ela não existir
@@ -17,23 +27,48 @@ public class HibernateUtil {
         return emf.createEntityManager();
     }
 
+    /**
+     * Sessão sem contexto de persistência, para varreduras só de leitura:
+     * as entidades lidas não são guardadas nem comparadas no flush
+     * @return sessão a ser fechada pelo chamador
+     */
+    public static StatelessSession openStatelessSession() {
+        return ((HibernateEntityManagerFactory) emf).getSessionFactory().openStatelessSession();
+    }
+
+    /**
+     * Contadores da SessionFactory (só coletados com
+     * {@link PersistenceStatistics#isEnabled()})
+     * @return estatísticas do Hibernate
+     */
+    public static Statistics getStatistics() {
+        return ((HibernateEntityManagerFactory) emf).getSessionFactory().getStatistics();
+    }
+
     public static void shutdown() {
         emf.close();
     }
 
+    /**
+     * Com as estatísticas ligadas: contadores do Hibernate e conexões com o
+     * log de comandos lentos. O resumo por sessão do Hibernate fica
+     * desligado, para não escrever no log a cada sessão.
+     */
+    private static Map<String, Object> statisticsSettings() {
+        Map<String, Object> settings = new HashMap<>();
+        if (PersistenceStatistics.isEnabled()) {
+            settings.put(AvailableSettings.GENERATE_STATISTICS, "true");
+            settings.put(AvailableSettings.LOG_SESSION_METRICS, "false");
+            settings.put(AvailableSettings.CONNECTION_PROVIDER, SlowQueryConnectionProvider.class.getName());
+        }
+        return settings;
+    }
+
     private static void createTableIfNotExists() {
         EntityManager em = emf.createEntityManager();
         try {
             em.getTransaction().begin();
-            em.createNativeQuery(
-                "CREATE TABLE IF NOT EXISTS products (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "name TEXT, " +
-                "price REAL, " +
-                "quantity INTEGER NOT NULL, " +
-                "status BOOLEAN NOT NULL" +
-                ")"
-            ).executeUpdate();
+            em.unwrap(Session.class).doWork(DatabaseSchema::createIfNotExists);
             em.getTransaction().commit();
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
@@ -44,4 +79,4 @@ public class HibernateUtil {
             em.close();
         }
     }
-}
\ No newline at end of file
+}
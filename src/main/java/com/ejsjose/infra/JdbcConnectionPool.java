@@ -0,0 +1,276 @@
+package com.ejsjose.infra;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de conexões JDBC com cache de PreparedStatement por conexão
+ *
+ * As conexões são abertas sob demanda até o máximo configurado e voltam
+ * ao pool em {@link #release}; quem pede além disso espera até
+ * {@link #BORROW_TIMEOUT_SECONDS}. Cada conexão guarda os últimos
+ * PreparedStatement usados, pelo SQL, para não compilar a mesma consulta
+ * a cada chamada.
+ *
+ * Com {@link PersistenceStatistics#isEnabled()} as conexões passam pelo
+ * {@link SlowQueryLog}.
+ *
+ * Na criação o esquema do banco é garantido ({@link DatabaseSchema}), como
+ * faz o {@link HibernateUtil} na inicialização.
+ */
+public class JdbcConnectionPool implements AutoCloseable {
+
+    /** Mesmo banco e opções do persistence.xml */
+    public static final String DEFAULT_URL = "jdbc:sqlite:./tstcrud.db3?journal_mode=WAL&busy_timeout=5000";
+
+    /** PreparedStatement guardados por conexão */
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+    /** Espera máxima por uma conexão livre */
+    public static final long BORROW_TIMEOUT_SECONDS = 30;
+
+    private static JdbcConnectionPool defaultPool;
+
+    private final String url;
+    private final int statementCacheSize;
+    private final Semaphore permits;
+    private final BlockingQueue<PooledConnection> idle = new LinkedBlockingQueue<>();
+    private final Set<PooledConnection> open = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    /**
+     * @param url URL JDBC do banco
+     * @param maxConnections conexões abertas ao mesmo tempo, no máximo
+     * @param statementCacheSize PreparedStatement guardados por conexão
+     */
+    public JdbcConnectionPool(String url, int maxConnections, int statementCacheSize) {
+        if (url == null || url.isBlank()) {
+            throw new IllegalArgumentException("URL do banco não pode ser vazia");
+        }
+        if (maxConnections <= 0 || statementCacheSize <= 0) {
+            throw new IllegalArgumentException("Tamanho do pool e do cache de comandos devem ser maiores que zero");
+        }
+        this.url = url;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxConnections, true);
+        createSchema();
+    }
+
+    /**
+     * Pool padrão do processo, criado no primeiro uso a partir das
+     * propriedades {@code tstcrud.jdbc.*} (url, poolSize, statementCacheSize)
+     * @return pool compartilhado
+     */
+    public static synchronized JdbcConnectionPool getDefault() {
+        if (defaultPool == null || defaultPool.closed) {
+            defaultPool = new JdbcConnectionPool(
+                    System.getProperty("tstcrud.jdbc.url", DEFAULT_URL),
+                    Integer.getInteger("tstcrud.jdbc.poolSize", Math.max(4, Runtime.getRuntime().availableProcessors())),
+                    Integer.getInteger("tstcrud.jdbc.statementCacheSize", DEFAULT_STATEMENT_CACHE_SIZE));
+        }
+        return defaultPool;
+    }
+
+    /**
+     * Fecha o pool padrão, se foi criado
+     */
+    public static synchronized void closeDefault() {
+        if (defaultPool != null) {
+            defaultPool.close();
+            defaultPool = null;
+        }
+    }
+
+    /**
+     * Pega uma conexão livre (em autocommit), abrindo uma nova se preciso
+     * @return conexão, a devolver com {@link #release}
+     */
+    public PooledConnection borrow() {
+        if (closed) {
+            throw new IllegalStateException("Pool de conexões fechado");
+        }
+        try {
+            if (!permits.tryAcquire(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new RuntimeException("Tempo esgotado aguardando conexão do pool");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrompido aguardando conexão do pool", e);
+        }
+
+        PooledConnection connection = idle.poll();
+        if (connection != null) {
+            return connection;
+        }
+        try {
+            Connection jdbc = DriverManager.getConnection(url);
+            if (PersistenceStatistics.isEnabled()) {
+                jdbc = SlowQueryLog.wrap(jdbc);
+            }
+            connection = new PooledConnection(jdbc, statementCacheSize);
+            open.add(connection);
+            return connection;
+        } catch (SQLException e) {
+            permits.release();
+            throw new RuntimeException("Erro ao abrir conexão: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Devolve a conexão ao pool. Uma transação deixada aberta é desfeita;
+     * conexões com erro são fechadas em vez de voltar.
+     * @param connection conexão obtida em {@link #borrow}
+     */
+    public void release(PooledConnection connection) {
+        try {
+            if (!connection.broken && !closed) {
+                Connection jdbc = connection.getConnection();
+                if (!jdbc.getAutoCommit()) {
+                    jdbc.rollback();
+                    jdbc.setAutoCommit(true);
+                }
+                idle.add(connection);
+                return;
+            }
+        } catch (SQLException e) {
+            // Estado desconhecido: a conexão não volta ao pool
+        } finally {
+            permits.release();
+        }
+        discard(connection);
+    }
+
+    /**
+     * Fecha as conexões livres; as emprestadas são fechadas ao voltar
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idle.poll()) != null) {
+            discard(connection);
+        }
+    }
+
+    public int getOpenConnections() {
+        return open.size();
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    private void discard(PooledConnection connection) {
+        open.remove(connection);
+        connection.closeQuietly();
+    }
+
+    private void createSchema() {
+        PooledConnection connection = borrow();
+        try {
+            Connection jdbc = connection.getConnection();
+            jdbc.setAutoCommit(false);
+            DatabaseSchema.createIfNotExists(jdbc);
+            jdbc.commit();
+        } catch (SQLException e) {
+            System.out.println("Tabela já existe ou erro ao criar: " + e.getMessage());
+        } finally {
+            release(connection);
+        }
+    }
+
+    /**
+     * Conexão do pool com seus PreparedStatement guardados
+     *
+     * Usada por uma thread de cada vez (entre borrow e release).
+     */
+    public static final class PooledConnection {
+
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements;
+        private boolean broken;
+
+        private PooledConnection(Connection connection, int statementCacheSize) {
+            this.connection = connection;
+            // Ordem de acesso: o menos usado recentemente sai (e é fechado) quando o cache enche
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() <= statementCacheSize) {
+                        return false;
+                    }
+                    try {
+                        eldest.getValue().close();
+                    } catch (SQLException e) {
+                        // Já descartado do cache; nada a fazer
+                    }
+                    return true;
+                }
+            };
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         * PreparedStatement do SQL, do cache ou preparado agora
+         *
+         * Não deve ser fechado pelo chamador (só os ResultSet). Os parâmetros
+         * da execução anterior são limpos.
+         * @param sql comando com parâmetros posicionais
+         * @return comando pronto para receber os parâmetros
+         * @throws SQLException se erro ao preparar
+         */
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement != null) {
+                statement.clearParameters();
+                return statement;
+            }
+            try {
+                statement = connection.prepareStatement(sql);
+            } catch (SQLException e) {
+                if (connection.isClosed()) {
+                    broken = true;
+                }
+                throw e;
+            }
+            statements.put(sql, statement);
+            return statement;
+        }
+
+        /**
+         * Marca a conexão para ser fechada em vez de voltar ao pool
+         */
+        public void markBroken() {
+            broken = true;
+        }
+
+        private void closeQuietly() {
+            for (PreparedStatement statement : statements.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // Fechando a conexão de qualquer forma
+                }
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                // Conexão já inutilizável
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.ejsjose.infra;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latências em nanossegundos, no estilo do HdrHistogram
+ *
+ * Faixas log-lineares: cada potência de dois é dividida em
+ * {@link #SUB_BUCKETS} faixas iguais, então o erro relativo de um
+ * percentil fica abaixo de 1/32 (~3%) de 1 ns até o teto
+ * ({@link #MAX_TRACKABLE_NANOS}, ~18 minutos; acima disso conta no teto).
+ *
+ * O registro é um incremento atômico em um array fixo, sem lock nem
+ * alocação. A leitura não para os registros: um retrato tirado durante
+ * chamadas concorrentes pode não incluir as mais recentes.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /** Faixas por potência de dois */
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Maior valor distinguível (2^40 ns) */
+    public static final long MAX_TRACKABLE_NANOS = 1L << 40;
+
+    private static final int BUCKET_COUNT = indexOf(MAX_TRACKABLE_NANOS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Registra uma duração
+     * @param nanos duração em nanossegundos (negativos contam como zero)
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_TRACKABLE_NANOS));
+        counts.incrementAndGet(indexOf(value));
+        if (nanos > maxNanos.get()) {
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * Cópia dos contadores, para calcular vários percentis do mesmo retrato
+     * @return retrato do histograma
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, maxNanos.get());
+    }
+
+    /**
+     * Faixa do valor: abaixo de 2 * SUB_BUCKETS o próprio valor; acima,
+     * SUB_BUCKETS faixas por potência de dois
+     */
+    private static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> magnitude) - SUB_BUCKETS;
+        return 2 * SUB_BUCKETS + (magnitude - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /** Maior valor que cai na faixa (o percentil reportado é conservador) */
+    private static long highestValueOf(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int magnitude = (index - 2 * SUB_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (index - 2 * SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << magnitude) - 1;
+    }
+
+    /**
+     * Retrato imutável do histograma
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long totalCount;
+        private final long maxNanos;
+
+        private Snapshot(long[] counts, long totalCount, long maxNanos) {
+            this.counts = counts;
+            this.totalCount = totalCount;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Valor abaixo do qual (ou igual) está o percentual pedido das amostras
+         * @param percentile de 0 a 100 (ex: 99.9)
+         * @return duração em nanossegundos (0 se não há amostras)
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentil deve estar entre 0 e 100");
+            }
+            if (totalCount == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(highestValueOf(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+    }
+}
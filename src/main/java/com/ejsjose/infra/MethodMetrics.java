@@ -0,0 +1,208 @@
+package com.ejsjose.infra;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores e histogramas de latência por método, para as camadas de
+ * repositório e service
+ *
+ * {@link #instrument} embrulha uma implementação de interface em um proxy
+ * que mede cada chamada: quantidade, exceções e a latência em um
+ * {@link LatencyHistogram}. O registro não usa lock; o custo por chamada
+ * é o do proxy mais alguns incrementos atômicos.
+ *
+ * Só as chamadas que passam pelo proxy são medidas: chamadas internas de
+ * uma implementação aos próprios métodos não aparecem. Em métodos que
+ * devolvem Stream a latência é a da abertura, não a do consumo.
+ */
+public final class MethodMetrics {
+
+    private static final MethodMetrics DEFAULT = new MethodMetrics();
+
+    private final ConcurrentMap<String, MethodStats> methods = new ConcurrentHashMap<>();
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Registro compartilhado do processo
+     * @return registro padrão
+     */
+    public static MethodMetrics getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Implementação instrumentada, registrando no registro padrão
+     * @param type interface a expor
+     * @param target implementação real
+     * @return proxy que mede e repassa as chamadas
+     */
+    public static <T> T instrument(Class<T> type, T target) {
+        return DEFAULT.wrap(type, target);
+    }
+
+    /**
+     * Implementação instrumentada, registrando neste registro
+     *
+     * Os métodos aparecem como "Interface.método"; sobrecargas recebem os
+     * tipos dos parâmetros, ex: "IProductRepository.findPage(Integer,int)".
+     * @param type interface a expor
+     * @param target implementação real
+     * @return proxy que mede e repassa as chamadas
+     */
+    public <T> T wrap(Class<T> type, T target) {
+        if (!type.isInterface()) {
+            throw new IllegalArgumentException("Só interfaces podem ser instrumentadas: " + type.getName());
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("Implementação não pode ser nula");
+        }
+
+        // Contadores resolvidos uma vez: a chamada só consulta um HashMap que não muda mais
+        Map<String, Integer> overloads = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            overloads.merge(method.getName(), 1, Integer::sum);
+        }
+        Map<Method, MethodStats> stats = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            String name = type.getSimpleName() + "." + method.getName();
+            if (overloads.get(method.getName()) > 1) {
+                name += parameterList(method);
+            }
+            stats.put(method, methods.computeIfAbsent(name, key -> new MethodStats()));
+        }
+
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+            MethodStats methodStats = stats.get(method);
+            if (methodStats == null) {
+                // equals, hashCode e toString de Object
+                return invoke(method, target, args);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return invoke(method, target, args);
+            } catch (Throwable e) {
+                methodStats.errors.increment();
+                throw e;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                methodStats.calls.increment();
+                methodStats.totalNanos.add(elapsed);
+                methodStats.latency.record(elapsed);
+            }
+        });
+        return type.cast(proxy);
+    }
+
+    /**
+     * Retrato dos contadores, ordenado pelo nome do método
+     * @return um item por método já chamado
+     */
+    public List<Snapshot> snapshot() {
+        double elapsedSeconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+        List<Snapshot> snapshots = new ArrayList<>(methods.size());
+        for (Map.Entry<String, MethodStats> entry : methods.entrySet()) {
+            MethodStats stats = entry.getValue();
+            long calls = stats.calls.sum();
+            if (calls == 0) {
+                continue;
+            }
+            LatencyHistogram.Snapshot latency = stats.latency.snapshot();
+            snapshots.add(new Snapshot(entry.getKey(), calls, stats.errors.sum(), calls / elapsedSeconds,
+                    stats.totalNanos.sum() / 1e6 / calls,
+                    latency.getValueAtPercentile(50) / 1e6,
+                    latency.getValueAtPercentile(99) / 1e6,
+                    latency.getValueAtPercentile(99.9) / 1e6,
+                    latency.getMaxNanos() / 1e6));
+        }
+        snapshots.sort(Comparator.comparing(Snapshot::getMethod));
+        return snapshots;
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            // Repassa a exceção original, não o embrulho da reflexão
+            throw e.getCause();
+        }
+    }
+
+    private static String parameterList(Method method) {
+        StringBuilder list = new StringBuilder("(");
+        Class<?>[] parameters = method.getParameterTypes();
+        for (int i = 0; i < parameters.length; i++) {
+            list.append(i > 0 ? "," : "").append(parameters[i].getSimpleName());
+        }
+        return list.append(')').toString();
+    }
+
+    private static final class MethodStats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    /**
+     * Contadores de um método
+     */
+    @JsonPropertyOrder({"method", "calls", "errors", "callsPerSecond", "meanMillis",
+            "p50Millis", "p99Millis", "p999Millis", "maxMillis"})
+    public static final class Snapshot {
+        private final String method;
+        private final long calls;
+        private final long errors;
+        private final double callsPerSecond;
+        private final double meanMillis;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final double p999Millis;
+        private final double maxMillis;
+
+        public Snapshot(String method, long calls, long errors, double callsPerSecond, double meanMillis,
+                        double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+            this.method = method;
+            this.calls = calls;
+            this.errors = errors;
+            this.callsPerSecond = callsPerSecond;
+            this.meanMillis = meanMillis;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.p999Millis = p999Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        public String getMethod() { return method; }
+
+        public long getCalls() { return calls; }
+
+        /** Chamadas que terminaram em exceção */
+        public long getErrors() { return errors; }
+
+        /** Média desde a criação do registro */
+        public double getCallsPerSecond() { return callsPerSecond; }
+
+        public double getMeanMillis() { return meanMillis; }
+
+        public double getP50Millis() { return p50Millis; }
+
+        public double getP99Millis() { return p99Millis; }
+
+        public double getP999Millis() { return p999Millis; }
+
+        public double getMaxMillis() { return maxMillis; }
+    }
+}
@@ -0,0 +1,68 @@
+package com.ejsjose.infra;
+
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento do Java Flight Recorder de uma operação de negócio: nome, produto,
+ * resumo do filtro, linhas e duração
+ *
+ * Criado já iniciado por {@link OperationEvents}, que tem os tipos
+ * concretos, e encerrado com {@link #finish}. Desligado por padrão.
+ */
+@Enabled(false)
+@StackTrace(false)
+public abstract class OperationEvent extends Event {
+
+    /** Tamanho máximo do resumo do filtro */
+    private static final int MAX_FILTER_LENGTH = 200;
+
+    @Label("Operação")
+    String operation;
+
+    @Label("ID do produto")
+    @Description("0 quando a operação não é sobre um produto")
+    int productId;
+
+    @Label("Filtro")
+    String filter;
+
+    @Label("Linhas")
+    @Description("Produtos gravados, removidos ou devolvidos; -1 quando não se aplica")
+    long rowsAffected;
+
+    protected OperationEvent(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * Encerra e grava o evento, se ligado e acima do limite de duração
+     * @param rowsAffected produtos afetados ou devolvidos (-1 se não se aplica)
+     */
+    public final void finish(long rowsAffected) {
+        finish(null, null, rowsAffected);
+    }
+
+    /**
+     * Encerra e grava o evento, se ligado e acima do limite de duração
+     * @param productId produto da operação (ou null)
+     * @param filter filtro da operação (ou null); o toString vira o resumo
+     * @param rowsAffected produtos afetados ou devolvidos (-1 se não se aplica)
+     */
+    public final void finish(Integer productId, Object filter, long rowsAffected) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.productId = productId != null ? productId : 0;
+        if (filter != null) {
+            String summary = filter.toString();
+            this.filter = summary.length() > MAX_FILTER_LENGTH ? summary.substring(0, MAX_FILTER_LENGTH) + "..." : summary;
+        }
+        this.rowsAffected = rowsAffected;
+        commit();
+    }
+}
@@ -0,0 +1,96 @@
+package com.ejsjose.infra;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Eventos do Java Flight Recorder para as operações do repositório, do
+ * service e do service JSON
+ *
+ * Desligados por padrão: só são gravados quando a gravação os liga, ex:
+ * <pre>
+ * -XX:StartFlightRecording:filename=tstcrud.jfr,+com.ejsjose.ServiceOperation#enabled=true
+ * </pre>
+ * ou com um .jfc que tenha {@code <event name="com.ejsjose.ServiceOperation">}
+ * com {@code <setting name="enabled">true</setting>}.
+ *
+ * Uso:
+ * <pre>
+ * OperationEvent event = OperationEvents.service("applyDiscount");
+ * int updated = ...;
+ * event.finish(null, filterDTO, updated);
+ * </pre>
+ * Com o evento desligado begin/shouldCommit não fazem nada e, compilado
+ * pelo JIT, o objeto nem chega a ser criado; o filtro só vira texto quando
+ * o evento vai ser gravado. Chamadas que terminam em exceção não geram
+ * evento (o JFR já registra as exceções).
+ *
+ * As fábricas ficam aqui e não em {@link OperationEvent}: uma classe
+ * abstrata de evento que carrega as subclasses quebra a instrumentação do
+ * JFR 17 quando a gravação já está ativa (LinkageError, definição duplicada).
+ */
+public final class OperationEvents {
+
+    private OperationEvents() {}
+
+    /**
+     * Evento de uma operação do repositório, já iniciado
+     * @param operation nome do método
+     * @return evento a encerrar com finish
+     */
+    public static OperationEvent repository(String operation) {
+        OperationEvent event = new RepositoryOperation(operation);
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Evento de uma operação do service, já iniciado
+     * @param operation nome do método
+     * @return evento a encerrar com finish
+     */
+    public static OperationEvent service(String operation) {
+        OperationEvent event = new ServiceOperation(operation);
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Evento de uma operação do service JSON, já iniciado
+     * @param operation nome do método
+     * @return evento a encerrar com finish
+     */
+    public static OperationEvent json(String operation) {
+        OperationEvent event = new JsonOperation(operation);
+        event.begin();
+        return event;
+    }
+
+    @Name("com.ejsjose.RepositoryOperation")
+    @Label("Operação do repositório")
+    @Category({"tstcrud", "Repositório"})
+    static final class RepositoryOperation extends OperationEvent {
+        RepositoryOperation(String operation) {
+            super(operation);
+        }
+    }
+
+    @Name("com.ejsjose.ServiceOperation")
+    @Label("Operação do service")
+    @Category({"tstcrud", "Service"})
+    static final class ServiceOperation extends OperationEvent {
+        ServiceOperation(String operation) {
+            super(operation);
+        }
+    }
+
+    @Name("com.ejsjose.JsonOperation")
+    @Label("Operação do service JSON")
+    @Category({"tstcrud", "JSON"})
+    static final class JsonOperation extends OperationEvent {
+        JsonOperation(String operation) {
+            super(operation);
+        }
+    }
+}
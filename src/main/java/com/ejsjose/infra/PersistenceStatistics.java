@@ -0,0 +1,198 @@
+package com.ejsjose.infra;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estatísticas de persistência: contadores do Hibernate por consulta e
+ * o log de comandos lentos ({@link SlowQueryLog})
+ *
+ * Desligadas por padrão; a propriedade de sistema {@code tstcrud.statistics=true}
+ * liga o {@code hibernate.generate_statistics} e o log de comandos lentos,
+ * com limite em {@code tstcrud.statistics.slowQueryMillis}
+ * ({@value #DEFAULT_SLOW_QUERY_MILLIS} ms por padrão). As duas são lidas uma
+ * vez, na inicialização.
+ */
+@JsonPropertyOrder({"enabled", "slowQueryMillis", "slowStatements", "hibernate"})
+public final class PersistenceStatistics {
+
+    public static final String PROPERTY = "tstcrud.statistics";
+    public static final String SLOW_QUERY_PROPERTY = "tstcrud.statistics.slowQueryMillis";
+    public static final long DEFAULT_SLOW_QUERY_MILLIS = 200;
+
+    private static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+    private static final long SLOW_QUERY_MILLIS = Long.getLong(SLOW_QUERY_PROPERTY, DEFAULT_SLOW_QUERY_MILLIS);
+    private static final long SLOW_QUERY_NANOS = TimeUnit.MILLISECONDS.toNanos(SLOW_QUERY_MILLIS);
+
+    private final boolean enabled;
+    private final long slowQueryMillis;
+    private final long slowStatements;
+    private final HibernateCounters hibernate;
+
+    private PersistenceStatistics(HibernateCounters hibernate) {
+        this.enabled = ENABLED;
+        this.slowQueryMillis = SLOW_QUERY_MILLIS;
+        this.slowStatements = SlowQueryLog.getSlowStatementCount();
+        this.hibernate = hibernate;
+    }
+
+    /**
+     * Coleta ligada pela propriedade {@link #PROPERTY}
+     * @return true se estatísticas e log de comandos lentos estão ativos
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    static long getSlowQueryNanos() {
+        return SLOW_QUERY_NANOS;
+    }
+
+    /**
+     * Retrato sem contadores do Hibernate (repositório JDBC)
+     * @return só o log de comandos lentos
+     */
+    public static PersistenceStatistics jdbcOnly() {
+        return new PersistenceStatistics(null);
+    }
+
+    /**
+     * Retrato com os contadores do Hibernate
+     * @param statistics estatísticas da SessionFactory
+     * @return retrato; sem contadores do Hibernate se a coleta está desligada
+     */
+    public static PersistenceStatistics of(Statistics statistics) {
+        if (!statistics.isStatisticsEnabled()) {
+            return new PersistenceStatistics(null);
+        }
+        List<QueryCounters> queries = new ArrayList<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics stats = statistics.getQueryStatistics(query);
+            if (stats.getExecutionCount() > 0) {
+                queries.add(new QueryCounters(query, stats.getExecutionCount(), stats.getExecutionRowCount(),
+                        stats.getExecutionAvgTime(), stats.getExecutionMaxTime()));
+            }
+        }
+        // As que mais somaram tempo primeiro
+        queries.sort(Comparator.comparingLong((QueryCounters q) -> q.executionCount * q.meanMillis).reversed());
+
+        return new PersistenceStatistics(new HibernateCounters(
+                statistics.getSessionOpenCount(), statistics.getFlushCount(),
+                statistics.getEntityLoadCount(), statistics.getEntityFetchCount(),
+                statistics.getEntityInsertCount(), statistics.getEntityUpdateCount(),
+                statistics.getEntityDeleteCount(), statistics.getQueryExecutionCount(),
+                statistics.getQueryExecutionMaxTime(), queries));
+    }
+
+    /** Coleta ligada ({@link #PROPERTY}) */
+    public boolean getEnabled() {
+        return enabled;
+    }
+
+    public long getSlowQueryMillis() {
+        return slowQueryMillis;
+    }
+
+    /** Comandos que passaram do limite desde o início do processo */
+    public long getSlowStatements() {
+        return slowStatements;
+    }
+
+    /** Contadores do Hibernate (ausentes no repositório JDBC ou com a coleta desligada) */
+    public HibernateCounters getHibernate() {
+        return hibernate;
+    }
+
+    /**
+     * Contadores da SessionFactory
+     */
+    @JsonPropertyOrder({"sessionOpenCount", "flushCount", "entityLoadCount", "entityFetchCount",
+            "entityInsertCount", "entityUpdateCount", "entityDeleteCount",
+            "queryExecutionCount", "queryExecutionMaxMillis", "queries"})
+    public static final class HibernateCounters {
+        private final long sessionOpenCount;
+        private final long flushCount;
+        private final long entityLoadCount;
+        private final long entityFetchCount;
+        private final long entityInsertCount;
+        private final long entityUpdateCount;
+        private final long entityDeleteCount;
+        private final long queryExecutionCount;
+        private final long queryExecutionMaxMillis;
+        private final List<QueryCounters> queries;
+
+        HibernateCounters(long sessionOpenCount, long flushCount, long entityLoadCount, long entityFetchCount,
+                          long entityInsertCount, long entityUpdateCount, long entityDeleteCount,
+                          long queryExecutionCount, long queryExecutionMaxMillis, List<QueryCounters> queries) {
+            this.sessionOpenCount = sessionOpenCount;
+            this.flushCount = flushCount;
+            this.entityLoadCount = entityLoadCount;
+            this.entityFetchCount = entityFetchCount;
+            this.entityInsertCount = entityInsertCount;
+            this.entityUpdateCount = entityUpdateCount;
+            this.entityDeleteCount = entityDeleteCount;
+            this.queryExecutionCount = queryExecutionCount;
+            this.queryExecutionMaxMillis = queryExecutionMaxMillis;
+            this.queries = queries;
+        }
+
+        public long getSessionOpenCount() { return sessionOpenCount; }
+
+        public long getFlushCount() { return flushCount; }
+
+        /** Entidades montadas a partir do banco */
+        public long getEntityLoadCount() { return entityLoadCount; }
+
+        /** Entidades buscadas por carga preguiçosa ou find */
+        public long getEntityFetchCount() { return entityFetchCount; }
+
+        public long getEntityInsertCount() { return entityInsertCount; }
+
+        public long getEntityUpdateCount() { return entityUpdateCount; }
+
+        public long getEntityDeleteCount() { return entityDeleteCount; }
+
+        public long getQueryExecutionCount() { return queryExecutionCount; }
+
+        public long getQueryExecutionMaxMillis() { return queryExecutionMaxMillis; }
+
+        /** Por consulta JPQL/HQL, da que mais somou tempo para a que menos somou */
+        public List<QueryCounters> getQueries() { return queries; }
+    }
+
+    /**
+     * Contadores de uma consulta JPQL/HQL (tempos em ms, resolução do Hibernate)
+     */
+    @JsonPropertyOrder({"query", "executionCount", "rowCount", "meanMillis", "maxMillis"})
+    public static final class QueryCounters {
+        private final String query;
+        private final long executionCount;
+        private final long rowCount;
+        private final long meanMillis;
+        private final long maxMillis;
+
+        QueryCounters(String query, long executionCount, long rowCount, long meanMillis, long maxMillis) {
+            this.query = query;
+            this.executionCount = executionCount;
+            this.rowCount = rowCount;
+            this.meanMillis = meanMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        public String getQuery() { return query; }
+
+        public long getExecutionCount() { return executionCount; }
+
+        public long getRowCount() { return rowCount; }
+
+        public long getMeanMillis() { return meanMillis; }
+
+        public long getMaxMillis() { return maxMillis; }
+    }
+}
@@ -0,0 +1,26 @@
+package com.ejsjose.infra;
+
+import org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Provedor de conexões padrão do Hibernate com o {@link SlowQueryLog}
+ *
+ * Instalado pelo {@link HibernateUtil} quando as estatísticas estão ligadas
+ * ({@link PersistenceStatistics#isEnabled()}).
+ */
+public class SlowQueryConnectionProvider extends DriverManagerConnectionProviderImpl {
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return SlowQueryLog.wrap(super.getConnection());
+    }
+
+    @Override
+    public void closeConnection(Connection conn) throws SQLException {
+        // O pool interno guarda a conexão real; o proxy é criado de novo a cada empréstimo
+        super.closeConnection(SlowQueryLog.unwrap(conn));
+    }
+}
@@ -0,0 +1,204 @@
+package com.ejsjose.infra;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log dos comandos SQL lentos, com os parâmetros
+ *
+ * {@link #wrap} embrulha uma conexão JDBC em um proxy que guarda os
+ * parâmetros de cada PreparedStatement e mede as execuções; as que passam
+ * do limite ({@link PersistenceStatistics#getSlowQueryMillis()}) vão para o
+ * logger {@link #LOGGER_NAME} em WARN. Abaixo do limite o custo é o do
+ * proxy e de guardar as referências dos parâmetros; nada é formatado.
+ *
+ * Em consultas o tempo medido é o do executeQuery (preparação e primeira
+ * linha), não o da leitura do ResultSet.
+ */
+public final class SlowQueryLog {
+
+    /** Logger dedicado, configurado no log4j2.properties */
+    public static final String LOGGER_NAME = "com.ejsjose.sql.slow";
+
+    /** Tamanho máximo de um parâmetro texto no log */
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    private static final Logger LOG = LogManager.getLogger(LOGGER_NAME);
+    private static final LongAdder slowStatements = new LongAdder();
+
+    private SlowQueryLog() {}
+
+    /**
+     * Conexão que registra os comandos lentos
+     * @param connection conexão real
+     * @return proxy da conexão (a mesma, se já embrulhada)
+     */
+    public static Connection wrap(Connection connection) {
+        if (Proxy.isProxyClass(connection.getClass())
+                && Proxy.getInvocationHandler(connection) instanceof ConnectionHandler) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection));
+    }
+
+    /**
+     * Conexão real por trás de {@link #wrap}
+     * @param connection conexão, embrulhada ou não
+     * @return conexão real
+     */
+    public static Connection unwrap(Connection connection) {
+        if (Proxy.isProxyClass(connection.getClass())
+                && Proxy.getInvocationHandler(connection) instanceof ConnectionHandler handler) {
+            return handler.target;
+        }
+        return connection;
+    }
+
+    /**
+     * Comandos registrados como lentos desde o início do processo
+     * @return quantidade
+     */
+    public static long getSlowStatementCount() {
+        return slowStatements.sum();
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void report(long elapsedNanos, String sql, List<Object> parameters, int batchSize) {
+        slowStatements.increment();
+        if (!LOG.isWarnEnabled()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder()
+                .append(String.format("%.1f ms: ", elapsedNanos / 1e6))
+                .append(sql);
+        if (parameters != null && !parameters.isEmpty()) {
+            message.append(" [");
+            for (int i = 0; i < parameters.size(); i++) {
+                message.append(i > 0 ? ", " : "").append(format(parameters.get(i)));
+            }
+            message.append(']');
+        }
+        if (batchSize > 0) {
+            message.append(" (lote de ").append(batchSize).append(", parâmetros do último)");
+        }
+        LOG.warn(message.toString());
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof CharSequence) {
+            String text = value.toString();
+            if (text.length() > MAX_PARAMETER_LENGTH) {
+                text = text.substring(0, MAX_PARAMETER_LENGTH) + "...";
+            }
+            return "'" + text + "'";
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        return value.toString();
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SlowQueryLog.invoke(method, target, args);
+            // prepareStatement/prepareCall devolvem PreparedStatement, createStatement devolve Statement
+            if (result instanceof PreparedStatement statement) {
+                return Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+                        new Class<?>[] {method.getReturnType()},
+                        new StatementHandler(statement, (String) args[0]));
+            }
+            if (result instanceof Statement statement) {
+                return Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+                        new Class<?>[] {Statement.class}, new StatementHandler(statement, null));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Guarda os parâmetros (setXxx(índice, valor)) e mede os execute*
+     *
+     * Usado por uma thread de cada vez, como o próprio Statement.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+        private final List<Object> parameters = new ArrayList<>();
+        private int batchSize;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    return SlowQueryLog.invoke(method, target, args);
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    if (elapsed >= PersistenceStatistics.getSlowQueryNanos()) {
+                        boolean prepared = args == null || args.length == 0 || !(args[0] instanceof String);
+                        String text = prepared ? (sql != null ? sql : "(lote de comandos)") : (String) args[0];
+                        report(elapsed, text, prepared ? parameters : null,
+                                name.equals("executeBatch") ? batchSize : 0);
+                    }
+                    if (name.equals("executeBatch")) {
+                        batchSize = 0;
+                    }
+                }
+            }
+
+            if (args != null && args.length >= 2 && name.startsWith("set") && args[0] instanceof Integer index) {
+                // setNull(índice, tipo) guarda null, não o código do tipo
+                remember(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("addBatch") && (args == null || args.length == 0)) {
+                batchSize++;
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+            }
+            return SlowQueryLog.invoke(method, target, args);
+        }
+
+        private void remember(int index, Object value) {
+            while (parameters.size() < index) {
+                parameters.add(null);
+            }
+            parameters.set(index - 1, value);
+        }
+    }
+}
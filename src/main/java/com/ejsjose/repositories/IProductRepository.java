@@ -1,25 +1,139 @@
 package com.ejsjose.repositories;
 
 import com.ejsjose.entities.Product;
+import com.ejsjose.infra.PersistenceStatistics;
+import com.ejsjose.repositories.events.ProductChangeEventBus;
+import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Interface do repositório de produtos seguindo as melhores práticas
  */
-public interface IProductRepository {
+public interface IProductRepository extends AutoCloseable {
     
     // CREATE
     Product save(Product product);
     
+    /**
+     * Inclui vários produtos novos em uma única transação
+     * @param products produtos sem ID
+     * @return os mesmos produtos, com IDs gerados
+     */
+    List<Product> insertAll(List<Product> products);
+    
     // READ
     Optional<Product> findById(Integer id);
     List<Product> findAll();
     Optional<Product> findFirst();
     List<Product> findByName(String name);
+    
+    /**
+     * Nomes já cadastrados, comparados exatamente e sem diferenciar
+     * maiúsculas; uma consulta por bloco de nomes, não uma por nome
+     * @param lowerCaseNames nomes procurados, em minúsculas
+     * @return nomes dos produtos encontrados, como estão no banco
+     */
+    List<String> findExistingNames(Collection<String> lowerCaseNames);
     List<Product> findByStatus(Boolean status);
     List<Product> findByPriceRange(Double minPrice, Double maxPrice);
     long count();
+    
+    /**
+     * Conta produtos pelo status, no banco
+     * @param status status desejado
+     * @return número de produtos
+     */
+    long countByStatus(boolean status);
+    
+    /**
+     * Página de produtos por keyset (ordenada por ID): o custo de cada página
+     * não depende de quantas vieram antes
+     * @param criteria critérios aplicados no banco (pode ser null)
+     * @param afterId último ID da página anterior (null para a primeira)
+     * @param limit tamanho máximo da página
+     * @return produtos com ID maior que afterId que atendem aos critérios
+     */
+    List<Product> findPage(ProductCriteria criteria, Integer afterId, int limit);
+    
+    /**
+     * Página de todos os produtos por keyset (ordenada por ID)
+     * @param afterId último ID da página anterior (null para a primeira)
+     * @param limit tamanho máximo da página
+     * @return produtos com ID maior que afterId
+     */
+    List<Product> findPage(Integer afterId, int limit);
+    
+    /**
+     * Página de produtos por status, por keyset (ordenada por ID)
+     * @param status status desejado (null para todos)
+     * @param afterId último ID da página anterior (null para a primeira)
+     * @param limit tamanho máximo da página
+     * @return produtos da página
+     */
+    List<Product> findByStatusPage(Boolean status, Integer afterId, int limit);
+    
+    /**
+     * Página de produtos por faixa de preço, por keyset em (preço, ID)
+     * 
+     * Produtos sem preço não entram na paginação
+     * @param minPrice preço mínimo (pode ser null)
+     * @param maxPrice preço máximo (pode ser null)
+     * @param lastPrice preço do último item da página anterior (null para a primeira)
+     * @param lastId ID do último item da página anterior (null para a primeira)
+     * @param limit tamanho máximo da página
+     * @return produtos da página, ordenados por preço e ID
+     */
+    List<Product> findByPriceRangePage(Double minPrice, Double maxPrice, Double lastPrice, Integer lastId, int limit);
+    
+    /**
+     * Só as colunas pedidas dos produtos, por keyset (ordenada por ID)
+     * 
+     * Nenhuma entidade é montada: cada linha é um array com os valores
+     * na ordem de fields.
+     * @param criteria critérios aplicados no banco (pode ser null)
+     * @param fields colunas a selecionar
+     * @param afterId último ID da página anterior (null para a primeira)
+     * @param limit número máximo de linhas
+     * @return linhas com os valores das colunas
+     */
+    List<Object[]> findProjected(ProductCriteria criteria, List<ProductField> fields, Integer afterId, int limit);
+    
+    /**
+     * Percorre todos os produtos (ordenados por ID) com cursor no banco
+     * 
+     * O Stream mantém uma conexão aberta e deve ser fechado
+     * (try-with-resources). Os produtos entregues não são gerenciados.
+     * Usa sempre conexão própria, mesmo dentro de {@link #inTransaction}.
+     * @return stream de produtos
+     */
+    Stream<Product> streamAll();
+    
+    /**
+     * Percorre todos os produtos (ordenados por ID) como linhas só de leitura
+     * 
+     * Para relatórios: nenhuma entidade é montada. Mesmas regras de
+     * fechamento e conexão de {@link #streamAll()}.
+     * @return stream de linhas
+     */
+    Stream<ProductRow> streamRows();
+    
+    /**
+     * Percorre os produtos (ordenados por ID) entregando as colunas de cada
+     * linha ao sink, direto do ResultSet: nenhum objeto por linha além do nome
+     * 
+     * Todas as linhas vêm do mesmo instantâneo do banco, lido em uma
+     * transação só de leitura que fica aberta até o fim da varredura.
+     * Usa sempre conexão própria, mesmo dentro de {@link #inTransaction}.
+     * @param criteria critérios aplicados no banco (pode ser null)
+     * @param sink destino das linhas
+     * @return número de linhas entregues
+     * @throws IOException lançada pelo sink (a varredura é interrompida)
+     */
+    long scanRows(ProductCriteria criteria, ProductRowSink sink) throws IOException;
     boolean existsById(Integer id);
     
     // UPDATE
@@ -29,4 +143,62 @@ public interface IProductRepository {
     void deleteById(Integer id);
     void delete(Product product);
     void deleteAll();
+    
+    // SINCRONIZAÇÃO INCREMENTAL
+    
+    /**
+     * Alterações com sequência maior que afterSeq, em ordem de sequência
+     * 
+     * Inclusões e alterações trazem o estado atual do produto; remoções
+     * trazem só o ID. Um produto alterado várias vezes aparece uma vez,
+     * com a sequência da última escrita. Produtos e remoções são lidos no
+     * mesmo instantâneo do banco.
+     * @param afterSeq última sequência já sincronizada (0 para tudo)
+     * @param limit número máximo de alterações
+     * @return alterações ordenadas por sequência
+     */
+    List<ProductChange> findChangesSince(long afterSeq, int limit);
+    
+    // TRANSAÇÃO
+    
+    /**
+     * Executa várias operações do repositório em uma única transação
+     * 
+     * As chamadas feitas pela mesma thread dentro de work compartilham o
+     * EntityManager: as escritas são enviadas juntas (lotes JDBC) no commit
+     * e as leituras enxergam o que já foi alterado. Os eventos só são
+     * publicados depois do commit. Se work lança exceção, ou se alguma
+     * escrita falhou no banco, tudo é desfeito. Chamadas aninhadas
+     * participam da transação externa.
+     * @param work operações a executar
+     * @return resultado de work
+     */
+    <T> T inTransaction(Supplier<T> work);
+    
+    // EVENTOS
+    
+    /**
+     * Barramento onde as alterações confirmadas são publicadas
+     * (INSERT, UPDATE, DELETE e operações em massa como deleteAll)
+     * @return barramento de eventos deste repositório
+     */
+    ProductChangeEventBus getChangeEvents();
+    
+    // ESTATÍSTICAS
+    
+    /**
+     * Estatísticas de persistência desta implementação: contadores do
+     * Hibernate (quando há) e o log de comandos lentos
+     * @return retrato das estatísticas
+     */
+    PersistenceStatistics getPersistenceStatistics();
+    
+    // ENCERRAMENTO
+    
+    /**
+     * Libera os recursos de persistência usados por este repositório
+     * (EntityManagerFactory ou pool de conexões)
+     */
+    @Override
+    void close();
 }
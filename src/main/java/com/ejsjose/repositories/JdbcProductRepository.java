@@ -0,0 +1,829 @@
+package com.ejsjose.repositories;
+
+import com.ejsjose.entities.Product;
+import com.ejsjose.infra.JdbcConnectionPool;
+import com.ejsjose.infra.JdbcConnectionPool.PooledConnection;
+import com.ejsjose.infra.OperationEvent;
+import com.ejsjose.infra.OperationEvents;
+import com.ejsjose.infra.PersistenceStatistics;
+import com.ejsjose.repositories.events.ProductChangeEventBus;
+import com.ejsjose.repositories.events.ProductChangeType;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implementação do repositório de produtos com JDBC direto
+ *
+ * Mesmo contrato, esquema e sequências de alteração do
+ * {@link ProductRepository}, sem EntityManager por chamada: as conexões
+ * vêm de um {@link JdbcConnectionPool}, os comandos preparados ficam em
+ * cache na conexão e as linhas são convertidas em Product direto do
+ * ResultSet. Inclusões em lote vão ao banco como um único batch JDBC.
+ *
+ * Não deve ser usado junto com o {@link ProductRepository} no mesmo
+ * processo: cada implementação serializa as próprias escritas e guarda a
+ * última sequência atribuída.
+ */
+public class JdbcProductRepository implements IProductRepository {
+
+    /** Linhas trazidas do banco por ida na varredura com cursor */
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String PRODUCT_COLUMNS = "id, name, price, quantity, status, updated_seq";
+    private static final String SELECT_PRODUCTS = "SELECT " + PRODUCT_COLUMNS + " FROM products";
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO products (name, price, quantity, status, updated_seq) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_PRODUCT =
+            "UPDATE products SET name = ?, price = ?, quantity = ?, status = ?, updated_seq = ? WHERE id = ?";
+    private static final String INSERT_TOMBSTONE =
+            "INSERT OR REPLACE INTO product_tombstones (id, deleted_seq) VALUES (?, ?)";
+
+    /** Serializa as escritas do processo, como no {@link ProductRepository} */
+    private static final ReentrantLock WRITE_LOCK = new ReentrantLock();
+
+    /** Última sequência de alteração atribuída (-1 até ser lida do banco); só com o WRITE_LOCK */
+    private static long lastChangeSeq = -1;
+
+    private final JdbcConnectionPool pool;
+    private final ProductChangeEventBus changeEvents;
+
+    /** Transação aberta por {@link #inTransaction} na thread atual */
+    private final ThreadLocal<BoundTransaction> boundTransaction = new ThreadLocal<>();
+
+    public JdbcProductRepository() {
+        this(JdbcConnectionPool.getDefault(), new ProductChangeEventBus());
+    }
+
+    public JdbcProductRepository(JdbcConnectionPool pool, ProductChangeEventBus changeEvents) {
+        this.pool = pool;
+        this.changeEvents = changeEvents;
+    }
+
+    @Override
+    public Product save(Product product) {
+        OperationEvent event = OperationEvents.repository("save");
+        Product saved = write("Erro ao salvar produto: ", (connection, afterCommit) -> {
+            product.setUpdatedSeq(nextChangeSeq(connection));
+            if (product.getId() == null) {
+                // Novo produto - INSERT
+                insert(connection, product);
+                publishAfterCommit(afterCommit, ProductChangeType.INSERT, null, product);
+                return product;
+            }
+
+            // Produto existente - UPDATE (sem observadores, sem a imagem "antes")
+            Product before = changeEvents.hasListeners() ? selectById(connection, product.getId()) : null;
+            PreparedStatement statement = connection.prepare(UPDATE_PRODUCT);
+            bindProduct(statement, product);
+            statement.setInt(6, product.getId());
+            if (statement.executeUpdate() == 0) {
+                // Como o merge do JPA: ID que não existe vira inclusão, com ID novo
+                Product inserted = new Product(product);
+                inserted.setId(null);
+                insert(connection, inserted);
+                publishAfterCommit(afterCommit, ProductChangeType.INSERT, null, inserted);
+                return inserted;
+            }
+            // A linha existia: é alteração mesmo sem a imagem "antes" (observador inscrito depois da leitura)
+            publishAfterCommit(afterCommit, ProductChangeType.UPDATE, before, product);
+            return product;
+        });
+        event.finish(saved.getId(), null, 1);
+        return saved;
+    }
+
+    @Override
+    public List<Product> insertAll(List<Product> products) {
+        if (products == null || products.isEmpty()) {
+            return List.of();
+        }
+
+        for (Product product : products) {
+            if (product == null || product.getId() != null) {
+                throw new IllegalArgumentException("insertAll aceita apenas produtos novos (sem ID)");
+            }
+        }
+
+        OperationEvent event = OperationEvents.repository("insertAll");
+        List<Product> inserted = write("Erro ao incluir lote de produtos: ", (connection, afterCommit) -> {
+            PreparedStatement statement = connection.prepare(INSERT_PRODUCT);
+            long firstSeq = 0;
+            for (Product product : products) {
+                product.setUpdatedSeq(nextChangeSeq(connection));
+                if (firstSeq == 0) {
+                    firstSeq = product.getUpdatedSeq();
+                }
+                bindProduct(statement, product);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+
+            // O batch não devolve as chaves: cada produto recebeu uma sequência própria, maior que as existentes
+            PreparedStatement ids = connection.prepare(
+                    "SELECT id FROM products WHERE updated_seq BETWEEN ? AND ? ORDER BY updated_seq");
+            ids.setLong(1, firstSeq);
+            ids.setLong(2, lastChangeSeq);
+            int index = 0;
+            try (ResultSet rs = ids.executeQuery()) {
+                while (rs.next() && index < products.size()) {
+                    products.get(index++).setId(rs.getInt(1));
+                }
+            }
+            if (index != products.size()) {
+                throw new SQLException("IDs gerados não encontrados: " + index + " de " + products.size());
+            }
+
+            for (Product product : products) {
+                publishAfterCommit(afterCommit, ProductChangeType.INSERT, null, product);
+            }
+            return products;
+        });
+        event.finish(inserted.size());
+        return inserted;
+    }
+
+    @Override
+    public Optional<Product> findById(Integer id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        return read(connection -> Optional.ofNullable(selectById(connection, id)));
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return read(connection -> queryProducts(connection, SELECT_PRODUCTS + " ORDER BY id"));
+    }
+
+    @Override
+    public Optional<Product> findFirst() {
+        List<Product> results = read(connection -> queryProducts(connection, SELECT_PRODUCTS + " ORDER BY id LIMIT 1"));
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    @Override
+    public List<Product> findByName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return List.of();
+        }
+
+        return read(connection -> queryProducts(connection,
+                SELECT_PRODUCTS + " WHERE LOWER(name) LIKE LOWER(?) ORDER BY id",
+                "%" + name.trim() + "%"));
+    }
+
+    @Override
+    public List<String> findExistingNames(Collection<String> lowerCaseNames) {
+        if (lowerCaseNames == null || lowerCaseNames.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> names = new ArrayList<>(lowerCaseNames);
+        return read(connection -> {
+            List<String> found = new ArrayList<>();
+            for (int from = 0; from < names.size(); from += ProductSql.NAMES_PER_QUERY) {
+                Object[] params = ProductSql.paddedNames(
+                        names.subList(from, Math.min(names.size(), from + ProductSql.NAMES_PER_QUERY)));
+                PreparedStatement statement = connection.prepare(ProductSql.existingNamesQuery(params.length));
+                ProductSql.bind(statement, params);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        found.add(rs.getString(1));
+                    }
+                }
+            }
+            return found;
+        });
+    }
+
+    @Override
+    public List<Product> findByStatus(Boolean status) {
+        if (status == null) {
+            return findAll();
+        }
+
+        return read(connection -> queryProducts(connection,
+                SELECT_PRODUCTS + " WHERE status = ? ORDER BY id", status));
+    }
+
+    @Override
+    public List<Product> findByPriceRange(Double minPrice, Double maxPrice) {
+        StringBuilder sql = new StringBuilder(SELECT_PRODUCTS).append(" WHERE 1=1");
+        List<Object> params = new ArrayList<>(2);
+        ProductSql.appendCriteria(sql, params, new ProductCriteria(null, minPrice, maxPrice, null, null, null));
+        sql.append(" ORDER BY price");
+
+        return read(connection -> queryProducts(connection, sql.toString(), params.toArray()));
+    }
+
+    @Override
+    public long count() {
+        return read(connection -> queryLong(connection, "SELECT COUNT(*) FROM products"));
+    }
+
+    @Override
+    public long countByStatus(boolean status) {
+        return read(connection -> queryLong(connection, "SELECT COUNT(*) FROM products WHERE status = ?", status));
+    }
+
+    @Override
+    public List<Product> findPage(ProductCriteria criteria, Integer afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero");
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT_PRODUCTS).append(" WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        ProductSql.appendCriteria(sql, params, criteria);
+        if (afterId != null) {
+            sql.append(" AND id > ?");
+            params.add(afterId);
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        params.add(limit);
+
+        OperationEvent event = OperationEvents.repository("findPage");
+        List<Product> page = read(connection -> queryProducts(connection, sql.toString(), params.toArray()));
+        event.finish(null, criteria, page.size());
+        return page;
+    }
+
+    @Override
+    public List<Product> findPage(Integer afterId, int limit) {
+        return findPage(null, afterId, limit);
+    }
+
+    @Override
+    public List<Product> findByStatusPage(Boolean status, Integer afterId, int limit) {
+        return findPage(new ProductCriteria(null, null, null, null, null, status), afterId, limit);
+    }
+
+    @Override
+    public List<Product> findByPriceRangePage(Double minPrice, Double maxPrice, Double lastPrice,
+                                              Integer lastId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero");
+        }
+        if ((lastPrice == null) != (lastId == null)) {
+            throw new IllegalArgumentException("lastPrice e lastId devem ser informados juntos");
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT_PRODUCTS).append(" WHERE price IS NOT NULL");
+        List<Object> params = new ArrayList<>();
+        ProductSql.appendCriteria(sql, params, new ProductCriteria(null, minPrice, maxPrice, null, null, null));
+        if (lastPrice != null) {
+            sql.append(" AND (price > ? OR (price = ? AND id > ?))");
+            params.add(lastPrice);
+            params.add(lastPrice);
+            params.add(lastId);
+        }
+        sql.append(" ORDER BY price, id LIMIT ?");
+        params.add(limit);
+
+        return read(connection -> queryProducts(connection, sql.toString(), params.toArray()));
+    }
+
+    @Override
+    public List<Object[]> findProjected(ProductCriteria criteria, List<ProductField> fields, Integer afterId, int limit) {
+        if (fields == null || fields.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um campo da projeção");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero");
+        }
+
+        // Nomes vêm do enum (iguais às colunas), nunca da entrada: seguros para compor o SQL
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < fields.size(); i++) {
+            sql.append(i > 0 ? ", " : "").append(fields.get(i).getName());
+        }
+        sql.append(" FROM products WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        ProductSql.appendCriteria(sql, params, criteria);
+        if (afterId != null) {
+            sql.append(" AND id > ?");
+            params.add(afterId);
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        params.add(limit);
+
+        OperationEvent event = OperationEvents.repository("findProjected");
+        List<Object[]> projected = read(connection -> {
+            PreparedStatement statement = connection.prepare(sql.toString());
+            ProductSql.bind(statement, params.toArray());
+            List<Object[]> rows = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Object[] row = new Object[fields.size()];
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = readField(rs, i + 1, fields.get(i));
+                    }
+                    rows.add(row);
+                }
+            }
+            return rows;
+        });
+        event.finish(null, criteria, projected.size());
+        return projected;
+    }
+
+    @Override
+    public Stream<Product> streamAll() {
+        return scan(SELECT_PRODUCTS + " ORDER BY id", JdbcProductRepository::mapProduct);
+    }
+
+    @Override
+    public Stream<ProductRow> streamRows() {
+        return scan("SELECT " + ProductSql.ROW_COLUMNS + " FROM products ORDER BY id",
+                rs -> new ProductRow(rs.getInt(1), rs.getString(2), getPrice(rs, 3), rs.getInt(4), rs.getBoolean(5)));
+    }
+
+    @Override
+    public long scanRows(ProductCriteria criteria, ProductRowSink sink) throws IOException {
+        List<Object> params = new ArrayList<>();
+        String sql = ProductSql.scanQuery(criteria, params);
+        OperationEvent event = OperationEvents.repository("scanRows");
+
+        PooledConnection connection = pool.borrow();
+        try {
+            // Uma transação só de leitura: todas as linhas do mesmo instantâneo
+            connection.getConnection().setAutoCommit(false);
+            PreparedStatement statement = connection.prepare(sql);
+            ProductSql.bind(statement, params.toArray());
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            long rows;
+            try (ResultSet rs = statement.executeQuery()) {
+                rows = ProductSql.sendRows(rs, sink);
+            }
+            event.finish(null, criteria, rows);
+            return rows;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao percorrer produtos: " + e.getMessage(), e);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    @Override
+    public boolean existsById(Integer id) {
+        if (id == null) {
+            return false;
+        }
+        return read(connection -> queryLong(connection, "SELECT COUNT(*) FROM products WHERE id = ?", id) > 0);
+    }
+
+    @Override
+    public Product update(Product product) {
+        if (product == null || product.getId() == null) {
+            throw new IllegalArgumentException("Produto ou ID não pode ser nulo para atualização");
+        }
+
+        if (!existsById(product.getId())) {
+            throw new RuntimeException("Produto com ID " + product.getId() + " não encontrado");
+        }
+
+        return save(product);
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        if (id == null) {
+            throw new IllegalArgumentException("ID não pode ser nulo");
+        }
+
+        OperationEvent event = OperationEvents.repository("deleteById");
+        write("Erro ao remover produto: ", (connection, afterCommit) -> {
+            Product product = changeEvents.hasListeners() ? selectById(connection, id) : null;
+            if (executeUpdate(connection, "DELETE FROM products WHERE id = ?", id) == 0) {
+                throw new RuntimeException("Produto com ID " + id + " não encontrado");
+            }
+            executeUpdate(connection, INSERT_TOMBSTONE, id, nextChangeSeq(connection));
+            publishAfterCommit(afterCommit, ProductChangeType.DELETE, product, null);
+            return null;
+        });
+        event.finish(id, null, 1);
+    }
+
+    @Override
+    public void delete(Product product) {
+        if (product == null || product.getId() == null) {
+            throw new IllegalArgumentException("Produto ou ID não pode ser nulo");
+        }
+        deleteById(product.getId());
+    }
+
+    @Override
+    public void deleteAll() {
+        OperationEvent event = OperationEvents.repository("deleteAll");
+        int deleted = write("Erro ao remover todos os produtos: ", (connection, afterCommit) -> {
+            // Uma sequência por produto removido, na ordem dos IDs
+            long baseSeq = currentChangeSeq(connection);
+            int tombstones = executeUpdate(connection,
+                    "INSERT OR REPLACE INTO product_tombstones (id, deleted_seq) " +
+                    "SELECT id, ? + ROW_NUMBER() OVER (ORDER BY id) FROM products",
+                    baseSeq);
+            lastChangeSeq = baseSeq + tombstones;
+
+            int affectedRows = executeUpdate(connection, "DELETE FROM products");
+            afterCommit.add(() -> changeEvents.stageBulk(ProductChangeType.BULK_DELETE, affectedRows));
+            return affectedRows;
+        });
+        event.finish(deleted);
+    }
+
+    // === SINCRONIZAÇÃO INCREMENTAL ===
+
+    @Override
+    public List<ProductChange> findChangesSince(long afterSeq, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limite de alterações deve ser maior que zero");
+        }
+
+        OperationEvent event = OperationEvents.repository("findChangesSince");
+        List<ProductChange> found = readSnapshot(connection -> {
+            List<Product> upserts = queryProducts(connection,
+                    SELECT_PRODUCTS + " WHERE updated_seq > ? ORDER BY updated_seq LIMIT ?", afterSeq, limit);
+            List<long[]> deletions = new ArrayList<>();
+            PreparedStatement statement = connection.prepare(
+                    "SELECT id, deleted_seq FROM product_tombstones WHERE deleted_seq > ? ORDER BY deleted_seq LIMIT ?");
+            ProductSql.bind(statement, afterSeq, limit);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    deletions.add(new long[] {rs.getLong(1), rs.getLong(2)});
+                }
+            }
+
+            // Intercala as duas listas (já ordenadas) pela sequência
+            List<ProductChange> changes = new ArrayList<>(Math.min(limit, upserts.size() + deletions.size()));
+            int u = 0;
+            int d = 0;
+            while (changes.size() < limit && (u < upserts.size() || d < deletions.size())) {
+                long deletedSeq = d < deletions.size() ? deletions.get(d)[1] : Long.MAX_VALUE;
+                if (u < upserts.size() && upserts.get(u).getUpdatedSeq() < deletedSeq) {
+                    changes.add(ProductChange.upsert(upserts.get(u++)));
+                } else {
+                    long[] deletion = deletions.get(d++);
+                    changes.add(ProductChange.delete((int) deletion[0], deletedSeq));
+                }
+            }
+            return changes;
+        });
+        event.finish(found.size());
+        return found;
+    }
+
+    // === TRANSAÇÃO COMPARTILHADA ===
+
+    @Override
+    public <T> T inTransaction(Supplier<T> work) {
+        if (boundTransaction.get() != null) {
+            // Chamada aninhada: participa da transação já aberta
+            return work.get();
+        }
+
+        // Conexão antes do lock, na mesma ordem de write(): quem tem o lock nunca espera o pool
+        PooledConnection connection = pool.borrow();
+        BoundTransaction tx = new BoundTransaction(connection);
+        T result;
+        WRITE_LOCK.lock();
+        boundTransaction.set(tx);
+        try {
+            try {
+                connection.getConnection().setAutoCommit(false);
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao iniciar transação: " + e.getMessage(), e);
+            }
+            result = work.get();
+            if (tx.rollbackOnly) {
+                throw new RuntimeException("Transação desfeita: uma operação falhou no banco");
+            }
+            try {
+                connection.getConnection().commit();
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao confirmar transação: " + e.getMessage(), e);
+            }
+            // Ainda com o lock: a sequência dos eventos segue a ordem dos commits
+            tx.afterCommit.forEach(Runnable::run);
+        } catch (RuntimeException e) {
+            rollback(connection);
+            throw e;
+        } finally {
+            boundTransaction.remove();
+            WRITE_LOCK.unlock();
+            pool.release(connection);
+        }
+
+        // Fora do lock: observadores podem voltar a usar o repositório
+        changeEvents.deliverStaged();
+        return result;
+    }
+
+    @Override
+    public ProductChangeEventBus getChangeEvents() {
+        return changeEvents;
+    }
+
+    @Override
+    public PersistenceStatistics getPersistenceStatistics() {
+        return PersistenceStatistics.jdbcOnly();
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    // === AUXILIARES DE TRANSAÇÃO ===
+
+    /** Conexão e eventos pendentes de uma transação compartilhada */
+    private static class BoundTransaction {
+        private final PooledConnection connection;
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private boolean rollbackOnly;
+
+        private BoundTransaction(PooledConnection connection) {
+            this.connection = connection;
+        }
+    }
+
+    /** Leitura que recebe a conexão */
+    @FunctionalInterface
+    private interface Read<T> {
+        T apply(PooledConnection connection) throws SQLException;
+    }
+
+    /** Escrita que recebe a conexão e a fila de ações pós-commit */
+    @FunctionalInterface
+    private interface Write<T> {
+        T apply(PooledConnection connection, List<Runnable> afterCommit) throws SQLException;
+    }
+
+    /** Conversão da linha atual do ResultSet */
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Executa uma leitura na conexão da transação compartilhada, ou em uma
+     * do pool (devolvida ao final) se não há transação aberta
+     */
+    private <T> T read(Read<T> work) {
+        BoundTransaction tx = boundTransaction.get();
+        try {
+            if (tx != null) {
+                return work.apply(tx.connection);
+            }
+
+            PooledConnection connection = pool.borrow();
+            try {
+                return work.apply(connection);
+            } finally {
+                pool.release(connection);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao consultar produtos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Leitura de várias consultas no mesmo instantâneo do banco: abre uma
+     * transação só de leitura (ou usa a compartilhada, se houver)
+     */
+    private <T> T readSnapshot(Read<T> work) {
+        if (boundTransaction.get() != null) {
+            return read(work);
+        }
+
+        return read(connection -> {
+            connection.getConnection().setAutoCommit(false);
+            // Desfeita no release: nada foi escrito
+            return work.apply(connection);
+        });
+    }
+
+    /**
+     * Executa uma escrita
+     *
+     * Sem transação compartilhada, abre e confirma uma própria; os eventos
+     * recebem a sequência ainda com o lock, logo após o commit, e são
+     * entregues já com o lock solto e a conexão de volta no pool. Dentro
+     * de {@link #inTransaction}, usa a transação aberta e os eventos esperam
+     * o commit dela; um erro de banco marca a transação para rollback.
+     */
+    private <T> T write(String failureMessage, Write<T> work) {
+        BoundTransaction tx = boundTransaction.get();
+        if (tx != null) {
+            try {
+                return work.apply(tx.connection, tx.afterCommit);
+            } catch (SQLException e) {
+                tx.rollbackOnly = true;
+                throw new RuntimeException(failureMessage + e.getMessage(), e);
+            } catch (RuntimeException e) {
+                throw new RuntimeException(failureMessage + e.getMessage(), e);
+            }
+        }
+
+        List<Runnable> afterCommit = new ArrayList<>(1);
+        PooledConnection connection = pool.borrow();
+        T result;
+        WRITE_LOCK.lock();
+        try {
+            Connection jdbc = connection.getConnection();
+            jdbc.setAutoCommit(false);
+            result = work.apply(connection, afterCommit);
+            jdbc.commit();
+            // Ainda com o lock: a sequência dos eventos segue a ordem dos commits
+            afterCommit.forEach(Runnable::run);
+        } catch (SQLException | RuntimeException e) {
+            rollback(connection);
+            throw new RuntimeException(failureMessage + e.getMessage(), e);
+        } finally {
+            WRITE_LOCK.unlock();
+            pool.release(connection);
+        }
+
+        // Fora do lock: observadores podem voltar a usar o repositório
+        changeEvents.deliverStaged();
+        return result;
+    }
+
+    private static void rollback(PooledConnection connection) {
+        try {
+            Connection jdbc = connection.getConnection();
+            if (!jdbc.getAutoCommit()) {
+                jdbc.rollback();
+            }
+        } catch (SQLException e) {
+            // Estado incerto: a conexão não volta ao pool
+            connection.markBroken();
+        }
+    }
+
+    /**
+     * Varredura com cursor em uma conexão própria do pool, dentro de uma
+     * transação só de leitura; a conexão volta ao pool no close do Stream
+     */
+    private <T> Stream<T> scan(String sql, RowMapper<T> mapper) {
+        PooledConnection connection = pool.borrow();
+        try {
+            connection.getConnection().setAutoCommit(false);
+            PreparedStatement statement = connection.prepare(sql);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            ResultSet rs = statement.executeQuery();
+
+            Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(
+                    Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        action.accept(mapper.map(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new RuntimeException("Erro ao percorrer produtos: " + e.getMessage(), e);
+                    }
+                }
+            };
+
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    connection.markBroken();
+                } finally {
+                    pool.release(connection);
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            pool.release(connection);
+            throw new RuntimeException("Erro ao percorrer produtos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Próxima sequência de alteração; exige o WRITE_LOCK
+     */
+    private static long nextChangeSeq(PooledConnection connection) throws SQLException {
+        lastChangeSeq = currentChangeSeq(connection) + 1;
+        return lastChangeSeq;
+    }
+
+    /**
+     * Última sequência atribuída, lida do banco na primeira vez; exige o WRITE_LOCK
+     */
+    private static long currentChangeSeq(PooledConnection connection) throws SQLException {
+        if (lastChangeSeq < 0) {
+            lastChangeSeq = queryLong(connection,
+                    "SELECT COALESCE(MAX(seq), 0) FROM (SELECT MAX(updated_seq) AS seq FROM products " +
+                    "UNION ALL SELECT MAX(deleted_seq) FROM product_tombstones)");
+        }
+        return lastChangeSeq;
+    }
+
+    private void publishAfterCommit(List<Runnable> afterCommit, ProductChangeType type, Product before, Product after) {
+        if (!changeEvents.hasListeners()) {
+            afterCommit.add(() -> changeEvents.stage(type, null, null));
+            return;
+        }
+        // Imagens copiadas agora: o chamador pode alterar o objeto antes do commit
+        Product beforeImage = before != null ? new Product(before) : null;
+        Product afterImage = after != null ? new Product(after) : null;
+        afterCommit.add(() -> changeEvents.stage(type, beforeImage, afterImage));
+    }
+
+    // === SQL E CONVERSÃO DE LINHAS ===
+
+    private static void insert(PooledConnection connection, Product product) throws SQLException {
+        PreparedStatement statement = connection.prepare(INSERT_PRODUCT);
+        bindProduct(statement, product);
+        statement.executeUpdate();
+        product.setId((int) queryLong(connection, "SELECT last_insert_rowid()"));
+    }
+
+    private static Product selectById(PooledConnection connection, Integer id) throws SQLException {
+        List<Product> products = queryProducts(connection, SELECT_PRODUCTS + " WHERE id = ?", id);
+        return products.isEmpty() ? null : products.get(0);
+    }
+
+    private static List<Product> queryProducts(PooledConnection connection, String sql, Object... params)
+            throws SQLException {
+        PreparedStatement statement = connection.prepare(sql);
+        ProductSql.bind(statement, params);
+        List<Product> products = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                products.add(mapProduct(rs));
+            }
+        }
+        return products;
+    }
+
+    private static long queryLong(PooledConnection connection, String sql, Object... params) throws SQLException {
+        PreparedStatement statement = connection.prepare(sql);
+        ProductSql.bind(statement, params);
+        try (ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static int executeUpdate(PooledConnection connection, String sql, Object... params) throws SQLException {
+        PreparedStatement statement = connection.prepare(sql);
+        ProductSql.bind(statement, params);
+        return statement.executeUpdate();
+    }
+
+    /** Parâmetros 1 a 5 de INSERT_PRODUCT e UPDATE_PRODUCT */
+    private static void bindProduct(PreparedStatement statement, Product product) throws SQLException {
+        statement.setString(1, product.getName());
+        statement.setObject(2, product.getPrice());
+        statement.setInt(3, product.getQuantity());
+        statement.setBoolean(4, product.isStatus());
+        statement.setLong(5, product.getUpdatedSeq());
+    }
+
+    /** Linha com as colunas de PRODUCT_COLUMNS, na ordem */
+    private static Product mapProduct(ResultSet rs) throws SQLException {
+        Product product = new Product();
+        product.setId(rs.getInt(1));
+        product.setName(rs.getString(2));
+        product.setPrice(getPrice(rs, 3));
+        product.setQuantity(rs.getInt(4));
+        product.setStatus(rs.getBoolean(5));
+        product.setUpdatedSeq(rs.getLong(6));
+        return product;
+    }
+
+    private static Double getPrice(ResultSet rs, int column) throws SQLException {
+        double price = rs.getDouble(column);
+        return rs.wasNull() ? null : price;
+    }
+
+    /** Valor da coluna com o mesmo tipo que o Hibernate devolve na projeção */
+    private static Object readField(ResultSet rs, int column, ProductField field) throws SQLException {
+        return switch (field) {
+            case ID, QUANTITY -> rs.getInt(column);
+            case NAME -> rs.getString(column);
+            case PRICE -> getPrice(rs, column);
+            case STATUS -> rs.getBoolean(column);
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.ejsjose.repositories;
+
+import com.ejsjose.entities.Product;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Alteração registrada para a sincronização incremental: produto incluído
+ * ou alterado (com o estado atual) ou removido (só o ID)
+ */
+@JsonPropertyOrder({"seq", "op", "id", "product"})
+public class ProductChange {
+
+    private final long seq;
+    private final Integer id;
+    private final Product product;
+
+    private ProductChange(long seq, Integer id, Product product) {
+        this.seq = seq;
+        this.id = id;
+        this.product = product;
+    }
+
+    public static ProductChange upsert(Product product) {
+        return new ProductChange(product.getUpdatedSeq(), product.getId(), product);
+    }
+
+    public static ProductChange delete(Integer id, long seq) {
+        return new ProductChange(seq, id, null);
+    }
+
+    /** Sequência da escrita; crescente na ordem dos commits */
+    public long getSeq() { return seq; }
+
+    /** "upsert" ou "delete" */
+    public String getOp() { return product != null ? "upsert" : "delete"; }
+
+    public Integer getId() { return id; }
+
+    /** Estado atual do produto; null se removido */
+    public Product getProduct() { return product; }
+
+    @JsonIgnore
+    public boolean isDeleted() { return product == null; }
+}
@@ -0,0 +1,132 @@
+package com.ejsjose.repositories;
+
+/**
+ * Critérios de busca de produtos aplicados no banco
+ *
+ * Todos os campos são opcionais; campos nulos não filtram.
+ */
+public class ProductCriteria {
+
+    private String name;
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer minQuantity;
+    private Integer maxQuantity;
+    private Boolean status;
+    private boolean priceRequired;
+
+    // Construtores
+    public ProductCriteria() {}
+
+    public ProductCriteria(String name, Double minPrice, Double maxPrice,
+                           Integer minQuantity, Integer maxQuantity, Boolean status) {
+        this.name = name;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.minQuantity = minQuantity;
+        this.maxQuantity = maxQuantity;
+        this.status = status;
+    }
+
+    // Getters e Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Integer getMinQuantity() {
+        return minQuantity;
+    }
+
+    public void setMinQuantity(Integer minQuantity) {
+        this.minQuantity = minQuantity;
+    }
+
+    public Integer getMaxQuantity() {
+        return maxQuantity;
+    }
+
+    public void setMaxQuantity(Integer maxQuantity) {
+        this.maxQuantity = maxQuantity;
+    }
+
+    public Boolean getStatus() {
+        return status;
+    }
+
+    public void setStatus(Boolean status) {
+        this.status = status;
+    }
+
+    public boolean isPriceRequired() {
+        return priceRequired;
+    }
+
+    /**
+     * Deixa de fora produtos sem preço mesmo sem faixa de preço, como o
+     * filtro em memória de ProductService.findProductsWithFilters
+     * @param priceRequired true para exigir preço
+     */
+    public void setPriceRequired(boolean priceRequired) {
+        this.priceRequired = priceRequired;
+    }
+
+    /**
+     * Verifica se há algum critério
+     * @return true se algum campo não é nulo
+     */
+    public boolean hasAnyFilter() {
+        return name != null || minPrice != null || maxPrice != null ||
+               minQuantity != null || maxQuantity != null || status != null;
+    }
+
+    /**
+     * Verifica se produtos sem preço ficam de fora: com faixa de preço ou
+     * com {@link #setPriceRequired} ligado. Só status, por exemplo, mantém
+     * os produtos sem preço, como o findByStatus
+     * @return true se a consulta deve exigir preço
+     */
+    public boolean requiresPrice() {
+        return priceRequired || minPrice != null || maxPrice != null;
+    }
+
+    /**
+     * Verifica se o filtro por nome está definido
+     * @return true se há nome não vazio
+     */
+    public boolean hasName() {
+        return name != null && !name.trim().isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ProductCriteria{" +
+                "name='" + name + '\'' +
+                ", minPrice=" + minPrice +
+                ", maxPrice=" + maxPrice +
+                ", minQuantity=" + minQuantity +
+                ", maxQuantity=" + maxQuantity +
+                ", status=" + status +
+                ", priceRequired=" + priceRequired +
+                '}';
+    }
+}
@@ -0,0 +1,38 @@
+package com.ejsjose.repositories;
+
+/**
+ * Campos de produto que podem ser selecionados em uma projeção
+ *
+ * O nome é o mesmo do atributo da entidade e da propriedade no JSON.
+ */
+public enum ProductField {
+    ID("id"),
+    NAME("name"),
+    PRICE("price"),
+    QUANTITY("quantity"),
+    STATUS("status");
+
+    private final String name;
+
+    ProductField(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Campo pelo nome
+     * @param name nome do atributo (ex: "price")
+     * @return campo, ou null se o nome é desconhecido
+     */
+    public static ProductField fromName(String name) {
+        for (ProductField field : values()) {
+            if (field.name.equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ejsjose.repositories;
+
+import com.ejsjose.infra.HibernateUtil;
+import com.ejsjose.infra.JdbcConnectionPool;
+
+import java.util.Locale;
+
+/**
+ * Escolha da implementação do repositório de produtos
+ *
+ * A propriedade de sistema {@code tstcrud.repository} seleciona
+ * "hibernate" (padrão, {@link ProductRepository}) ou "jdbc"
+ * ({@link JdbcProductRepository}, com o pool padrão de
+ * {@link JdbcConnectionPool}).
+ */
+public final class ProductRepositories {
+
+    public static final String PROPERTY = "tstcrud.repository";
+
+    private ProductRepositories() {}
+
+    /**
+     * Novo repositório da implementação configurada
+     * @return repositório
+     */
+    public static IProductRepository fromSystemProperties() {
+        return switch (implementation()) {
+            case "hibernate" -> new ProductRepository();
+            case "jdbc" -> new JdbcProductRepository();
+            default -> throw new IllegalArgumentException(
+                    "Implementação de repositório desconhecida: " + System.getProperty(PROPERTY));
+        };
+    }
+
+    /**
+     * Libera os recursos da implementação configurada
+     * (EntityManagerFactory ou pool de conexões)
+     */
+    public static void shutdown() {
+        if ("jdbc".equals(implementation())) {
+            JdbcConnectionPool.closeDefault();
+        } else {
+            HibernateUtil.shutdown();
+        }
+    }
+
+    private static String implementation() {
+        return System.getProperty(PROPERTY, "hibernate").trim().toLowerCase(Locale.ROOT);
+    }
+}
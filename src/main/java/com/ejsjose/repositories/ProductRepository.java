@@ -2,42 +2,129 @@ package com.ejsjose.repositories;
 
 import com.ejsjose.entities.Product;
 import com.ejsjose.infra.HibernateUtil;
+import com.ejsjose.infra.OperationEvent;
+import com.ejsjose.infra.OperationEvents;
+import com.ejsjose.infra.PersistenceStatistics;
+import com.ejsjose.repositories.events.ProductChangeEventBus;
+import com.ejsjose.repositories.events.ProductChangeType;
+
+import org.hibernate.FlushMode;
+import org.hibernate.HibernateException;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
 
 import javax.persistence.EntityManager;
 // import javax.persistence.NoResultException;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implementação do repositório de produtos seguindo as melhores práticas
  */
 public class ProductRepository implements IProductRepository {
 
+    /** Linhas trazidas do banco por ida na varredura com cursor */
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * O SQLite aceita um escritor por vez: duas transações de escrita
+     * concorrentes terminam em SQLITE_BUSY. As escritas do processo são
+     * serializadas aqui; leituras não passam pelo lock.
+     */
+    private static final ReentrantLock WRITE_LOCK = new ReentrantLock();
+
+    /**
+     * Última sequência de alteração atribuída (-1 até ser lida do banco).
+     * Só é usada com o WRITE_LOCK, que vai da atribuição ao commit: a ordem
+     * das sequências é a ordem dos commits, então quem sincroniza por
+     * sequência não pula escritas confirmadas depois.
+     */
+    private static long lastChangeSeq = -1;
+
+    private final ProductChangeEventBus changeEvents;
+
+    /** Transação aberta por {@link #inTransaction} na thread atual */
+    private final ThreadLocal<BoundTransaction> boundTransaction = new ThreadLocal<>();
+
+    public ProductRepository() {
+        this(new ProductChangeEventBus());
+    }
+
+    public ProductRepository(ProductChangeEventBus changeEvents) {
+        this.changeEvents = changeEvents;
+    }
+
     @Override
     public Product save(Product product) {
-        EntityManager em = HibernateUtil.getEntityManager();
-        try {
-            em.getTransaction().begin();
-            
+        OperationEvent event = OperationEvents.repository("save");
+        Product saved = write("Erro ao salvar produto: ", (em, afterCommit) -> {
+            product.setUpdatedSeq(nextChangeSeq(em));
             if (product.getId() == null) {
                 // Novo produto - INSERT
                 em.persist(product);
-            } else {
-                // Produto existente - UPDATE
-                product = em.merge(product);
+                publishAfterCommit(afterCommit, ProductChangeType.INSERT, null, product);
+                return product;
             }
             
-            em.getTransaction().commit();
-            return product;
-        } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
+            // Produto com ID - UPDATE. Carrega no contexto antes do merge, que
+            // reaproveita a mesma instância: a consulta é a que o merge faria
+            Product current = em.find(Product.class, product.getId());
+            Product before = current != null ? new Product(current) : null;
+            Product merged = em.merge(product);
+            // ID que não existe: o merge inclui com ID novo
+            publishAfterCommit(afterCommit, current != null ? ProductChangeType.UPDATE : ProductChangeType.INSERT,
+                    before, merged);
+            return merged;
+        });
+        event.finish(saved.getId(), null, 1);
+        return saved;
+    }
+
+    @Override
+    public List<Product> insertAll(List<Product> products) {
+        if (products == null || products.isEmpty()) {
+            return List.of();
+        }
+        
+        for (Product product : products) {
+            if (product == null || product.getId() != null) {
+                throw new IllegalArgumentException("insertAll aceita apenas produtos novos (sem ID)");
             }
-            throw new RuntimeException("Erro ao salvar produto: " + e.getMessage(), e);
-        } finally {
-            em.close();
         }
+        
+        OperationEvent event = OperationEvents.repository("insertAll");
+        List<Product> inserted = write("Erro ao incluir lote de produtos: ", (em, afterCommit) -> {
+            for (Product product : products) {
+                product.setUpdatedSeq(nextChangeSeq(em));
+                em.persist(product);
+            }
+            for (Product product : products) {
+                publishAfterCommit(afterCommit, ProductChangeType.INSERT, null, product);
+            }
+            return products;
+        });
+        event.finish(inserted.size());
+        return inserted;
     }
 
     @Override
@@ -46,37 +133,23 @@ public class ProductRepository implements IProductRepository {
             return Optional.empty();
         }
         
-        EntityManager em = HibernateUtil.getEntityManager();
-        try {
-            Product product = em.find(Product.class, id);
-            return Optional.ofNullable(product);
-        } finally {
-            em.close();
-        }
+        return read(em -> Optional.ofNullable(em.find(Product.class, id)).map(this::detachedIfBound));
     }
 
     @Override
     public List<Product> findAll() {
-        EntityManager em = HibernateUtil.getEntityManager();
-        try {
-            TypedQuery<Product> query = em.createQuery("SELECT p FROM Product p ORDER BY p.id", Product.class);
-            return query.getResultList();
-        } finally {
-            em.close();
-        }
+        return readList(em -> em.createQuery("SELECT p FROM Product p ORDER BY p.id", Product.class)
+                .getResultList());
     }
 
     @Override
     public Optional<Product> findFirst() {
-        EntityManager em = HibernateUtil.getEntityManager();
-        try {
+        List<Product> results = readList(em -> {
             TypedQuery<Product> query = em.createQuery("SELECT p FROM Product p ORDER BY p.id ASC", Product.class);
             query.setMaxResults(1);
-            List<Product> results = query.getResultList();
-            return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
-        } finally {
-            em.close();
-        }
+            return query.getResultList();
+        });
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
 
     @Override
@@ -85,17 +158,35 @@ public class ProductRepository implements IProductRepository {
             return List.of();
         }
         
-        EntityManager em = HibernateUtil.getEntityManager();
-        try {
+        return readList(em -> {
             TypedQuery<Product> query = em.createQuery(
                 "SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(:name) ORDER BY p.id", 
                 Product.class
             );
             query.setParameter("name", "%" + name.trim() + "%");
             return query.getResultList();
-        } finally {
-            em.close();
+        });
+    }
+
+    @Override
+    public List<String> findExistingNames(Collection<String> lowerCaseNames) {
+        if (lowerCaseNames == null || lowerCaseNames.isEmpty()) {
+            return List.of();
         }
+        
+        List<String> names = new ArrayList<>(lowerCaseNames);
+        return read(em -> {
+            TypedQuery<String> query = em.createQuery(
+                "SELECT p.name FROM Product p WHERE LOWER(p.name) IN (:names)", 
+                String.class
+            );
+            List<String> found = new ArrayList<>();
+            for (int from = 0; from < names.size(); from += ProductSql.NAMES_PER_QUERY) {
+                query.setParameter("names", names.subList(from, Math.min(names.size(), from + ProductSql.NAMES_PER_QUERY)));
+                found.addAll(query.getResultList());
+            }
+            return found;
+        });
     }
 
     @Override
@@ -104,23 +195,19 @@ public class ProductRepository implements IProductRepository {
             return findAll();
         }
         
-        EntityManager em = HibernateUtil.getEntityManager();
-        try {
+        return readList(em -> {
             TypedQuery<Product> query = em.createQuery(
                 "SELECT p FROM Product p WHERE p.status = :status ORDER BY p.id", 
                 Product.class
             );
             query.setParameter("status", status);
             return query.getResultList();
-        } finally {
-            em.close();
-        }
+        });
     }
 
     @Override
     public List<Product> findByPriceRange(Double minPrice, Double maxPrice) {
-        EntityManager em = HibernateUtil.getEntityManager();
-        try {
+        return readList(em -> {
             StringBuilder jpql = new StringBuilder("SELECT p FROM Product p WHERE 1=1");
             
             if (minPrice != null) {
@@ -141,18 +228,172 @@ public class ProductRepository implements IProductRepository {
             }
             
             return query.getResultList();
-        } finally {
-            em.close();
-        }
+        });
     }
 
     @Override
     public long count() {
+        return read(em -> em.createQuery("SELECT COUNT(p) FROM Product p", Long.class).getSingleResult());
+    }
+
+    @Override
+    public long countByStatus(boolean status) {
+        return read(em -> em.createQuery("SELECT COUNT(p) FROM Product p WHERE p.status = :status", Long.class)
+                .setParameter("status", status)
+                .getSingleResult());
+    }
+
+    @Override
+    public List<Product> findPage(ProductCriteria criteria, Integer afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero");
+        }
+        
+        OperationEvent event = OperationEvents.repository("findPage");
+        List<Product> page = readList(em -> {
+            StringBuilder jpql = new StringBuilder("SELECT p FROM Product p WHERE 1=1");
+            appendCriteria(jpql, criteria);
+            if (afterId != null) {
+                jpql.append(" AND p.id > :afterId");
+            }
+            jpql.append(" ORDER BY p.id");
+            
+            TypedQuery<Product> query = em.createQuery(jpql.toString(), Product.class);
+            bindCriteria(query, criteria);
+            if (afterId != null) {
+                query.setParameter("afterId", afterId);
+            }
+            query.setMaxResults(limit);
+            
+            return query.getResultList();
+        });
+        event.finish(null, criteria, page.size());
+        return page;
+    }
+
+    @Override
+    public List<Product> findPage(Integer afterId, int limit) {
+        return findPage(null, afterId, limit);
+    }
+
+    @Override
+    public List<Product> findByStatusPage(Boolean status, Integer afterId, int limit) {
+        return findPage(new ProductCriteria(null, null, null, null, null, status), afterId, limit);
+    }
+
+    @Override
+    public List<Product> findByPriceRangePage(Double minPrice, Double maxPrice, Double lastPrice, 
+                                              Integer lastId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero");
+        }
+        if ((lastPrice == null) != (lastId == null)) {
+            throw new IllegalArgumentException("lastPrice e lastId devem ser informados juntos");
+        }
+        
+        return readList(em -> {
+            StringBuilder jpql = new StringBuilder("SELECT p FROM Product p WHERE p.price IS NOT NULL");
+            appendCriteria(jpql, new ProductCriteria(null, minPrice, maxPrice, null, null, null));
+            if (lastPrice != null) {
+                jpql.append(" AND (p.price > :lastPrice OR (p.price = :lastPrice AND p.id > :lastId))");
+            }
+            jpql.append(" ORDER BY p.price, p.id");
+            
+            TypedQuery<Product> query = em.createQuery(jpql.toString(), Product.class);
+            bindCriteria(query, new ProductCriteria(null, minPrice, maxPrice, null, null, null));
+            if (lastPrice != null) {
+                query.setParameter("lastPrice", lastPrice);
+                query.setParameter("lastId", lastId);
+            }
+            query.setMaxResults(limit);
+            
+            return query.getResultList();
+        });
+    }
+
+    @Override
+    public List<Object[]> findProjected(ProductCriteria criteria, List<ProductField> fields, Integer afterId, int limit) {
+        if (fields == null || fields.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um campo da projeção");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero");
+        }
+        
+        OperationEvent event = OperationEvents.repository("findProjected");
+        List<Object[]> projected = read(em -> {
+            // Nomes vêm do enum, nunca da entrada: seguros para compor o JPQL
+            StringBuilder jpql = new StringBuilder("SELECT ");
+            for (int i = 0; i < fields.size(); i++) {
+                jpql.append(i > 0 ? ", p." : "p.").append(fields.get(i).getName());
+            }
+            jpql.append(" FROM Product p WHERE 1=1");
+            appendCriteria(jpql, criteria);
+            if (afterId != null) {
+                jpql.append(" AND p.id > :afterId");
+            }
+            jpql.append(" ORDER BY p.id");
+            
+            Query query = em.createQuery(jpql.toString());
+            bindCriteria(query, criteria);
+            if (afterId != null) {
+                query.setParameter("afterId", afterId);
+            }
+            query.setMaxResults(limit);
+            
+            List<?> results = query.getResultList();
+            List<Object[]> rows = new ArrayList<>(results.size());
+            for (Object result : results) {
+                // Com uma só coluna o JPQL devolve o valor sem array
+                rows.add(fields.size() == 1 ? new Object[] {result} : (Object[]) result);
+            }
+            return rows;
+        });
+        event.finish(null, criteria, projected.size());
+        return projected;
+    }
+
+    @Override
+    public Stream<Product> streamAll() {
+        return scan("SELECT p FROM Product p ORDER BY p.id");
+    }
+
+    @Override
+    public Stream<ProductRow> streamRows() {
+        return scan("SELECT new com.ejsjose.repositories.ProductRow(p.id, p.name, p.price, p.quantity, p.status) " +
+                "FROM Product p ORDER BY p.id");
+    }
+
+    @Override
+    public long scanRows(ProductCriteria criteria, ProductRowSink sink) throws IOException {
+        List<Object> params = new ArrayList<>();
+        String sql = ProductSql.scanQuery(criteria, params);
+        OperationEvent event = OperationEvents.repository("scanRows");
+        
+        // JDBC na conexão da sessão: as linhas não passam pela hidratação de entidades
         EntityManager em = HibernateUtil.getEntityManager();
         try {
-            TypedQuery<Long> query = em.createQuery("SELECT COUNT(p) FROM Product p", Long.class);
-            return query.getSingleResult();
+            em.getTransaction().begin();
+            long rows = em.unwrap(Session.class).doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    ProductSql.bind(statement, params.toArray());
+                    statement.setFetchSize(STREAM_FETCH_SIZE);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        return ProductSql.sendRows(rs, sink);
+                    }
+                } catch (IOException e) {
+                    // ReturningWork só admite SQLException
+                    throw new UncheckedIOException(e);
+                }
+            });
+            event.finish(null, criteria, rows);
+            return rows;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
             em.close();
         }
     }
@@ -184,50 +425,414 @@ public class ProductRepository implements IProductRepository {
             throw new IllegalArgumentException("ID não pode ser nulo");
         }
         
+        OperationEvent event = OperationEvents.repository("deleteById");
+        write("Erro ao remover produto: ", (em, afterCommit) -> {
+            Product product = em.find(Product.class, id);
+            if (product == null) {
+                throw new RuntimeException("Produto com ID " + id + " não encontrado");
+            }
+            em.remove(product);
+            em.createNativeQuery("INSERT OR REPLACE INTO product_tombstones (id, deleted_seq) VALUES (?1, ?2)")
+                    .setParameter(1, id)
+                    .setParameter(2, nextChangeSeq(em))
+                    .executeUpdate();
+            publishAfterCommit(afterCommit, ProductChangeType.DELETE, product, null);
+            return null;
+        });
+        event.finish(id, null, 1);
+    }
+
+    @Override
+    public void delete(Product product) {
+        if (product == null || product.getId() == null) {
+            throw new IllegalArgumentException("Produto ou ID não pode ser nulo");
+        }
+        deleteById(product.getId());
+    }
+
+    @Override
+    public void deleteAll() {
+        OperationEvent event = OperationEvents.repository("deleteAll");
+        int deleted = write("Erro ao remover todos os produtos: ", (em, afterCommit) -> {
+            // Uma sequência por produto removido, na ordem dos IDs
+            em.flush();
+            long baseSeq = currentChangeSeq(em);
+            int tombstones = em.createNativeQuery(
+                    "INSERT OR REPLACE INTO product_tombstones (id, deleted_seq) " +
+                    "SELECT id, ?1 + ROW_NUMBER() OVER (ORDER BY id) FROM products")
+                    .setParameter(1, baseSeq)
+                    .executeUpdate();
+            lastChangeSeq = baseSeq + tombstones;
+            
+            int affectedRows = em.createQuery("DELETE FROM Product").executeUpdate();
+            // O DELETE em massa não passa pelo contexto: instâncias carregadas antes ficaram obsoletas
+            em.clear();
+            afterCommit.add(() -> changeEvents.stageBulk(ProductChangeType.BULK_DELETE, affectedRows));
+            return affectedRows;
+        });
+        event.finish(deleted);
+    }
+
+    // === SINCRONIZAÇÃO INCREMENTAL ===
+
+    @Override
+    public List<ProductChange> findChangesSince(long afterSeq, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limite de alterações deve ser maior que zero");
+        }
+        
+        OperationEvent event = OperationEvents.repository("findChangesSince");
+        List<ProductChange> found = readSnapshot(em -> {
+            List<Product> upserts = em.createQuery(
+                    "SELECT p FROM Product p WHERE p.updatedSeq > :afterSeq ORDER BY p.updatedSeq", Product.class)
+                    .setParameter("afterSeq", afterSeq)
+                    .setMaxResults(limit)
+                    .getResultList();
+            @SuppressWarnings("unchecked")
+            List<Object[]> deletions = em.createNativeQuery(
+                    "SELECT id, deleted_seq FROM product_tombstones WHERE deleted_seq > ?1 ORDER BY deleted_seq")
+                    .setParameter(1, afterSeq)
+                    .setMaxResults(limit)
+                    .getResultList();
+            
+            // Intercala as duas listas (já ordenadas) pela sequência
+            List<ProductChange> changes = new ArrayList<>(Math.min(limit, upserts.size() + deletions.size()));
+            int u = 0;
+            int d = 0;
+            while (changes.size() < limit && (u < upserts.size() || d < deletions.size())) {
+                long deletedSeq = d < deletions.size() ? ((Number) deletions.get(d)[1]).longValue() : Long.MAX_VALUE;
+                if (u < upserts.size() && upserts.get(u).getUpdatedSeq() < deletedSeq) {
+                    changes.add(ProductChange.upsert(detachedIfBound(upserts.get(u++))));
+                } else {
+                    Object[] deletion = deletions.get(d++);
+                    changes.add(ProductChange.delete(((Number) deletion[0]).intValue(), deletedSeq));
+                }
+            }
+            return changes;
+        });
+        event.finish(found.size());
+        return found;
+    }
+
+    // === TRANSAÇÃO COMPARTILHADA ===
+
+    @Override
+    public <T> T inTransaction(Supplier<T> work) {
+        if (boundTransaction.get() != null) {
+            // Chamada aninhada: participa da transação já aberta
+            return work.get();
+        }
+        
+        WRITE_LOCK.lock();
         EntityManager em = HibernateUtil.getEntityManager();
+        BoundTransaction tx = new BoundTransaction(em);
+        T result;
+        boundTransaction.set(tx);
         try {
             em.getTransaction().begin();
-            
-            Product product = em.find(Product.class, id);
-            if (product != null) {
-                em.remove(product);
+            result = work.get();
+            if (em.getTransaction().getRollbackOnly()) {
+                throw new RuntimeException("Transação desfeita: uma operação falhou no banco");
+            }
+            try {
                 em.getTransaction().commit();
-            } else {
-                em.getTransaction().rollback();
-                throw new RuntimeException("Produto com ID " + id + " não encontrado");
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Erro ao confirmar transação: " + e.getMessage(), e);
             }
-        } catch (Exception e) {
+            // Ainda com o lock: a sequência dos eventos segue a ordem dos commits
+            tx.afterCommit.forEach(Runnable::run);
+        } catch (RuntimeException e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
             }
-            throw new RuntimeException("Erro ao remover produto: " + e.getMessage(), e);
+            throw e;
         } finally {
+            boundTransaction.remove();
             em.close();
+            WRITE_LOCK.unlock();
         }
+        
+        // Fora do lock: observadores podem voltar a usar o repositório
+        changeEvents.deliverStaged();
+        return result;
     }
 
     @Override
-    public void delete(Product product) {
-        if (product == null || product.getId() == null) {
-            throw new IllegalArgumentException("Produto ou ID não pode ser nulo");
-        }
-        deleteById(product.getId());
+    public ProductChangeEventBus getChangeEvents() {
+        return changeEvents;
     }
 
     @Override
-    public void deleteAll() {
+    public PersistenceStatistics getPersistenceStatistics() {
+        return PersistenceStatistics.of(HibernateUtil.getStatistics());
+    }
+
+    @Override
+    public void close() {
+        HibernateUtil.shutdown();
+    }
+
+    // === AUXILIARES DE TRANSAÇÃO ===
+
+    /** EntityManager e eventos pendentes de uma transação compartilhada */
+    private static class BoundTransaction {
+        private final EntityManager em;
+        private final List<Runnable> afterCommit = new ArrayList<>();
+
+        private BoundTransaction(EntityManager em) {
+            this.em = em;
+        }
+    }
+
+    /** Escrita que recebe o EntityManager e a fila de ações pós-commit */
+    @FunctionalInterface
+    private interface Write<T> {
+        T apply(EntityManager em, List<Runnable> afterCommit);
+    }
+
+    /**
+     * Executa uma leitura no EntityManager da transação compartilhada,
+     * ou em um próprio (fechado ao final) se não há transação aberta
+     *
+     * O EntityManager próprio é só de leitura: as entidades carregadas não
+     * ganham a cópia usada na verificação de alterações, que seria
+     * descartada no close. Na transação compartilhada não, porque as
+     * escritas seguintes reaproveitam as instâncias do contexto.
+     */
+    private <T> T read(Function<EntityManager, T> work) {
+        BoundTransaction tx = boundTransaction.get();
+        if (tx != null) {
+            return work.apply(tx.em);
+        }
+        
         EntityManager em = HibernateUtil.getEntityManager();
+        try {
+            Session session = em.unwrap(Session.class);
+            session.setDefaultReadOnly(true);
+            session.setFlushMode(FlushMode.MANUAL);
+            return work.apply(em);
+        } finally {
+            em.close();
+        }
+    }
+
+    private List<Product> readList(Function<EntityManager, List<Product>> work) {
+        List<Product> products = read(work);
+        if (boundTransaction.get() == null) {
+            return products;
+        }
+        
+        List<Product> detached = new ArrayList<>(products.size());
+        for (Product product : products) {
+            detached.add(new Product(product));
+        }
+        return detached;
+    }
+
+    /**
+     * Dentro da transação compartilhada as leituras devolvem cópias, como
+     * fora dela: alterar o objeto retornado não grava nada sem save/update
+     */
+    private Product detachedIfBound(Product product) {
+        return boundTransaction.get() != null ? new Product(product) : product;
+    }
+
+    /**
+     * Varredura com cursor em uma sessão sem estado: as linhas não ficam
+     * em contexto de persistência, então a memória não cresce com a
+     * tabela. A transação só de leitura é encerrada no close do Stream,
+     * para o SQLite liberar o lock.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Stream<T> scan(String hql) {
+        StatelessSession session = HibernateUtil.openStatelessSession();
+        try {
+            Transaction transaction = session.beginTransaction();
+            org.hibernate.Query query = session.createQuery(hql);
+            query.setFetchSize(STREAM_FETCH_SIZE);
+            ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+            
+            Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(
+                    Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    if (!results.next()) {
+                        return false;
+                    }
+                    action.accept((T) results.get(0));
+                    return true;
+                }
+            };
+            
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                try {
+                    results.close();
+                } finally {
+                    if (transaction.isActive()) {
+                        transaction.rollback();
+                    }
+                    session.close();
+                }
+            });
+        } catch (RuntimeException e) {
+            if (session.getTransaction().isActive()) {
+                session.getTransaction().rollback();
+            }
+            session.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Leitura de várias consultas no mesmo instantâneo do banco: abre uma
+     * transação só de leitura (ou usa a compartilhada, se houver)
+     */
+    private <T> T readSnapshot(Function<EntityManager, T> work) {
+        BoundTransaction tx = boundTransaction.get();
+        if (tx != null) {
+            return work.apply(tx.em);
+        }
+        
+        EntityManager em = HibernateUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            return work.apply(em);
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+        }
+    }
+
+    /**
+     * Próxima sequência de alteração; exige o WRITE_LOCK
+     */
+    private static long nextChangeSeq(EntityManager em) {
+        lastChangeSeq = currentChangeSeq(em) + 1;
+        return lastChangeSeq;
+    }
+
+    /**
+     * Última sequência atribuída, lida do banco na primeira vez; exige o WRITE_LOCK
+     */
+    private static long currentChangeSeq(EntityManager em) {
+        if (lastChangeSeq < 0) {
+            Number max = (Number) em.createNativeQuery(
+                    "SELECT MAX(seq) FROM (SELECT MAX(updated_seq) AS seq FROM products " +
+                    "UNION ALL SELECT MAX(deleted_seq) FROM product_tombstones)")
+                    .getSingleResult();
+            lastChangeSeq = max != null ? max.longValue() : 0;
+        }
+        return lastChangeSeq;
+    }
+
+    /**
+     * Executa uma escrita
+     *
+     * Sem transação compartilhada, abre e confirma uma própria; os eventos
+     * recebem a sequência ainda com o lock, logo após o commit, e são
+     * entregues depois de soltá-lo. Dentro de {@link #inTransaction}, usa a
+     * transação aberta e os eventos esperam o commit dela; um erro de banco
+     * marca a transação para rollback, já que a sessão fica inconsistente.
+     */
+    private <T> T write(String failureMessage, Write<T> work) {
+        BoundTransaction tx = boundTransaction.get();
+        if (tx != null) {
+            try {
+                return work.apply(tx.em, tx.afterCommit);
+            } catch (RuntimeException e) {
+                if (e instanceof PersistenceException || e instanceof HibernateException) {
+                    tx.em.getTransaction().setRollbackOnly();
+                }
+                throw new RuntimeException(failureMessage + e.getMessage(), e);
+            }
+        }
+        
+        EntityManager em = HibernateUtil.getEntityManager();
+        List<Runnable> afterCommit = new ArrayList<>(1);
+        T result;
+        WRITE_LOCK.lock();
         try {
             em.getTransaction().begin();
-            em.createQuery("DELETE FROM Product").executeUpdate();
+            result = work.apply(em, afterCommit);
             em.getTransaction().commit();
+            // Ainda com o lock: a sequência dos eventos segue a ordem dos commits
+            afterCommit.forEach(Runnable::run);
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
             }
-            throw new RuntimeException("Erro ao remover todos os produtos: " + e.getMessage(), e);
+            throw new RuntimeException(failureMessage + e.getMessage(), e);
         } finally {
+            WRITE_LOCK.unlock();
             em.close();
         }
+
+        // Fora do lock: observadores podem voltar a usar o repositório
+        changeEvents.deliverStaged();
+        return result;
+    }
+
+    private void publishAfterCommit(List<Runnable> afterCommit, ProductChangeType type, Product before, Product after) {
+        if (!changeEvents.hasListeners()) {
+            afterCommit.add(() -> changeEvents.stage(type, null, null));
+            return;
+        }
+        // Imagens copiadas agora: a instância gerenciada pode mudar de novo antes do commit
+        Product beforeImage = before != null ? new Product(before) : null;
+        Product afterImage = after != null ? new Product(after) : null;
+        afterCommit.add(() -> changeEvents.stage(type, beforeImage, afterImage));
+    }
+
+    private static void appendCriteria(StringBuilder jpql, ProductCriteria criteria) {
+        if (criteria == null || !criteria.hasAnyFilter()) {
+            return;
+        }
+        if (criteria.requiresPrice()) {
+            jpql.append(" AND p.price IS NOT NULL");
+        }
+        if (criteria.hasName()) {
+            jpql.append(" AND LOWER(p.name) LIKE LOWER(:name) ESCAPE '\\'");
+        }
+        if (criteria.getMinPrice() != null) {
+            jpql.append(" AND p.price >= :minPrice");
+        }
+        if (criteria.getMaxPrice() != null) {
+            jpql.append(" AND p.price <= :maxPrice");
+        }
+        if (criteria.getMinQuantity() != null) {
+            jpql.append(" AND p.quantity >= :minQuantity");
+        }
+        if (criteria.getMaxQuantity() != null) {
+            jpql.append(" AND p.quantity <= :maxQuantity");
+        }
+        if (criteria.getStatus() != null) {
+            jpql.append(" AND p.status = :status");
+        }
+    }
+
+    private static void bindCriteria(Query query, ProductCriteria criteria) {
+        if (criteria == null) {
+            return;
+        }
+        if (criteria.hasName()) {
+            query.setParameter("name", ProductSql.containsPattern(criteria.getName().trim()));
+        }
+        if (criteria.getMinPrice() != null) {
+            query.setParameter("minPrice", criteria.getMinPrice());
+        }
+        if (criteria.getMaxPrice() != null) {
+            query.setParameter("maxPrice", criteria.getMaxPrice());
+        }
+        if (criteria.getMinQuantity() != null) {
+            query.setParameter("minQuantity", criteria.getMinQuantity());
+        }
+        if (criteria.getMaxQuantity() != null) {
+            query.setParameter("maxQuantity", criteria.getMaxQuantity());
+        }
+        if (criteria.getStatus() != null) {
+            query.setParameter("status", criteria.getStatus());
+        }
     }
 }
@@ -1,18 +1,24 @@
 package com.ejsjose.repositories;
 
 import com.ejsjose.entities.Product;
-import com.ejsjose.infra.HibernateUtil;
+import com.ejsjose.repositories.events.ProductChangeEvent;
+import com.ejsjose.repositories.events.ProductChangeListener;
+import com.ejsjose.repositories.events.ProductChangeType;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
 /**
  * Exemplo de testes manuais para o repositório
  * Em um projeto real, use JUnit ou TestNG
+ *
+ * Com -Dtstcrud.repository=jdbc os mesmos testes rodam no {@link JdbcProductRepository}.
  */
 public class ProductRepositoryTest {
     
-    private static final IProductRepository repository = new ProductRepository();
+    private static final IProductRepository repository = ProductRepositories.fromSystemProperties();
     
     public static void main(String[] args) {
         System.out.println("=== TESTES DO REPOSITÓRIO ===");
@@ -31,7 +37,10 @@ public class ProductRepositoryTest {
             testUpdate();
             testCount();
             testExistsById();
+            testPagination();
             testDelete();
+            testChangeEvents();
+            testChangesSince();
             
             System.out.println("\n✓ Todos os testes passaram!");
             
@@ -239,6 +248,36 @@ public class ProductRepositoryTest {
         System.out.println("✓ Teste existsById (ID nulo): PASSOU");
     }
     
+    private static void testPagination() {
+        System.out.println("\n--- TESTE: Paginação e streaming ---");
+        
+        // Test 1: Páginas por ID cobrem todos os produtos sem repetir
+        List<Product> first = repository.findPage(null, 2);
+        List<Product> second = repository.findPage(first.get(first.size() - 1).getId(), 2);
+        assert first.size() == 2 && second.size() == 2 : "Deve paginar 4 produtos em 2 páginas";
+        assert second.get(0).getId() > first.get(1).getId() : "Páginas devem seguir a ordem dos IDs";
+        System.out.println("✓ Teste findPage: PASSOU");
+        
+        // Test 2: Página por status
+        List<Product> activePage = repository.findByStatusPage(true, null, 10);
+        assert activePage.size() == 3 : "Deve encontrar 3 produtos ativos";
+        System.out.println("✓ Teste findByStatusPage: PASSOU");
+        
+        // Test 3: Keyset por (preço, ID)
+        List<Product> cheap = repository.findByPriceRangePage(null, null, null, null, 2);
+        Product last = cheap.get(cheap.size() - 1);
+        List<Product> rest = repository.findByPriceRangePage(null, null, last.getPrice(), last.getId(), 10);
+        assert cheap.size() + rest.size() == 4 : "Páginas por preço devem cobrir todos os produtos";
+        assert rest.get(0).getPrice() >= last.getPrice() : "Página seguinte deve continuar do último preço";
+        System.out.println("✓ Teste findByPriceRangePage: PASSOU");
+        
+        // Test 4: Stream com cursor
+        try (Stream<Product> stream = repository.streamAll()) {
+            assert stream.count() == repository.count() : "Stream deve percorrer todos os produtos";
+        }
+        System.out.println("✓ Teste streamAll: PASSOU");
+    }
+    
     private static void testDelete() {
         System.out.println("\n--- TESTE: Delete ---");
         
@@ -272,6 +311,62 @@ public class ProductRepositoryTest {
         System.out.println("✓ Teste deleteAll: PASSOU");
     }
     
+    private static void testChangeEvents() {
+        System.out.println("\n--- TESTE: Eventos de alteração ---");
+        
+        List<ProductChangeEvent> events = new CopyOnWriteArrayList<>();
+        ProductChangeListener listener = events::add;
+        repository.getChangeEvents().subscribe(listener);
+        
+        try {
+            // Test 1: INSERT, UPDATE e DELETE com imagens antes/depois
+            Product product = repository.save(createTestProduct("Produto Evento", 100.0, true));
+            product.setPrice(120.0);
+            repository.update(product);
+            repository.deleteById(product.getId());
+            
+            assert events.size() == 3 : "Deve emitir 3 eventos";
+            assert events.get(0).getType() == ProductChangeType.INSERT && events.get(0).getBefore() == null;
+            assert events.get(1).getType() == ProductChangeType.UPDATE : "Segundo evento deve ser UPDATE";
+            assert events.get(1).getBefore().getPrice().equals(100.0) : "Imagem antes deve ter o preço antigo";
+            assert events.get(1).getAfter().getPrice().equals(120.0) : "Imagem depois deve ter o preço novo";
+            assert events.get(2).getType() == ProductChangeType.DELETE && events.get(2).getAfter() == null;
+            assert events.get(0).getSequence() < events.get(1).getSequence() 
+                && events.get(1).getSequence() < events.get(2).getSequence() : "Sequência deve ser crescente";
+            System.out.println("✓ Teste eventos (insert/update/delete): PASSOU");
+            
+            // Test 2: Operação em massa
+            repository.save(createTestProduct("Produto Evento Massa", 100.0, true));
+            events.clear();
+            repository.deleteAll();
+            assert events.size() == 1 && events.get(0).getType() == ProductChangeType.BULK_DELETE : "Deve emitir BULK_DELETE";
+            assert events.get(0).getAffectedRows() == 1 : "Deve informar linhas afetadas";
+            System.out.println("✓ Teste eventos (deleteAll): PASSOU");
+        } finally {
+            repository.getChangeEvents().unsubscribe(listener);
+        }
+    }
+    
+    private static void testChangesSince() {
+        System.out.println("\n--- TESTE: Sincronização incremental ---");
+        
+        List<ProductChange> before = repository.findChangesSince(0, Integer.MAX_VALUE);
+        long since = before.isEmpty() ? 0 : before.get(before.size() - 1).getSeq();
+        
+        Product kept = repository.save(createTestProduct("Produto Sync", 10.0, true));
+        Product removed = repository.save(createTestProduct("Produto Sync Removido", 20.0, true));
+        kept.setPrice(15.0);
+        repository.update(kept);
+        repository.deleteById(removed.getId());
+        
+        List<ProductChange> changes = repository.findChangesSince(since, 10);
+        assert changes.size() == 2 : "Cada produto deve aparecer uma vez";
+        assert !changes.get(0).isDeleted() && changes.get(0).getProduct().getPrice().equals(15.0) : "Estado atual do produto";
+        assert changes.get(1).isDeleted() && changes.get(1).getId().equals(removed.getId()) : "Remoção como última alteração";
+        assert changes.get(0).getSeq() < changes.get(1).getSeq() : "Ordem de sequência";
+        System.out.println("✓ Teste alterações desde sequência: PASSOU");
+    }
+    
     private static Product createTestProduct(String name, Double price, Boolean status) {
         Product product = new Product();
         product.setName(name);
@@ -283,7 +378,7 @@ public class ProductRepositoryTest {
     
     private static void cleanup() {
         try {
-            HibernateUtil.shutdown();
+            ProductRepositories.shutdown();
             System.out.println("\n✓ Recursos liberados");
         } catch (Exception e) {
             System.err.println("Erro ao liberar recursos: " + e.getMessage());
@@ -0,0 +1,27 @@
+package com.ejsjose.repositories;
+
+import com.ejsjose.entities.Product;
+
+/**
+ * Linha de produto só para leitura, montada direto do resultado da
+ * consulta (expressão construtora do JPQL)
+ *
+ * Não passa pelo contexto de persistência: sem entidade gerenciada,
+ * sem cópia para verificação de alterações.
+ */
+public record ProductRow(Integer id, String name, Double price, int quantity, boolean status) {
+
+    /**
+     * Produto desacoplado com os mesmos valores
+     * @return nova instância de Product
+     */
+    public Product toProduct() {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(price);
+        product.setQuantity(quantity);
+        product.setStatus(status);
+        return product;
+    }
+}
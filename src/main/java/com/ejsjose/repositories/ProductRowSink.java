@@ -0,0 +1,26 @@
+package com.ejsjose.repositories;
+
+import java.io.IOException;
+
+/**
+ * Destino das linhas de uma varredura sem entidades
+ * ({@link IProductRepository#scanRows})
+ *
+ * Recebe os valores das colunas direto do ResultSet, sem Product nem
+ * wrappers: o preço chega como double, com hasPrice indicando se a
+ * coluna não é nula.
+ */
+@FunctionalInterface
+public interface ProductRowSink {
+
+    /**
+     * @param id ID do produto
+     * @param name nome (pode ser null)
+     * @param price preço; sem significado quando hasPrice é false
+     * @param hasPrice se o produto tem preço
+     * @param quantity quantidade
+     * @param status status
+     * @throws IOException repassada ao chamador de scanRows
+     */
+    void accept(int id, String name, double price, boolean hasPrice, int quantity, boolean status) throws IOException;
+}
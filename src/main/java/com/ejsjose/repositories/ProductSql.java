@@ -0,0 +1,134 @@
+package com.ejsjose.repositories;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * SQL comum às implementações do repositório que falam JDBC direto
+ */
+final class ProductSql {
+
+    /** Colunas lidas por {@link #sendRows}, na ordem */
+    static final String ROW_COLUMNS = "id, name, price, quantity, status";
+
+    /** Nomes por consulta em {@link #existingNamesQuery} */
+    static final int NAMES_PER_QUERY = 512;
+
+    private ProductSql() {}
+
+    /**
+     * Consulta dos nomes cadastrados entre {@code count} nomes já em minúsculas
+     * @param count número de parâmetros (veja {@link #paddedNames})
+     * @return SQL com parâmetros posicionais
+     */
+    static String existingNamesQuery(int count) {
+        StringBuilder sql = new StringBuilder("SELECT name FROM products WHERE LOWER(name) IN (");
+        for (int i = 0; i < count; i++) {
+            sql.append(i > 0 ? ", ?" : "?");
+        }
+        return sql.append(')').toString();
+    }
+
+    /**
+     * Parâmetros de {@link #existingNamesQuery}: os nomes completados até a
+     * próxima potência de dois repetindo o último, para que o cache de
+     * comandos guarde poucas variações da consulta
+     * @param names nomes em minúsculas (ao menos um)
+     * @return parâmetros
+     */
+    static Object[] paddedNames(List<String> names) {
+        int size = names.size() == 1 ? 1 : Integer.highestOneBit(names.size() - 1) << 1;
+        Object[] params = new Object[size];
+        for (int i = 0; i < size; i++) {
+            params[i] = names.get(Math.min(i, names.size() - 1));
+        }
+        return params;
+    }
+
+    /**
+     * Consulta da varredura sem entidades, ordenada por ID
+     * @param criteria critérios (pode ser null)
+     * @param params recebe os parâmetros posicionais
+     * @return SQL com parâmetros posicionais
+     */
+    static String scanQuery(ProductCriteria criteria, List<Object> params) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(ROW_COLUMNS).append(" FROM products WHERE 1=1");
+        appendCriteria(sql, params, criteria);
+        return sql.append(" ORDER BY id").toString();
+    }
+
+    /**
+     * Entrega cada linha (com as colunas de ROW_COLUMNS) ao sink
+     * @return número de linhas
+     */
+    static long sendRows(ResultSet rs, ProductRowSink sink) throws SQLException, IOException {
+        long rows = 0;
+        while (rs.next()) {
+            double price = rs.getDouble(3);
+            boolean hasPrice = !rs.wasNull();
+            sink.accept(rs.getInt(1), rs.getString(2), price, hasPrice, rs.getInt(4), rs.getBoolean(5));
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Padrão LIKE de "contém": % e _ do texto valem como caracteres comuns
+     * (use com {@code ESCAPE '\'})
+     * @param text texto procurado
+     * @return padrão com curingas nas pontas
+     */
+    static String containsPattern(String text) {
+        StringBuilder pattern = new StringBuilder(text.length() + 2).append('%');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    static void appendCriteria(StringBuilder sql, List<Object> params, ProductCriteria criteria) {
+        if (criteria == null || !criteria.hasAnyFilter()) {
+            return;
+        }
+        if (criteria.requiresPrice()) {
+            sql.append(" AND price IS NOT NULL");
+        }
+        if (criteria.hasName()) {
+            sql.append(" AND LOWER(name) LIKE LOWER(?) ESCAPE '\\'");
+            params.add(containsPattern(criteria.getName().trim()));
+        }
+        if (criteria.getMinPrice() != null) {
+            sql.append(" AND price >= ?");
+            params.add(criteria.getMinPrice());
+        }
+        if (criteria.getMaxPrice() != null) {
+            sql.append(" AND price <= ?");
+            params.add(criteria.getMaxPrice());
+        }
+        if (criteria.getMinQuantity() != null) {
+            sql.append(" AND quantity >= ?");
+            params.add(criteria.getMinQuantity());
+        }
+        if (criteria.getMaxQuantity() != null) {
+            sql.append(" AND quantity <= ?");
+            params.add(criteria.getMaxQuantity());
+        }
+        if (criteria.getStatus() != null) {
+            sql.append(" AND status = ?");
+            params.add(criteria.getStatus());
+        }
+    }
+
+    static void bind(PreparedStatement statement, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            statement.setObject(i + 1, params[i]);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.ejsjose.repositories.events;
+
+/**
+ * O que fazer quando o buffer dos observadores assíncronos está cheio
+ */
+public enum BackpressurePolicy {
+    
+    /** Quem escreve espera até abrir espaço no buffer */
+    BLOCK,
+    
+    /** O evento novo é descartado e contado em {@link ProductChangeEventBus#getDroppedCount()} */
+    DROP_NEWEST,
+    
+    /** Quem escreve entrega o evento aos observadores assíncronos na própria thread */
+    CALLER_RUNS
+}
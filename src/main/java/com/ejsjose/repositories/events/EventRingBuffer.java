@@ -0,0 +1,95 @@
+package com.ejsjose.repositories.events;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Buffer circular limitado, sem locks, com vários produtores e um consumidor
+ * 
+ * Cada posição tem um número de sequência que diz se ela está livre para
+ * o produtor da volta atual ou preenchida para o consumidor. Produtores
+ * disputam apenas um CAS no contador de escrita; o consumidor não usa CAS.
+ *
+ * @param <E> tipo dos elementos
+ */
+class EventRingBuffer<E> {
+    
+    private final int mask;
+    private final AtomicReferenceArray<E> items;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    
+    /**
+     * @param capacity capacidade (arredondada para a próxima potência de 2)
+     */
+    EventRingBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacidade deve ser maior ou igual a 2");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.items = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    /**
+     * Tenta inserir sem bloquear (qualquer thread)
+     * @param item elemento
+     * @return false se o buffer está cheio
+     */
+    boolean offer(E item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items.set(index, item);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+    
+    /**
+     * Retira o próximo elemento (somente a thread consumidora)
+     * @return elemento ou null se vazio
+     */
+    E poll() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) - (position + 1) != 0) {
+            return null;
+        }
+        
+        E item = items.get(index);
+        items.set(index, null);
+        head = position + 1;
+        sequences.set(index, position + mask + 1);
+        return item;
+    }
+    
+    /**
+     * Número aproximado de elementos aguardando consumo
+     * @return tamanho aproximado
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+    
+    int capacity() {
+        return mask + 1;
+    }
+}
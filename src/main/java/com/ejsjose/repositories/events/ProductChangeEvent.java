@@ -0,0 +1,97 @@
+package com.ejsjose.repositories.events;
+
+import com.ejsjose.entities.Product;
+
+/**
+ * Evento de alteração de produto (change data capture)
+ * 
+ * As imagens "antes" e "depois" são cópias desacopladas do EntityManager,
+ * compartilhadas entre todos os observadores: não devem ser modificadas.
+ */
+public class ProductChangeEvent {
+    
+    private final long sequence;
+    private final ProductChangeType type;
+    private final Product before;
+    private final Product after;
+    private final int affectedRows;
+    private final long timestamp;
+    
+    public ProductChangeEvent(long sequence, ProductChangeType type, Product before, Product after, 
+                              int affectedRows, long timestamp) {
+        this.sequence = sequence;
+        this.type = type;
+        this.before = before;
+        this.after = after;
+        this.affectedRows = affectedRows;
+        this.timestamp = timestamp;
+    }
+    
+    /**
+     * Número de sequência monotônico atribuído na publicação
+     * @return sequência do evento
+     */
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public ProductChangeType getType() {
+        return type;
+    }
+    
+    /**
+     * Estado anterior (null em INSERT e BULK_DELETE)
+     *
+     * Também pode faltar em UPDATE e DELETE publicados por uma escrita que
+     * começou antes de haver observadores: o tipo continua o da operação.
+     * @return imagem antes da alteração
+     */
+    public Product getBefore() {
+        return before;
+    }
+    
+    /**
+     * Estado posterior (null em DELETE e BULK_DELETE)
+     * @return imagem depois da alteração
+     */
+    public Product getAfter() {
+        return after;
+    }
+    
+    /**
+     * ID do produto afetado (null em BULK_DELETE)
+     * @return ID do produto
+     */
+    public Integer getProductId() {
+        if (after != null) {
+            return after.getId();
+        }
+        return before != null ? before.getId() : null;
+    }
+    
+    /**
+     * Linhas afetadas: 1 em operações por produto, total em operações em massa
+     * @return número de linhas afetadas
+     */
+    public int getAffectedRows() {
+        return affectedRows;
+    }
+    
+    /**
+     * Momento da publicação em milissegundos desde a época
+     * @return timestamp do evento
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    @Override
+    public String toString() {
+        return "ProductChangeEvent{" +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", productId=" + getProductId() +
+                ", affectedRows=" + affectedRows +
+                '}';
+    }
+}
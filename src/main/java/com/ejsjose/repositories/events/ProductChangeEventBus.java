@@ -0,0 +1,401 @@
+package com.ejsjose.repositories.events;
+
+import com.ejsjose.entities.Product;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Barramento de eventos de alteração de produtos
+ *
+ * O repositório registra os eventos de cada commit com {@link #stage}
+ * ainda segurando o seu lock de escrita, o que fixa a sequência na ordem
+ * dos commits, e os entrega com {@link #deliverStaged} depois de soltá-lo.
+ * A entrega é serializada e segue a sequência: observadores síncronos
+ * rodam na thread de quem escreveu (ou na de outro escritor que esteja
+ * entregando a fila naquele momento), antes de o método do repositório
+ * retornar. Observadores assíncronos recebem os eventos, na mesma ordem,
+ * por um buffer circular sem locks, consumido por uma única thread daemon;
+ * quando o buffer enche vale a {@link BackpressurePolicy} configurada.
+ *
+ * A entrega síncrona só copia os eventos para uma fila intermediária; a
+ * passagem dessa fila para o buffer (e a espera do BLOCK) acontece depois
+ * de soltar o lock de entrega. Assim um observador assíncrono que escreve
+ * pelo repositório consegue entregar as próprias escritas enquanto outra
+ * thread espera espaço no buffer.
+ */
+public class ProductChangeEventBus implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final List<ProductChangeListener> syncListeners = new CopyOnWriteArrayList<>();
+    private final List<ProductChangeListener> asyncListeners = new CopyOnWriteArrayList<>();
+    private final EventRingBuffer<ProductChangeEvent> buffer;
+    private final BackpressurePolicy backpressurePolicy;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Queue<ProductChangeEvent> staged = new ConcurrentLinkedQueue<>();
+    private final Object stageLock = new Object();
+    // Reentrante: um observador que escreve entrega o próprio evento na mesma thread
+    private final ReentrantLock deliveryLock = new ReentrantLock();
+    /** Eventos já entregues aos síncronos, a caminho do buffer, na ordem da sequência */
+    private final Queue<ProductChangeEvent> asyncBacklog = new ConcurrentLinkedQueue<>();
+    // Passagem para o buffer, uma thread por vez, para manter a ordem
+    private final ReentrantLock asyncLock = new ReentrantLock();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile Thread dispatcher;
+    private volatile boolean dispatcherWaiting;
+    private volatile boolean closed;
+
+    public ProductChangeEventBus() {
+        this(DEFAULT_CAPACITY, BackpressurePolicy.BLOCK);
+    }
+
+    /**
+     * @param capacity capacidade do buffer dos observadores assíncronos
+     * @param backpressurePolicy política quando o buffer está cheio
+     */
+    public ProductChangeEventBus(int capacity, BackpressurePolicy backpressurePolicy) {
+        if (backpressurePolicy == null) {
+            throw new IllegalArgumentException("Política de backpressure não pode ser nula");
+        }
+        this.buffer = new EventRingBuffer<>(capacity);
+        this.backpressurePolicy = backpressurePolicy;
+    }
+
+    // === INSCRIÇÃO ===
+
+    /**
+     * Registra observador chamado na thread de quem escreveu
+     * @param listener observador
+     */
+    public void subscribe(ProductChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Observador não pode ser nulo");
+        }
+        syncListeners.add(listener);
+    }
+
+    /**
+     * Registra observador chamado pela thread de despacho
+     * @param listener observador
+     */
+    public void subscribeAsync(ProductChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Observador não pode ser nulo");
+        }
+        asyncListeners.add(listener);
+        startDispatcher();
+    }
+
+    /**
+     * Remove observador (síncrono ou assíncrono)
+     * @param listener observador
+     */
+    public void unsubscribe(ProductChangeListener listener) {
+        syncListeners.remove(listener);
+        asyncListeners.remove(listener);
+    }
+
+    /**
+     * Indica se há alguém ouvindo; o repositório usa para evitar copiar
+     * imagens "antes" e "depois" à toa
+     * @return true se existe pelo menos um observador
+     */
+    public boolean hasListeners() {
+        return !syncListeners.isEmpty() || !asyncListeners.isEmpty();
+    }
+
+    // === PUBLICAÇÃO ===
+
+    /**
+     * Publica alteração de um produto: registra e entrega na hora
+     * @param type tipo da alteração
+     * @param before estado anterior (copiado aqui) ou null
+     * @param after estado posterior (copiado aqui) ou null
+     * @return evento publicado, ou null se não há observadores
+     */
+    public ProductChangeEvent publish(ProductChangeType type, Product before, Product after) {
+        ProductChangeEvent event = stage(type, before, after);
+        deliverStaged();
+        return event;
+    }
+
+    /**
+     * Publica operação em massa (sem imagens por linha): registra e entrega na hora
+     * @param type tipo da operação
+     * @param affectedRows linhas afetadas
+     * @return evento publicado, ou null se não há observadores
+     */
+    public ProductChangeEvent publishBulk(ProductChangeType type, int affectedRows) {
+        ProductChangeEvent event = stageBulk(type, affectedRows);
+        deliverStaged();
+        return event;
+    }
+
+    /**
+     * Registra alteração de um produto para entrega em {@link #deliverStaged}
+     *
+     * Chamado com o lock de escrita do repositório, logo após o commit: a
+     * sequência e a ordem de entrega ficam as dos commits.
+     * @param type tipo da alteração
+     * @param before estado anterior (copiado aqui) ou null
+     * @param after estado posterior (copiado aqui) ou null
+     * @return evento registrado, ou null se não há observadores
+     */
+    public ProductChangeEvent stage(ProductChangeType type, Product before, Product after) {
+        if (!hasListeners()) {
+            sequence.incrementAndGet();
+            return null;
+        }
+
+        Product beforeImage = before != null ? new Product(before) : null;
+        Product afterImage = after != null ? new Product(after) : null;
+        synchronized (stageLock) {
+            ProductChangeEvent event = new ProductChangeEvent(sequence.incrementAndGet(), type,
+                    beforeImage, afterImage, 1, System.currentTimeMillis());
+            staged.add(event);
+            return event;
+        }
+    }
+
+    /**
+     * Registra operação em massa para entrega em {@link #deliverStaged}
+     * @param type tipo da operação
+     * @param affectedRows linhas afetadas
+     * @return evento registrado, ou null se não há observadores
+     */
+    public ProductChangeEvent stageBulk(ProductChangeType type, int affectedRows) {
+        if (!hasListeners()) {
+            sequence.incrementAndGet();
+            return null;
+        }
+
+        synchronized (stageLock) {
+            ProductChangeEvent event = new ProductChangeEvent(sequence.incrementAndGet(), type, null, null,
+                    affectedRows, System.currentTimeMillis());
+            staged.add(event);
+            return event;
+        }
+    }
+
+    /**
+     * Entrega os eventos registrados, em ordem de sequência
+     *
+     * Chamado sem o lock de escrita do repositório. Se outra thread está
+     * entregando, espera por ela; ao retornar, os eventos registrados por
+     * esta thread já foram entregues aos observadores síncronos e passados
+     * ao buffer dos assíncronos (conforme a política de backpressure).
+     */
+    public void deliverStaged() {
+        // Fila vazia e ninguém entregando: nada pendente desta thread
+        if (staged.isEmpty() && !deliveryLock.isLocked()) {
+            flushAsync();
+            return;
+        }
+
+        deliveryLock.lock();
+        try {
+            ProductChangeEvent event;
+            while ((event = staged.poll()) != null) {
+                dispatch(event);
+            }
+        } finally {
+            deliveryLock.unlock();
+        }
+        flushAsync();
+    }
+
+    /**
+     * Sequência do último evento publicado
+     * @return última sequência (0 se nada foi publicado)
+     */
+    public long getLastSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Eventos descartados por buffer cheio com {@link BackpressurePolicy#DROP_NEWEST}
+     * @return total de eventos descartados
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Eventos aguardando a thread de despacho
+     * @return tamanho aproximado do buffer
+     */
+    public int getPendingCount() {
+        return buffer.size() + asyncBacklog.size();
+    }
+
+    /**
+     * Para a thread de despacho depois de entregar o que estiver no buffer
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Thread current = dispatcher;
+        if (current != null) {
+            LockSupport.unpark(current);
+            try {
+                current.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // O que ainda não chegou ao buffer é entregue aqui
+        flushAsync();
+    }
+
+    // === DESPACHO ===
+
+    private void dispatch(ProductChangeEvent event) {
+        for (ProductChangeListener listener : syncListeners) {
+            deliver(listener, event);
+        }
+
+        if (!asyncListeners.isEmpty()) {
+            asyncBacklog.add(event);
+        }
+    }
+
+    /**
+     * Passa a fila intermediária para o buffer dos assíncronos
+     *
+     * Nunca roda com o lock de entrega: quem entrega dentro de um observador
+     * síncrono deixa a passagem para a chamada de fora. A thread de despacho
+     * não espera, nem pelo lock nem por espaço: o que não couber fica na
+     * fila, na ordem, e ela mesma passa adiante quando o buffer esvaziar.
+     */
+    private void flushAsync() {
+        if (asyncBacklog.isEmpty() || deliveryLock.isHeldByCurrentThread()) {
+            return;
+        }
+
+        boolean onDispatcher = Thread.currentThread() == dispatcher;
+        if (onDispatcher) {
+            if (!asyncLock.tryLock()) {
+                return;
+            }
+        } else {
+            asyncLock.lock();
+        }
+        try {
+            ProductChangeEvent event;
+            if (onDispatcher) {
+                while ((event = asyncBacklog.peek()) != null && !closed && buffer.offer(event)) {
+                    asyncBacklog.poll();
+                }
+            } else {
+                while ((event = asyncBacklog.poll()) != null) {
+                    enqueue(event);
+                }
+            }
+        } finally {
+            asyncLock.unlock();
+        }
+    }
+
+    private void enqueue(ProductChangeEvent event) {
+        if (closed) {
+            deliverAsyncInline(event);
+            return;
+        }
+
+        while (!buffer.offer(event)) {
+            if (backpressurePolicy == BackpressurePolicy.CALLER_RUNS) {
+                deliverAsyncInline(event);
+                return;
+            }
+            if (backpressurePolicy == BackpressurePolicy.DROP_NEWEST) {
+                dropped.incrementAndGet();
+                return;
+            }
+
+            // BLOCK: acorda o consumidor e espera abrir espaço
+            wakeDispatcher();
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+
+        wakeDispatcher();
+    }
+
+    private void deliverAsyncInline(ProductChangeEvent event) {
+        for (ProductChangeListener listener : asyncListeners) {
+            deliver(listener, event);
+        }
+    }
+
+    private void wakeDispatcher() {
+        if (dispatcherWaiting) {
+            Thread current = dispatcher;
+            if (current != null) {
+                LockSupport.unpark(current);
+            }
+        }
+    }
+
+    private synchronized void startDispatcher() {
+        if (dispatcher != null || closed) {
+            return;
+        }
+
+        Thread thread = new Thread(this::runDispatcher, "product-change-dispatcher");
+        thread.setDaemon(true);
+        dispatcher = thread;
+        thread.start();
+    }
+
+    private void runDispatcher() {
+        while (true) {
+            ProductChangeEvent event = buffer.poll();
+            if (event != null) {
+                deliverAsyncInline(event);
+                continue;
+            }
+
+            // Eventos que ficaram na fila intermediária (escritos pelos próprios observadores)
+            if (!asyncBacklog.isEmpty() && !closed) {
+                flushAsync();
+                if (buffer.size() == 0) {
+                    Thread.onSpinWait(); // outra thread está passando a fila
+                }
+                continue;
+            }
+
+            if (closed) {
+                if (buffer.size() == 0) {
+                    return;
+                }
+                Thread.onSpinWait(); // produtor reservou a posição mas ainda não gravou
+                continue;
+            }
+
+            // Sinaliza a espera e confere de novo para não perder um evento
+            dispatcherWaiting = true;
+            if (buffer.size() == 0 && !closed) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            dispatcherWaiting = false;
+        }
+    }
+
+    private static void deliver(ProductChangeListener listener, ProductChangeEvent event) {
+        try {
+            listener.onChange(event);
+        } catch (RuntimeException e) {
+            // A alteração já foi confirmada no banco: um observador com erro não a desfaz
+            System.err.println("Erro no observador de alterações (" + event + "): " + e.getMessage());
+        }
+    }
+}
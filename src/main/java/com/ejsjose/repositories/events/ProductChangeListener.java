@@ -0,0 +1,14 @@
+package com.ejsjose.repositories.events;
+
+/**
+ * Observador de alterações de produtos
+ */
+@FunctionalInterface
+public interface ProductChangeListener {
+    
+    /**
+     * Chamado após o commit da alteração
+     * @param event evento da alteração (não deve ser modificado)
+     */
+    void onChange(ProductChangeEvent event);
+}
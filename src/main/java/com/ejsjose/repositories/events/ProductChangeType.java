@@ -0,0 +1,23 @@
+package com.ejsjose.repositories.events;
+
+/**
+ * Tipos de alteração emitidos pelo repositório de produtos
+ */
+public enum ProductChangeType {
+    
+    /** Produto incluído: só possui imagem "depois" */
+    INSERT,
+    
+    /** Produto alterado: possui imagens "antes" e "depois" */
+    UPDATE,
+    
+    /** Produto removido: só possui imagem "antes" */
+    DELETE,
+    
+    /**
+     * Operação em massa via JPQL (ex: deleteAll): sem imagens por linha,
+     * apenas o número de linhas afetadas. Quem mantém estado derivado
+     * deve descartá-lo e recarregar do banco.
+     */
+    BULK_DELETE
+}
@@ -1,10 +1,19 @@
 package com.ejsjose.services;
 
 import com.ejsjose.entities.Product;
+import com.ejsjose.infra.PersistenceStatistics;
+import com.ejsjose.repositories.ProductRowSink;
+import com.ejsjose.repositories.events.ProductChangeEventBus;
+import com.ejsjose.services.dto.ProductBatchResult;
+import com.ejsjose.services.dto.ProductChangesDTO;
+import com.ejsjose.services.dto.ProductCommand;
 import com.ejsjose.services.dto.ProductCreateDTO;
 import com.ejsjose.services.dto.ProductUpdateDTO;
 import com.ejsjose.services.dto.ProductFilterDTO;
+import com.ejsjose.services.dto.ProductProjectionDTO;
+import com.ejsjose.services.dto.ProductStatisticsDTO;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +39,19 @@ public interface IProductService {
      */
     Product createProduct(ProductCreateDTO createDTO);
     
+    /**
+     * Cria vários produtos em uma única transação
+     * 
+     * Cada item passa pelas mesmas validações de {@link #createProduct},
+     * exceto o nome repetido: aqui o nome é comparado por inteiro, sem
+     * diferenciar maiúsculas, tanto com os já cadastrados (uma consulta por
+     * bloco de nomes) quanto com os anteriores do lote. Itens inválidos são
+     * rejeitados individualmente sem impedir os demais
+     * @param createDTOs lote de produtos
+     * @return para cada item, null se criado ou o motivo da rejeição
+     */
+    List<String> createProducts(List<ProductCreateDTO> createDTOs);
+    
     /**
      * Busca produto por ID
      * @param id ID do produto
@@ -68,6 +90,36 @@ public interface IProductService {
      */
     List<Product> findProductsWithFilters(ProductFilterDTO filterDTO);
     
+    /**
+     * Página de produtos filtrados, ordenada por ID (paginação por keyset)
+     * @param filterDTO filtros aplicados no banco (pode ser null)
+     * @param afterId último ID da página anterior (null para a primeira)
+     * @param limit tamanho máximo da página
+     * @return produtos da página
+     */
+    List<Product> findProductsPage(ProductFilterDTO filterDTO, Integer afterId, int limit);
+    
+    /**
+     * Percorre os produtos filtrados, ordenados por ID, entregando as colunas
+     * de cada linha ao sink sem montar Product (listagens e exportações grandes)
+     * @param filterDTO filtros aplicados no banco (pode ser null)
+     * @param sink destino das linhas
+     * @return número de produtos entregues
+     * @throws IOException lançada pelo sink
+     */
+    long scanProducts(ProductFilterDTO filterDTO, ProductRowSink sink) throws IOException;
+    
+    /**
+     * Percorre os produtos por status, ordenados por ID, como
+     * {@link #scanProducts}; entrega as mesmas linhas de {@link #findProductsByStatus},
+     * inclusive produtos sem preço
+     * @param active true para ativos, false para inativos, null para todos
+     * @param sink destino das linhas
+     * @return número de produtos entregues
+     * @throws IOException lançada pelo sink
+     */
+    long scanProductsByStatus(Boolean active, ProductRowSink sink) throws IOException;
+    
     /**
      * Busca produtos por nome
      * @param name nome ou parte do nome
@@ -75,6 +127,31 @@ public interface IProductService {
      */
     List<Product> findProductsByName(String name);
     
+    /**
+     * Busca com filtros lendo só os campos de filterDTO.getFields()
+     * @param filterDTO filtros e campos desejados
+     * @param afterId último ID da página anterior (null para a primeira)
+     * @param limit número máximo de produtos
+     * @return linhas com os campos pedidos, ordenadas por ID
+     * @throws IllegalArgumentException se não há campos ou algum é desconhecido
+     */
+    ProductProjectionDTO findProductsProjected(ProductFilterDTO filterDTO, Integer afterId, int limit);
+    
+    /**
+     * Busca produtos por nome tolerando erros de digitação
+     *
+     * Palavras curtas da consulta toleram no máximo {@code (tamanho - 1) / 2}
+     * edições, mesmo com maxEdits maior: "tv" só casa exatamente e
+     * "dell" aceita uma edição.
+     *
+     * @param query nome digitado (ex: "notebok dell")
+     * @param maxEdits edições toleradas por palavra (0 a 3), limitadas pelo tamanho dela
+     * @param limit número máximo de resultados
+     * @return produtos ordenados do mais próximo ao mais distante
+     * @throws IllegalArgumentException se maxEdits ou limit inválidos
+     */
+    List<Product> findProductsByNameFuzzy(String query, int maxEdits, int limit);
+    
     /**
      * Busca produtos por status
      * @param active true para ativos, false para inativos, null para todos
@@ -82,6 +159,15 @@ public interface IProductService {
      */
     List<Product> findProductsByStatus(Boolean active);
     
+    /**
+     * Página de produtos por status, ordenada por ID (paginação por keyset)
+     * @param active true para ativos, false para inativos, null para todos
+     * @param afterId último ID da página anterior (null para a primeira)
+     * @param limit tamanho máximo da página
+     * @return produtos da página
+     */
+    List<Product> findProductsByStatusPage(Boolean active, Integer afterId, int limit);
+    
     /**
      * Busca produtos por faixa de preço
      * @param minPrice preço mínimo (pode ser null)
@@ -114,6 +200,27 @@ public interface IProductService {
      */
     Product updateProductPrice(Integer id, Double newPrice);
     
+    /**
+     * Soma uma variação à quantidade em estoque
+     * @param id ID do produto
+     * @param delta variação (negativa para baixa)
+     * @return produto com a nova quantidade
+     */
+    Product adjustProductQuantity(Integer id, int delta);
+    
+    /**
+     * Executa vários comandos em uma única transação
+     * 
+     * Em ALL_OR_NOTHING a primeira falha desfaz tudo e os comandos
+     * seguintes não são executados. Em BEST_EFFORT os comandos recusados
+     * pelas validações são pulados e o restante é confirmado; um erro do
+     * banco, porém, sempre desfaz o lote.
+     * @param commands comandos na ordem de execução
+     * @param mode tratamento de falhas
+     * @return um resultado por comando, na mesma ordem
+     */
+    ProductBatchResult executeBatch(List<ProductCommand> commands, ProductBatchResult.Mode mode);
+    
     /**
      * Aplica desconto em produtos por categoria/filtro
      * @param filterDTO filtro para produtos
@@ -122,6 +229,20 @@ public interface IProductService {
      */
     int applyDiscount(ProductFilterDTO filterDTO, Double discountPercentage);
     
+    // === SINCRONIZAÇÃO INCREMENTAL ===
+    
+    /**
+     * Alterações desde a sequência informada, para manter cópias do catálogo
+     * atualizadas sem baixá-lo inteiro
+     * 
+     * Comece com 0 (traz todos os produtos) e repita com o lastSeq
+     * devolvido enquanto hasMore for true.
+     * @param afterSeq última sequência já sincronizada
+     * @param limit número máximo de alterações (1 a 1000)
+     * @return alterações em ordem de sequência
+     */
+    ProductChangesDTO findChangesSince(long afterSeq, int limit);
+    
     // === ESTATÍSTICAS E RELATÓRIOS ===
     
     /**
@@ -160,6 +281,26 @@ public interface IProductService {
      */
     Optional<Product> findCheapestProduct();
     
+    /**
+     * Estatísticas do catálogo mantidas incrementalmente a cada escrita
+     * 
+     * A primeira chamada carrega os dados do banco; as seguintes custam O(1)
+     * @return estatísticas atuais
+     */
+    ProductStatisticsDTO getStatistics();
+    
+    /**
+     * Recalcula as estatísticas a partir do banco
+     * @return estatísticas recalculadas
+     */
+    ProductStatisticsDTO rebuildStatistics();
+    
+    /**
+     * Estatísticas de persistência do repositório usado por este service
+     * @return retrato das estatísticas
+     */
+    PersistenceStatistics getPersistenceStatistics();
+    
     /**
      * Verifica se produto existe
      * @param id ID do produto
@@ -174,4 +315,13 @@ public interface IProductService {
      * @return true se nome já existe
      */
     boolean productNameExists(String name, Integer excludeId);
+    
+    // === EVENTOS ===
+    
+    /**
+     * Barramento onde as escritas confirmadas são publicadas, para quem
+     * mantém estado derivado dos produtos (caches, índices)
+     * @return barramento de eventos do repositório
+     */
+    ProductChangeEventBus getChangeEvents();
 }
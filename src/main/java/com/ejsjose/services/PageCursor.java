@@ -0,0 +1,168 @@
+package com.ejsjose.services;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Cursor opaco de paginação por keyset
+ *
+ * Guarda a chave de ordenação e o último ID da página anterior, junto com
+ * o escopo da consulta (endpoint e filtros) para que um cursor não seja
+ * reaproveitado em outra busca. O conteúdo vai em Base64 URL-safe e é
+ * assinado com HMAC-SHA256: o cliente não consegue montar nem alterar um
+ * cursor.
+ *
+ * A chave vem da propriedade de sistema {@code tstcrud.cursor.secret};
+ * sem ela, uma chave aleatória é gerada por processo e os cursores deixam
+ * de valer quando a aplicação reinicia.
+ */
+public final class PageCursor {
+
+    private static final String VERSION = "1";
+    private static final String SEPARATOR = "\n";
+    private static final int SIGNATURE_BYTES = 16;
+    private static final byte[] SECRET = loadSecret();
+
+    private final String scope;
+    private final String sortValue;
+    private final int lastId;
+
+    private PageCursor(String scope, String sortValue, int lastId) {
+        this.scope = scope;
+        this.sortValue = sortValue;
+        this.lastId = lastId;
+    }
+
+    /**
+     * Monta o escopo de uma consulta a partir do tipo e dos parâmetros
+     *
+     * Os parâmetros entram como um resumo SHA-256 curto, o que mantém o
+     * cursor pequeno mesmo com filtros longos.
+     * @param kind tipo da consulta (ex: "all", "status")
+     * @param parameters parâmetros que definem o resultado (nulos são aceitos)
+     * @return escopo a usar em {@link #encode} e {@link #decode}
+     */
+    public static String scope(String kind, Object... parameters) {
+        if (parameters.length == 0) {
+            return kind;
+        }
+
+        StringBuilder canonical = new StringBuilder();
+        for (Object parameter : parameters) {
+            canonical.append(parameter).append(SEPARATOR);
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return kind + ":" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 9));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Gera o cursor para continuar depois do item informado
+     * @param scope escopo da consulta
+     * @param sortValue valor da chave de ordenação do último item (null se a ordem é só por ID)
+     * @param lastId ID do último item
+     * @return cursor opaco
+     */
+    public static String encode(String scope, Object sortValue, int lastId) {
+        String payload = VERSION + SEPARATOR + scope + SEPARATOR
+                + (sortValue != null ? sortValue.toString() : "") + SEPARATOR + lastId;
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payloadBytes) + "." + encoder.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * Valida e abre um cursor recebido do cliente
+     * @param cursor cursor opaco (null ou vazio para a primeira página)
+     * @param expectedScope escopo da consulta atual
+     * @return cursor aberto, ou null para a primeira página
+     * @throws IllegalArgumentException se o cursor foi alterado ou é de outra consulta
+     */
+    public static PageCursor decode(String cursor, String expectedScope) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        int dot = cursor.indexOf('.');
+        if (dot <= 0) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+
+        byte[] payloadBytes;
+        byte[] signature;
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            payloadBytes = decoder.decode(cursor.substring(0, dot));
+            signature = decoder.decode(cursor.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+        if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+
+        String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        if (parts.length != 4 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        if (!parts[1].equals(expectedScope)) {
+            throw new IllegalArgumentException("Cursor pertence a outra consulta");
+        }
+
+        // Assinatura válida: o conteúdo foi gerado por encode()
+        return new PageCursor(parts[1], parts[2].isEmpty() ? null : parts[2], Integer.parseInt(parts[3]));
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    /**
+     * Valor da chave de ordenação do último item entregue
+     * @return valor em texto (null se a ordem é só por ID)
+     */
+    public String getSortValue() {
+        return sortValue;
+    }
+
+    /**
+     * ID do último item entregue
+     * @return último ID
+     */
+    public int getLastId() {
+        return lastId;
+    }
+
+    private static byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRET, "HmacSHA256"));
+            return Arrays.copyOf(mac.doFinal(payload), SIGNATURE_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponível", e);
+        }
+    }
+
+    private static byte[] loadSecret() {
+        String configured = System.getProperty("tstcrud.cursor.secret");
+        if (configured != null && !configured.isBlank()) {
+            return configured.getBytes(StandardCharsets.UTF_8);
+        }
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+}
@@ -0,0 +1,214 @@
+package com.ejsjose.services;
+
+import com.ejsjose.entities.Product;
+import com.ejsjose.repositories.events.ProductChangeEvent;
+import com.ejsjose.repositories.events.ProductChangeListener;
+import com.ejsjose.utils.JsonUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache do JSON compacto de cada produto, por ID
+ *
+ * Guarda os bytes já codificados para que leituras repetidas não voltem a
+ * serializar o produto: listas são montadas concatenando os fragmentos.
+ * Alterações confirmadas (recebidas como {@link ProductChangeListener})
+ * removem a entrada do produto; remoções em massa esvaziam o cache.
+ *
+ * Uma leitura concorrente com uma escrita poderia guardar o estado antigo
+ * depois da invalidação. Para evitar isso, quem lê do banco pega um
+ * {@link #stamp()} antes da consulta e o fragmento só fica no cache se
+ * nenhuma invalidação ocorreu desde então.
+ *
+ * O total de bytes é limitado; acima do limite as entradas saem pela
+ * política de segunda chance (entradas lidas desde a última varredura
+ * ficam mais uma rodada).
+ */
+public class ProductJsonCache implements ProductChangeListener {
+
+    /** Limite padrão: 16 MiB de JSON */
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+    private final long maxBytes;
+    private final ConcurrentMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Object evictionLock = new Object();
+
+    public ProductJsonCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxBytes total máximo de bytes guardados
+     */
+    public ProductJsonCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Tamanho máximo do cache deve ser maior que zero");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * JSON em cache do produto
+     * @param id ID do produto
+     * @return bytes do JSON compacto (não devem ser alterados), ou null
+     */
+    public byte[] get(Integer id) {
+        Entry entry = id != null ? entries.get(id) : null;
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        hits.increment();
+        return entry.json;
+    }
+
+    /**
+     * Marca a tomar antes de ler produtos do banco
+     * @return valor a passar para {@link #encode}
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * JSON compacto do produto, do cache ou serializado agora
+     * @param product produto lido do banco depois de {@code stamp}
+     * @param stamp marca obtida por {@link #stamp()} antes da leitura
+     * @return bytes do JSON (não devem ser alterados)
+     * @throws JsonProcessingException se erro na serialização
+     */
+    public byte[] encode(Product product, long stamp) throws JsonProcessingException {
+        Integer id = product.getId();
+        if (id != null) {
+            byte[] cached = get(id);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        byte[] json = JsonUtils.toJsonBytes(product);
+        if (id != null) {
+            put(id, json, stamp);
+        }
+        return json;
+    }
+
+    /**
+     * Remove o produto do cache
+     * @param id ID do produto alterado
+     */
+    public void invalidate(Integer id) {
+        // Incrementa antes de remover: leituras em andamento desistem de guardar
+        invalidations.incrementAndGet();
+        Entry removed = entries.remove(id);
+        if (removed != null) {
+            totalBytes.addAndGet(-removed.json.length);
+        }
+    }
+
+    /**
+     * Esvazia o cache
+     */
+    public void clear() {
+        invalidations.incrementAndGet();
+        for (Integer id : entries.keySet()) {
+            Entry removed = entries.remove(id);
+            if (removed != null) {
+                totalBytes.addAndGet(-removed.json.length);
+            }
+        }
+    }
+
+    @Override
+    public void onChange(ProductChangeEvent event) {
+        switch (event.getType()) {
+            case INSERT -> { } // ID novo: nada em cache
+            case UPDATE, DELETE -> invalidate(event.getProductId());
+            case BULK_DELETE -> clear();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private void put(Integer id, byte[] json, long stamp) {
+        if (json.length > maxBytes / 8) {
+            return; // um único produto não pode dominar o cache
+        }
+
+        Entry entry = new Entry(json);
+        Entry previous = entries.put(id, entry);
+        totalBytes.addAndGet(json.length - (previous != null ? previous.json.length : 0));
+
+        // Conferido depois do put: uma invalidação concorrente ou já removeu a entrada ou é vista aqui
+        if (invalidations.get() != stamp && entries.remove(id, entry)) {
+            totalBytes.addAndGet(-json.length);
+            return;
+        }
+
+        if (totalBytes.get() > maxBytes) {
+            evict();
+        }
+    }
+
+    /**
+     * Segunda chance: entradas lidas perdem a marca e ficam; as demais saem,
+     * até o total cair para 90% do limite
+     */
+    private void evict() {
+        synchronized (evictionLock) {
+            long target = maxBytes - maxBytes / 10;
+            while (totalBytes.get() > target && !entries.isEmpty()) {
+                Iterator<Map.Entry<Integer, Entry>> iterator = entries.entrySet().iterator();
+                while (iterator.hasNext() && totalBytes.get() > target) {
+                    Map.Entry<Integer, Entry> candidate = iterator.next();
+                    Entry entry = candidate.getValue();
+                    if (entry.referenced) {
+                        entry.referenced = false;
+                    } else if (entries.remove(candidate.getKey(), entry)) {
+                        totalBytes.addAndGet(-entry.json.length);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] json;
+        private volatile boolean referenced;
+
+        private Entry(byte[] json) {
+            this.json = json;
+        }
+    }
+}
@@ -1,25 +1,111 @@
 package com.ejsjose.services;
 
 import com.ejsjose.entities.Product;
+import com.ejsjose.infra.MethodMetrics;
+import com.ejsjose.infra.OperationEvent;
+import com.ejsjose.infra.OperationEvents;
+import com.ejsjose.infra.PersistenceStatistics;
+import com.ejsjose.repositories.ProductRowSink;
+import com.ejsjose.repositories.events.ProductChangeEvent;
+import com.ejsjose.services.dto.ProductBatchResult;
+import com.ejsjose.services.dto.ProductChangesDTO;
+import com.ejsjose.services.dto.ProductCommand;
+import com.ejsjose.services.dto.ProductCommandResult;
 import com.ejsjose.services.dto.ProductCreateDTO;
 import com.ejsjose.services.dto.ProductUpdateDTO;
 import com.ejsjose.services.dto.ProductFilterDTO;
+import com.ejsjose.services.dto.ProductProjectionDTO;
+import com.ejsjose.services.dto.ProductStatisticsDTO;
+import com.ejsjose.services.dto.ValidationError;
+import com.ejsjose.utils.JsonLimits;
 import com.ejsjose.utils.JsonUtils;
+import com.ejsjose.utils.ProductJsonModule;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Service wrapper que trabalha com JSON
  * Todas as entradas e saídas são em formato JSON
+ * 
+ * As respostas saem compactas por padrão; use {@link JsonUtils.OutputMode#PRETTY}
+ * no construtor para JSON indentado (exemplos e depuração).
+ * 
+ * Os corpos recebidos são lidos dentro de {@link JsonLimits#DEFAULT}
+ * (tamanho, profundidade e tamanho de textos); a importação em streaming
+ * usa {@link JsonLimits#BULK}. Uma violação lança
+ * {@link com.fasterxml.jackson.core.exc.StreamConstraintsException},
+ * subclasse de JsonProcessingException.
+ * 
+ * No modo compacto o JSON de cada produto fica em um {@link ProductJsonCache}
+ * (invalidado pelos eventos de escrita) e as listas são montadas
+ * concatenando os fragmentos, sem serializar de novo os produtos.
+ * 
+ * Leituras condicionais ({@code ...IfChanged}) recebem a versão que o
+ * cliente já tem e, se nada mudou, respondem sem consultar o banco nem
+ * serializar (ver {@link ProductVersions}).
  */
 public class ProductJsonService {
     
+    /** Produtos gravados por transação na importação em streaming */
+    public static final int DEFAULT_IMPORT_BATCH_SIZE = 500;
+    
+    /** Tamanho máximo de página nas listagens com cursor */
+    public static final int MAX_PAGE_SIZE = 1000;
+    
+    private static final byte[] PAGE_ITEMS = "{\"items\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PAGE_NEXT_CURSOR = ",\"nextCursor\":".getBytes(StandardCharsets.UTF_8);
+    
     private final IProductService productService;
+    private final JsonUtils.OutputMode outputMode;
+    private final ProductJsonCache jsonCache;
+    private final ProductVersions versions = new ProductVersions();
     
     public ProductJsonService(IProductService productService) {
+        this(productService, JsonUtils.OutputMode.COMPACT);
+    }
+    
+    /**
+     * @param productService service de produtos
+     * @param outputMode formato das respostas JSON
+     */
+    public ProductJsonService(IProductService productService, JsonUtils.OutputMode outputMode) {
+        if (outputMode == null) {
+            throw new IllegalArgumentException("Modo de saída não pode ser nulo");
+        }
         this.productService = productService;
+        this.outputMode = outputMode;
+        
+        // O cache guarda JSON compacto: no modo indentado as respostas são serializadas sempre
+        this.jsonCache = outputMode == JsonUtils.OutputMode.COMPACT ? new ProductJsonCache() : null;
+        productService.getChangeEvents().subscribe(this::onProductChange);
+    }
+    
+    /**
+     * Invalida o cache antes de mudar as versões: uma versão nova nunca
+     * acompanha fragmentos antigos
+     */
+    private void onProductChange(ProductChangeEvent event) {
+        if (jsonCache != null) {
+            jsonCache.onChange(event);
+        }
+        versions.onChange(event);
     }
     
     // === OPERAÇÕES BÁSICAS CRUD ===
@@ -31,9 +117,12 @@ public class ProductJsonService {
      * @throws JsonProcessingException se JSON inválido
      */
     public String createProduct(String createJson) throws JsonProcessingException {
-        ProductCreateDTO createDTO = JsonUtils.fromJson(createJson, ProductCreateDTO.class);
-        Product product = productService.createProduct(createDTO);
-        return JsonUtils.toJsonPretty(product);
+        ProductPayloadParser.Result<ProductCreateDTO> parsed = ProductPayloadParser.parseCreate(createJson);
+        if (!parsed.isValid()) {
+            throw new IllegalArgumentException(parsed.getErrorMessage());
+        }
+        Product product = productService.createProduct(parsed.getValue());
+        return JsonUtils.toJson(product, outputMode);
     }
     
     /**
@@ -43,9 +132,13 @@ public class ProductJsonService {
      * @throws JsonProcessingException se erro na serialização
      */
     public String findProductById(Integer id) throws JsonProcessingException {
+        if (jsonCache != null) {
+            byte[] json = findCachedProductById(id);
+            return json != null ? new String(json, StandardCharsets.UTF_8) : null;
+        }
         Optional<Product> product = productService.findProductById(id);
         if (product.isPresent()) {
-            return JsonUtils.toJsonPretty(product.get());
+            return JsonUtils.toJson(product.get(), outputMode);
         }
         return null;
     }
@@ -56,8 +149,10 @@ public class ProductJsonService {
      * @throws JsonProcessingException se erro na serialização
      */
     public String findAllProducts() throws JsonProcessingException {
-        List<Product> products = productService.findAllProducts();
-        return JsonUtils.toJsonPretty(products);
+        OperationEvent event = OperationEvents.json("findAllProducts");
+        String json = scanListJson(sink -> productService.scanProducts(null, sink), productService::findAllProducts);
+        event.finish(-1);
+        return json;
     }
     
     /**
@@ -68,9 +163,12 @@ public class ProductJsonService {
      * @throws JsonProcessingException se JSON inválido
      */
     public String updateProduct(Integer id, String updateJson) throws JsonProcessingException {
-        ProductUpdateDTO updateDTO = JsonUtils.fromJson(updateJson, ProductUpdateDTO.class);
-        Product product = productService.updateProduct(id, updateDTO);
-        return JsonUtils.toJsonPretty(product);
+        ProductPayloadParser.Result<ProductUpdateDTO> parsed = ProductPayloadParser.parseUpdate(updateJson);
+        if (!parsed.isValid()) {
+            throw new IllegalArgumentException(parsed.getErrorMessage());
+        }
+        Product product = productService.updateProduct(id, parsed.getValue());
+        return JsonUtils.toJson(product, outputMode);
     }
     
     /**
@@ -84,21 +182,503 @@ public class ProductJsonService {
         
         // Retorna resultado da operação
         OperationResult result = new OperationResult(true, "Produto removido com sucesso", id);
-        return JsonUtils.toJsonPretty(result);
+        return JsonUtils.toJson(result, outputMode);
+    }
+    
+    // === LEITURAS CONDICIONAIS ===
+    // A versão é lida antes da consulta: uma escrita no meio do caminho
+    // deixa a resposta com a versão anterior e o cliente busca de novo
+    
+    /**
+     * Versão atual do catálogo; muda a cada escrita confirmada
+     * @return versão opaca
+     */
+    public String getCatalogVersion() {
+        return versions.getCatalogVersion();
+    }
+    
+    /**
+     * Versão atual de um produto; muda quando ele é alterado ou removido
+     * @param id ID do produto
+     * @return versão opaca
+     */
+    public String getProductVersion(Integer id) {
+        return versions.getProductVersion(id);
+    }
+    
+    /**
+     * Lista todos os produtos se o catálogo mudou desde a versão informada
+     * @param knownVersion versão que o cliente já tem (null para sempre buscar)
+     * @return lista e versão atual, ou {@link VersionedJson#isModified()} false
+     * @throws JsonProcessingException se erro na serialização
+     */
+    public VersionedJson findAllProductsIfChanged(String knownVersion) throws JsonProcessingException {
+        String version = versions.getCatalogVersion();
+        if (version.equals(knownVersion)) {
+            return VersionedJson.notModified(version);
+        }
+        return VersionedJson.modified(version, findAllProducts());
+    }
+    
+    /**
+     * Busca produto por ID se ele mudou desde a versão informada
+     * @param id ID do produto
+     * @param knownVersion versão que o cliente já tem (null para sempre buscar)
+     * @return produto e versão atual (JSON null se não encontrado), ou não modificado
+     * @throws JsonProcessingException se erro na serialização
+     */
+    public VersionedJson findProductByIdIfChanged(Integer id, String knownVersion) throws JsonProcessingException {
+        String version = versions.getProductVersion(id);
+        if (version.equals(knownVersion)) {
+            return VersionedJson.notModified(version);
+        }
+        return VersionedJson.modified(version, findProductById(id));
+    }
+    
+    /**
+     * Estatísticas se o catálogo mudou desde a versão informada
+     * @param knownVersion versão que o cliente já tem (null para sempre buscar)
+     * @return estatísticas e versão atual, ou não modificado
+     * @throws JsonProcessingException se erro na serialização
+     */
+    public VersionedJson getStatisticsIfChanged(String knownVersion) throws JsonProcessingException {
+        String version = versions.getCatalogVersion();
+        if (version.equals(knownVersion)) {
+            return VersionedJson.notModified(version);
+        }
+        return VersionedJson.modified(version, getStatistics());
+    }
+    
+    // === VALIDAÇÃO SEM EXCEÇÕES ===
+    // Para entradas pouco confiáveis: os erros voltam como lista no JSON
+    
+    /**
+     * Cria produto devolvendo os erros de validação em vez de lançá-los
+     * 
+     * O JSON é lido e validado em uma passada; entradas inválidas não
+     * chegam ao service nem custam exceções
+     * @param createJson JSON com dados para criação
+     * @return JSON {"success": true, "product": {...}} ou {"success": false, "errors": [...]}
+     * @throws JsonProcessingException se erro na serialização da resposta
+     */
+    public String tryCreateProduct(String createJson) throws JsonProcessingException {
+        ValidationResult result;
+        try {
+            ProductPayloadParser.Result<ProductCreateDTO> parsed = ProductPayloadParser.parseCreate(createJson);
+            result = parsed.isValid()
+                    ? ValidationResult.success(productService.createProduct(parsed.getValue()))
+                    : ValidationResult.failure(parsed.getErrors());
+        } catch (JsonProcessingException e) {
+            result = ValidationResult.failure(ValidationError.Code.INVALID_JSON, e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            result = ValidationResult.failure(ValidationError.Code.REJECTED, e.getMessage());
+        }
+        return JsonUtils.toJson(result, outputMode);
+    }
+    
+    /**
+     * Atualiza produto devolvendo os erros de validação em vez de lançá-los
+     * @param id ID do produto
+     * @param updateJson JSON com dados para atualização
+     * @return JSON {"success": true, "product": {...}} ou {"success": false, "errors": [...]}
+     * @throws JsonProcessingException se erro na serialização da resposta
+     */
+    public String tryUpdateProduct(Integer id, String updateJson) throws JsonProcessingException {
+        ValidationResult result;
+        try {
+            ProductPayloadParser.Result<ProductUpdateDTO> parsed = ProductPayloadParser.parseUpdate(updateJson);
+            result = parsed.isValid()
+                    ? ValidationResult.success(productService.updateProduct(id, parsed.getValue()))
+                    : ValidationResult.failure(parsed.getErrors());
+        } catch (JsonProcessingException e) {
+            result = ValidationResult.failure(ValidationError.Code.INVALID_JSON, e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            result = ValidationResult.failure(ValidationError.Code.REJECTED, e.getMessage());
+        }
+        return JsonUtils.toJson(result, outputMode);
+    }
+    
+    // === FORMATOS DE TRANSPORTE ===
+    // Variantes em bytes para chamadas internas: o corpo é lido no formato
+    // do Content-Type e a resposta sai no formato pedido (JSON, Smile ou CBOR)
+    
+    /**
+     * Cria produto a partir do corpo no formato indicado
+     * @param body corpo da requisição
+     * @param contentType Content-Type do corpo; a resposta usa o mesmo formato
+     * @return produto criado, codificado
+     * @throws IOException se o corpo é inválido
+     * @throws IllegalArgumentException se o formato não é suportado
+     */
+    public byte[] createProduct(byte[] body, String contentType) throws IOException {
+        JsonUtils.WireFormat format = JsonUtils.WireFormat.fromContentType(contentType);
+        ProductCreateDTO createDTO = JsonUtils.fromBytes(body, ProductCreateDTO.class, format);
+        return encode(productService.createProduct(createDTO), format);
+    }
+    
+    /**
+     * Busca produto por ID
+     * @param id ID do produto
+     * @param accept formato da resposta
+     * @return produto codificado ou null se não encontrado
+     * @throws JsonProcessingException se erro na serialização
+     */
+    public byte[] findProductById(Integer id, String accept) throws JsonProcessingException {
+        JsonUtils.WireFormat format = JsonUtils.WireFormat.fromContentType(accept);
+        if (jsonCache != null && format == JsonUtils.WireFormat.JSON) {
+            // Cópia: o array do cache é compartilhado e o chamador pode alterar o seu
+            byte[] cached = findCachedProductById(id);
+            return cached != null ? cached.clone() : null;
+        }
+        Optional<Product> product = productService.findProductById(id);
+        return product.isPresent() ? encode(product.get(), format) : null;
+    }
+    
+    /**
+     * Lista todos os produtos
+     * @param accept formato da resposta
+     * @return lista codificada
+     * @throws JsonProcessingException se erro na serialização
+     */
+    public byte[] findAllProducts(String accept) throws JsonProcessingException {
+        OperationEvent event = OperationEvents.json("findAllProducts");
+        JsonUtils.WireFormat format = JsonUtils.WireFormat.fromContentType(accept);
+        byte[] encoded = scanList(sink -> productService.scanProducts(null, sink), productService::findAllProducts, format);
+        event.finish(null, format, -1);
+        return encoded;
+    }
+    
+    /**
+     * Atualiza produto a partir do corpo no formato indicado
+     * @param id ID do produto
+     * @param body corpo da requisição
+     * @param contentType Content-Type do corpo; a resposta usa o mesmo formato
+     * @return produto atualizado, codificado
+     * @throws IOException se o corpo é inválido
+     */
+    public byte[] updateProduct(Integer id, byte[] body, String contentType) throws IOException {
+        JsonUtils.WireFormat format = JsonUtils.WireFormat.fromContentType(contentType);
+        ProductUpdateDTO updateDTO = JsonUtils.fromBytes(body, ProductUpdateDTO.class, format);
+        return encode(productService.updateProduct(id, updateDTO), format);
+    }
+    
+    /**
+     * Busca produtos com filtros enviados no formato indicado
+     * @param filterBody filtros codificados
+     * @param contentType Content-Type dos filtros; a resposta usa o mesmo formato
+     * @return lista codificada
+     * @throws IOException se os filtros são inválidos
+     */
+    public byte[] findProductsWithFilters(byte[] filterBody, String contentType) throws IOException {
+        OperationEvent event = OperationEvents.json("findProductsWithFilters");
+        JsonUtils.WireFormat format = JsonUtils.WireFormat.fromContentType(contentType);
+        ProductFilterDTO filterDTO = JsonUtils.fromBytes(filterBody, ProductFilterDTO.class, format);
+        byte[] encoded = filterDTO.hasFields()
+                ? encode(productService.findProductsProjected(filterDTO, null, Integer.MAX_VALUE), format)
+                : encodeList(() -> productService.findProductsWithFilters(filterDTO), format);
+        event.finish(null, filterDTO, -1);
+        return encoded;
+    }
+    
+    /**
+     * Busca produtos por status
+     * @param status status do produto
+     * @param accept formato da resposta
+     * @return lista codificada
+     * @throws JsonProcessingException se erro na serialização
+     */
+    public byte[] findProductsByStatus(Boolean status, String accept) throws JsonProcessingException {
+        JsonUtils.WireFormat format = JsonUtils.WireFormat.fromContentType(accept);
+        return scanList(sink -> productService.scanProductsByStatus(status, sink),
+                () -> productService.findProductsByStatus(status), format);
+    }
+    
+    /**
+     * Busca produtos por faixa de preço
+     * @param minPrice preço mínimo
+     * @param maxPrice preço máximo
+     * @param accept formato da resposta
+     * @return lista codificada
+     * @throws JsonProcessingException se erro na serialização
+     */
+    public byte[] findProductsByPriceRange(Double minPrice, Double maxPrice, String accept) throws JsonProcessingException {
+        JsonUtils.WireFormat format = JsonUtils.WireFormat.fromContentType(accept);
+        return encodeList(() -> productService.findProductsByPriceRange(minPrice, maxPrice), format);
+    }
+    
+    private byte[] encode(Object value, JsonUtils.WireFormat format) throws JsonProcessingException {
+        if (format == JsonUtils.WireFormat.JSON) {
+            return JsonUtils.toJsonBytes(value, outputMode);
+        }
+        return JsonUtils.toBytes(value, format);
+    }
+    
+    // === CACHE DE JSON ===
+    
+    /**
+     * Busca o JSON do produto no cache; na falta, lê do banco e guarda
+     * @return bytes do JSON compacto, do próprio cache (não alterar nem
+     *         devolver ao chamador sem copiar), ou null se não encontrado
+     */
+    private byte[] findCachedProductById(Integer id) throws JsonProcessingException {
+        byte[] cached = jsonCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = jsonCache.stamp();
+        Optional<Product> product = productService.findProductById(id);
+        return product.isPresent() ? jsonCache.encode(product.get(), stamp) : null;
+    }
+    
+    /**
+     * Executa a consulta e codifica a lista; em JSON compacto o array é
+     * montado com os fragmentos do cache
+     */
+    private byte[] encodeList(Supplier<List<Product>> query, JsonUtils.WireFormat format) throws JsonProcessingException {
+        if (jsonCache == null || format != JsonUtils.WireFormat.JSON) {
+            return encode(query.get(), format);
+        }
+        // A marca vem antes da consulta: escritas concorrentes impedem que estados antigos fiquem no cache
+        long stamp = jsonCache.stamp();
+        List<Product> products = query.get();
+        ByteArrayOutputStream output = new ByteArrayOutputStream(products.size() * 128 + 2);
+        writeArray(output, products, stamp);
+        return output.toByteArray();
+    }
+    
+    private String listJson(Supplier<List<Product>> query) throws JsonProcessingException {
+        if (jsonCache == null) {
+            return JsonUtils.toJson(query.get(), outputMode);
+        }
+        return new String(encodeList(query, JsonUtils.WireFormat.JSON), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Monta o JSON de {@link ProductPage} com os fragmentos do cache
+     * @param query consulta com limit + 1 itens (ver {@link #toPage})
+     */
+    private String pageJson(Supplier<List<Product>> query, String scope, int limit) throws JsonProcessingException {
+        if (jsonCache == null) {
+            return JsonUtils.toJson(toPage(query.get(), scope, limit), outputMode);
+        }
+        long stamp = jsonCache.stamp();
+        ProductPage page = toPage(query.get(), scope, limit);
+        
+        ByteArrayOutputStream output = new ByteArrayOutputStream(page.getItems().size() * 128 + 48);
+        output.writeBytes(PAGE_ITEMS);
+        writeArray(output, page.getItems(), stamp);
+        output.writeBytes(PAGE_NEXT_CURSOR);
+        output.writeBytes(JsonUtils.toJsonBytes(page.getNextCursor()));
+        output.write('}');
+        return output.toString(StandardCharsets.UTF_8);
+    }
+    
+    private void writeArray(ByteArrayOutputStream output, List<Product> products, long stamp) throws JsonProcessingException {
+        output.write('[');
+        for (int i = 0; i < products.size(); i++) {
+            if (i > 0) {
+                output.write(',');
+            }
+            output.writeBytes(jsonCache.encode(products.get(i), stamp));
+        }
+        output.write(']');
+    }
+    
+    // === LISTAGENS DIRETAS DO BANCO ===
+    
+    /**
+     * Lista inteira em JSON compacto: escrita no gerador direto das linhas
+     * do banco, sem Product e sem passar pelo cache (o catálogo inteiro não
+     * caberia nele). Nos demais formatos, a consulta normal.
+     * @param scan varredura das linhas; deve devolver as mesmas linhas de {@code query}
+     * @param query consulta equivalente, para os outros formatos
+     */
+    private byte[] scanList(RowScan scan, Supplier<List<Product>> query,
+                            JsonUtils.WireFormat format) throws JsonProcessingException {
+        if (outputMode != JsonUtils.OutputMode.COMPACT || format != JsonUtils.WireFormat.JSON) {
+            return encodeList(query, format);
+        }
+        
+        ByteArrayOutputStream output = new ByteArrayOutputStream(8192);
+        try (JsonGenerator generator = JsonUtils.createGenerator(output)) {
+            generator.writeStartArray();
+            scan.into(ProductJsonModule.rowWriter(generator));
+            generator.writeEndArray();
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            // ByteArrayOutputStream não lança: só erros de geração, já tratados acima
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+    
+    private String scanListJson(RowScan scan, Supplier<List<Product>> query) throws JsonProcessingException {
+        if (outputMode != JsonUtils.OutputMode.COMPACT) {
+            return listJson(query);
+        }
+        return new String(scanList(scan, query, JsonUtils.WireFormat.JSON), StandardCharsets.UTF_8);
+    }
+    
+    // === IMPORTAÇÃO EM MASSA ===
+    
+    /**
+     * Importa produtos de um array JSON lido em streaming
+     * @param input InputStream com array JSON de produtos
+     * @return JSON com resumo da importação
+     * @throws IOException se erro de leitura ou JSON malformado
+     * @see #importProducts(InputStream, int)
+     */
+    public String importProducts(InputStream input) throws IOException {
+        return importProducts(input, DEFAULT_IMPORT_BATCH_SIZE);
+    }
+    
+    /**
+     * Importa produtos de um array JSON lido em streaming
+     * 
+     * O array é lido um elemento por vez e gravado em lotes de tamanho fixo,
+     * cada lote em uma transação, então a memória usada não depende do
+     * tamanho da entrada. Elementos inválidos são rejeitados com o motivo
+     * (os primeiros {@link ImportSummary#MAX_REPORTED_REJECTIONS} são
+     * detalhados); JSON malformado, inclusive conteúdo depois do array,
+     * interrompe a importação, mantendo os lotes já gravados.
+     * @param input InputStream com array JSON de produtos
+     * @param batchSize produtos por transação
+     * @return JSON com resumo da importação
+     * @throws IOException se erro de leitura ou JSON malformado
+     */
+    public String importProducts(InputStream input, int batchSize) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Tamanho do lote deve ser maior que zero");
+        }
+        
+        OperationEvent event = OperationEvents.json("importProducts");
+        long start = System.nanoTime();
+        ImportSummary summary = new ImportSummary();
+        List<ProductCreateDTO> batch = new ArrayList<>(batchSize);
+        long[] batchPositions = new long[batchSize];
+        long position = 0;
+        
+        try (JsonParser parser = JsonUtils.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Importação espera um array JSON de produtos");
+            }
+            
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new JsonParseException(parser, "Fim inesperado do array de produtos");
+                }
+                
+                // Leitura e validação do elemento na mesma passada, sem árvore
+                ProductPayloadParser.Result<ProductCreateDTO> parsed = ProductPayloadParser.parseCreate(parser);
+                if (parsed.isValid()) {
+                    batchPositions[batch.size()] = position;
+                    batch.add(parsed.getValue());
+                } else {
+                    summary.reject(position, parsed.getErrorMessage());
+                }
+                position++;
+                
+                if (batch.size() == batchSize) {
+                    flushImportBatch(batch, batchPositions, summary);
+                }
+            }
+            // Como o JsonValidator: nada depois do array (o último lote não é gravado)
+            if (parser.nextToken() != null) {
+                throw new JsonParseException(parser, "Conteúdo após o array de produtos");
+            }
+            flushImportBatch(batch, batchPositions, summary);
+        } finally {
+            summary.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        }
+        
+        event.finish(summary.inserted);
+        return JsonUtils.toJson(summary, outputMode);
+    }
+    
+    private void flushImportBatch(List<ProductCreateDTO> batch, long[] batchPositions, ImportSummary summary) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        List<String> rejections = productService.createProducts(batch);
+        for (int i = 0; i < rejections.size(); i++) {
+            if (rejections.get(i) == null) {
+                summary.inserted++;
+            } else {
+                summary.reject(batchPositions[i], rejections.get(i));
+            }
+        }
+        batch.clear();
+    }
+    
+    // === EXPORTAÇÃO EM MASSA ===
+    
+    /**
+     * Exporta o catálogo (ou parte dele) direto para um OutputStream
+     * 
+     * Cada linha do banco vai para o gerador assim que lida, sem montar
+     * Product: nem a lista completa nem o JSON completo ficam em memória.
+     * A leitura é um único instantâneo, mantido até o fim da escrita.
+     * O OutputStream não é fechado.
+     * @param output destino do JSON
+     * @param filterDTO filtros (pode ser null para exportar tudo)
+     * @param format array JSON ou NDJSON (um produto por linha)
+     * @return número de produtos exportados
+     * @throws IOException se erro na escrita
+     */
+    public long exportProducts(OutputStream output, ProductFilterDTO filterDTO, ExportFormat format) throws IOException {
+        OperationEvent event = OperationEvents.json("exportProducts");
+        long exported = 0;
+        
+        try (JsonGenerator generator = JsonUtils.createGenerator(output)) {
+            // Com erro no meio, a saída fica incompleta: o close não fecha o array
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            if (format == ExportFormat.JSON_ARRAY) {
+                generator.writeStartArray();
+            } else {
+                generator.setRootValueSeparator(null);
+            }
+            
+            ProductRowSink writer = ProductJsonModule.rowWriter(generator);
+            if (format == ExportFormat.NDJSON) {
+                exported = productService.scanProducts(filterDTO, (id, name, price, hasPrice, quantity, status) -> {
+                    writer.accept(id, name, price, hasPrice, quantity, status);
+                    generator.writeRaw('\n');
+                });
+            } else {
+                exported = productService.scanProducts(filterDTO, writer);
+            }
+            
+            if (format == ExportFormat.JSON_ARRAY) {
+                generator.writeEndArray();
+            }
+        }
+        
+        event.finish(null, filterDTO, exported);
+        return exported;
     }
     
     // === OPERAÇÕES DE BUSCA ===
     
     /**
      * Busca produtos com filtros
+     * 
+     * Com "fields" (ex: {"status": true, "fields": ["id", "price"]}) só
+     * essas colunas são lidas do banco e escritas em cada produto.
      * @param filterJson JSON com filtros
      * @return JSON array com produtos encontrados
      * @throws JsonProcessingException se JSON inválido
      */
     public String findProductsWithFilters(String filterJson) throws JsonProcessingException {
+        OperationEvent event = OperationEvents.json("findProductsWithFilters");
         ProductFilterDTO filterDTO = JsonUtils.fromJson(filterJson, ProductFilterDTO.class);
-        List<Product> products = productService.findProductsWithFilters(filterDTO);
-        return JsonUtils.toJsonPretty(products);
+        String json = filterDTO.hasFields()
+                ? JsonUtils.toJson(productService.findProductsProjected(filterDTO, null, Integer.MAX_VALUE), outputMode)
+                : listJson(() -> productService.findProductsWithFilters(filterDTO));
+        event.finish(null, filterDTO, -1);
+        return json;
     }
     
     /**
@@ -108,8 +688,19 @@ public class ProductJsonService {
      * @throws JsonProcessingException se erro na serialização
      */
     public String findProductsByName(String name) throws JsonProcessingException {
-        List<Product> products = productService.findProductsByName(name);
-        return JsonUtils.toJsonPretty(products);
+        return listJson(() -> productService.findProductsByName(name));
+    }
+    
+    /**
+     * Busca produtos por nome tolerando erros de digitação
+     * @param query nome digitado
+     * @param maxEdits edições toleradas por palavra
+     * @param limit número máximo de resultados
+     * @return JSON array com produtos, do mais próximo ao mais distante
+     * @throws JsonProcessingException se erro na serialização
+     */
+    public String findProductsByNameFuzzy(String query, int maxEdits, int limit) throws JsonProcessingException {
+        return listJson(() -> productService.findProductsByNameFuzzy(query, maxEdits, limit));
     }
     
     /**
@@ -119,8 +710,8 @@ public class ProductJsonService {
      * @throws JsonProcessingException se erro na serialização
      */
     public String findProductsByStatus(Boolean status) throws JsonProcessingException {
-        List<Product> products = productService.findProductsByStatus(status);
-        return JsonUtils.toJsonPretty(products);
+        return scanListJson(sink -> productService.scanProductsByStatus(status, sink),
+                () -> productService.findProductsByStatus(status));
     }
     
     /**
@@ -131,8 +722,108 @@ public class ProductJsonService {
      * @throws JsonProcessingException se erro na serialização
      */
     public String findProductsByPriceRange(Double minPrice, Double maxPrice) throws JsonProcessingException {
-        List<Product> products = productService.findProductsByPriceRange(minPrice, maxPrice);
-        return JsonUtils.toJsonPretty(products);
+        return listJson(() -> productService.findProductsByPriceRange(minPrice, maxPrice));
+    }
+    
+    // === PAGINAÇÃO POR CURSOR ===
+    
+    /**
+     * Lista produtos em páginas por ID
+     * @param cursor nextCursor da página anterior (null para a primeira)
+     * @param limit tamanho da página (1 a {@link #MAX_PAGE_SIZE})
+     * @return JSON {"items": [...], "nextCursor": "..."}; nextCursor é null na última página
+     * @throws JsonProcessingException se erro na serialização
+     * @throws IllegalArgumentException se o cursor é inválido ou de outra consulta
+     */
+    public String findAllProductsPage(String cursor, int limit) throws JsonProcessingException {
+        return findProductsPage(null, PageCursor.scope("all"), cursor, limit);
+    }
+    
+    /**
+     * Busca produtos com filtros em páginas por ID
+     * 
+     * Aceita "fields" como {@link #findProductsWithFilters(String)}
+     * @param filterJson JSON com filtros
+     * @param cursor nextCursor da página anterior (null para a primeira)
+     * @param limit tamanho da página (1 a {@link #MAX_PAGE_SIZE})
+     * @return JSON {"items": [...], "nextCursor": "..."}
+     * @throws JsonProcessingException se JSON inválido
+     * @throws IllegalArgumentException se o cursor é inválido ou de outros filtros
+     */
+    public String findProductsWithFiltersPage(String filterJson, String cursor, int limit) throws JsonProcessingException {
+        ProductFilterDTO filterDTO = JsonUtils.fromJson(filterJson, ProductFilterDTO.class);
+        String scope = PageCursor.scope("filter", filterDTO.getName(), filterDTO.getMinPrice(),
+                filterDTO.getMaxPrice(), filterDTO.getMinQuantity(), filterDTO.getMaxQuantity(),
+                filterDTO.getStatus());
+        return findProductsPage(filterDTO, scope, cursor, limit);
+    }
+    
+    /**
+     * Busca produtos por status em páginas por ID
+     * @param status status do produto (null para todos)
+     * @param cursor nextCursor da página anterior (null para a primeira)
+     * @param limit tamanho da página (1 a {@link #MAX_PAGE_SIZE})
+     * @return JSON {"items": [...], "nextCursor": "..."}
+     * @throws JsonProcessingException se erro na serialização
+     * @throws IllegalArgumentException se o cursor é inválido ou de outro status
+     */
+    public String findProductsByStatusPage(Boolean status, String cursor, int limit) throws JsonProcessingException {
+        String scope = PageCursor.scope("status", status);
+        Integer afterId = afterId(cursor, scope, limit);
+        return pageJson(() -> productService.findProductsByStatusPage(status, afterId, limit + 1), scope, limit);
+    }
+    
+    private String findProductsPage(ProductFilterDTO filterDTO, String scope, String cursor, int limit) 
+            throws JsonProcessingException {
+        Integer afterId = afterId(cursor, scope, limit);
+        if (filterDTO != null && filterDTO.hasFields()) {
+            ProductProjectionDTO fetched = productService.findProductsProjected(filterDTO, afterId, limit + 1);
+            ProductProjectionDTO items = fetched.limit(limit);
+            String nextCursor = fetched.size() > limit
+                    ? PageCursor.encode(scope, null, items.getId(limit - 1))
+                    : null;
+            return JsonUtils.toJson(new ProjectedPage(items, nextCursor), outputMode);
+        }
+        return pageJson(() -> productService.findProductsPage(filterDTO, afterId, limit + 1), scope, limit);
+    }
+    
+    private static Integer afterId(String cursor, String scope, int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
+        PageCursor decoded = PageCursor.decode(cursor, scope);
+        return decoded != null ? decoded.getLastId() : null;
+    }
+    
+    /**
+     * Monta a página a partir de uma consulta com limit + 1 itens: o item
+     * excedente só indica que existe próxima página e não é devolvido
+     */
+    private static ProductPage toPage(List<Product> fetched, String scope, int limit) {
+        if (fetched.size() <= limit) {
+            return new ProductPage(fetched, null);
+        }
+        
+        List<Product> items = fetched.subList(0, limit);
+        Product last = items.get(limit - 1);
+        return new ProductPage(items, PageCursor.encode(scope, null, last.getId()));
+    }
+    
+    // === SINCRONIZAÇÃO INCREMENTAL ===
+    
+    /**
+     * Alterações desde a sequência informada
+     * @param afterSeq lastSeq da chamada anterior (0 na primeira sincronização)
+     * @param limit número máximo de alterações
+     * @return JSON {"changes": [{"seq", "op": "upsert"|"delete", "id", "product"}], "lastSeq", "hasMore"}
+     * @throws JsonProcessingException se erro na serialização
+     */
+    public String findChangesSince(long afterSeq, int limit) throws JsonProcessingException {
+        OperationEvent event = OperationEvents.json("findChangesSince");
+        ProductChangesDTO changes = productService.findChangesSince(afterSeq, limit);
+        String json = JsonUtils.toJson(changes, outputMode);
+        event.finish(changes.getChanges().size());
+        return json;
     }
     
     // === OPERAÇÕES DE NEGÓCIO ===
@@ -145,7 +836,7 @@ public class ProductJsonService {
      */
     public String activateProduct(Integer id) throws JsonProcessingException {
         Product product = productService.activateProduct(id);
-        return JsonUtils.toJsonPretty(product);
+        return JsonUtils.toJson(product, outputMode);
     }
     
     /**
@@ -156,7 +847,7 @@ public class ProductJsonService {
      */
     public String deactivateProduct(Integer id) throws JsonProcessingException {
         Product product = productService.deactivateProduct(id);
-        return JsonUtils.toJsonPretty(product);
+        return JsonUtils.toJson(product, outputMode);
     }
     
     /**
@@ -168,7 +859,7 @@ public class ProductJsonService {
      */
     public String updateProductPrice(Integer id, Double newPrice) throws JsonProcessingException {
         Product product = productService.updateProductPrice(id, newPrice);
-        return JsonUtils.toJsonPretty(product);
+        return JsonUtils.toJson(product, outputMode);
     }
     
     /**
@@ -179,12 +870,211 @@ public class ProductJsonService {
      * @throws JsonProcessingException se erro na serialização
      */
     public String applyDiscount(String filterJson, Double discountPercentage) throws JsonProcessingException {
+        OperationEvent event = OperationEvents.json("applyDiscount");
         ProductFilterDTO filterDTO = JsonUtils.fromJson(filterJson, ProductFilterDTO.class);
         int affectedProducts = productService.applyDiscount(filterDTO, discountPercentage);
         
         OperationResult result = new OperationResult(true, 
             "Desconto aplicado a " + affectedProducts + " produtos", null);
-        return JsonUtils.toJsonPretty(result);
+        String json = JsonUtils.toJson(result, outputMode);
+        event.finish(null, filterDTO, affectedProducts);
+        return json;
+    }
+    
+    // === LOTE DE COMANDOS ===
+    
+    /**
+     * Executa um lote de comandos em uma única transação, no modo tudo ou nada
+     * @param commandsJson array JSON de comandos
+     * @return JSON com o resultado de cada comando
+     * @throws JsonProcessingException se o documento não é um array JSON válido
+     * @see #executeBatch(String, ProductBatchResult.Mode)
+     */
+    public String executeBatch(String commandsJson) throws JsonProcessingException {
+        return executeBatch(commandsJson, ProductBatchResult.Mode.ALL_OR_NOTHING);
+    }
+    
+    /**
+     * Executa um lote de comandos em uma única transação
+     * 
+     * Cada elemento do array tem "op" (create, update, delete, activate,
+     * deactivate, price ou adjust) e os campos da operação: "id", "product"
+     * (create e update), "price" (price) e "delta" (adjust). Ex:
+     * [{"op": "create", "product": {"name": "Caneta", "price": 2.5}},
+     *  {"op": "adjust", "id": 7, "delta": -3}]
+     * 
+     * As alterações vão ao banco em lotes JDBC no commit e os eventos só
+     * são publicados se o lote é confirmado. Comandos malformados falham
+     * sem chegar ao service; em ALL_OR_NOTHING nenhum comando é executado.
+     * @param commandsJson array JSON de comandos
+     * @param mode tratamento de falhas
+     * @return JSON com "committed" e um resultado por comando, na ordem recebida
+     * @throws JsonProcessingException se o documento não é um array JSON válido
+     */
+    public String executeBatch(String commandsJson, ProductBatchResult.Mode mode) throws JsonProcessingException {
+        if (mode == null) {
+            throw new IllegalArgumentException("Modo do lote não pode ser nulo");
+        }
+        
+        List<ParsedCommand> parsed = new ArrayList<>();
+        List<ProductCommand> valid = new ArrayList<>();
+        try (JsonParser parser = JsonUtils.createParser(commandsJson)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Lote espera um array JSON de comandos");
+            }
+            
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new JsonParseException(parser, "Fim inesperado do array de comandos");
+                }
+                ParsedCommand command = readCommand(parser);
+                parsed.add(command);
+                if (command.command != null) {
+                    valid.add(command.command);
+                }
+            }
+            if (parser.nextToken() != null) {
+                throw new JsonParseException(parser, "Conteúdo após o array JSON");
+            }
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro de leitura em memória", e);
+        }
+        
+        boolean hasInvalid = valid.size() < parsed.size();
+        ProductBatchResult executed = null;
+        if (!hasInvalid || mode == ProductBatchResult.Mode.BEST_EFFORT) {
+            executed = productService.executeBatch(valid, mode);
+        }
+        
+        // Recoloca os resultados do service nas posições originais
+        List<ProductCommandResult> results = new ArrayList<>(parsed.size());
+        int next = 0;
+        for (int i = 0; i < parsed.size(); i++) {
+            ParsedCommand command = parsed.get(i);
+            if (command.command == null) {
+                results.add(ProductCommandResult.failure(i, command.type, command.error));
+            } else if (executed != null) {
+                results.add(executed.getResults().get(next++).withIndex(i));
+            } else {
+                results.add(ProductCommandResult.failure(i, command.type, "Lote não executado: há comandos inválidos"));
+            }
+        }
+        
+        boolean committed = executed != null && executed.isCommitted();
+        return JsonUtils.toJson(new ProductBatchResult(mode, committed, results), outputMode);
+    }
+    
+    /**
+     * Lê um comando do lote com o parser no início do elemento
+     * 
+     * O objeto "product" pode vir antes de "op": é guardado em um
+     * TokenBuffer e lido depois, já sabendo se é criação ou atualização.
+     */
+    private static ParsedCommand readCommand(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return ParsedCommand.invalid(null, "Comando deve ser um objeto JSON");
+        }
+        
+        String op = null;
+        Integer id = null;
+        Double price = null;
+        Integer delta = null;
+        TokenBuffer product = null;
+        String error = null;
+        
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "op" -> op = token == JsonToken.VALUE_STRING ? parser.getText() : null;
+                case "id" -> {
+                    id = intValue(parser, token);
+                    if (id == null && token != JsonToken.VALUE_NULL) {
+                        error = "Campo 'id' deve ser número inteiro";
+                    }
+                }
+                case "delta" -> {
+                    delta = intValue(parser, token);
+                    if (delta == null && token != JsonToken.VALUE_NULL) {
+                        error = "Campo 'delta' deve ser número inteiro";
+                    }
+                }
+                case "price" -> {
+                    if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                        price = parser.getDoubleValue();
+                    } else if (token != JsonToken.VALUE_NULL) {
+                        error = "Campo 'price' deve ser número";
+                    }
+                }
+                case "product" -> {
+                    product = new TokenBuffer(parser);
+                    product.copyCurrentStructure(parser);
+                }
+                default -> { }
+            }
+            parser.skipChildren();
+        }
+        
+        ProductCommand.Type type = ProductCommand.Type.fromCode(op);
+        if (type == null) {
+            return ParsedCommand.invalid(null, op == null ? "Campo 'op' é obrigatório" : "Operação desconhecida: " + op);
+        }
+        if (error != null) {
+            return ParsedCommand.invalid(type, error);
+        }
+        if (type != ProductCommand.Type.CREATE && id == null) {
+            return ParsedCommand.invalid(type, "Campo 'id' é obrigatório");
+        }
+        
+        switch (type) {
+            case CREATE, UPDATE -> {
+                if (product == null) {
+                    return ParsedCommand.invalid(type, "Campo 'product' é obrigatório");
+                }
+                try (JsonParser productParser = product.asParser()) {
+                    if (type == ProductCommand.Type.CREATE) {
+                        ProductPayloadParser.Result<ProductCreateDTO> create = ProductPayloadParser.parseCreate(productParser);
+                        return create.isValid()
+                                ? ParsedCommand.valid(ProductCommand.create(create.getValue()))
+                                : ParsedCommand.invalid(type, create.getErrorMessage());
+                    }
+                    ProductPayloadParser.Result<ProductUpdateDTO> update = ProductPayloadParser.parseUpdate(productParser);
+                    return update.isValid()
+                            ? ParsedCommand.valid(ProductCommand.update(id, update.getValue()))
+                            : ParsedCommand.invalid(type, update.getErrorMessage());
+                }
+            }
+            case PRICE -> {
+                return price != null
+                        ? ParsedCommand.valid(ProductCommand.price(id, price))
+                        : ParsedCommand.invalid(type, "Campo 'price' é obrigatório");
+            }
+            case ADJUST -> {
+                return delta != null
+                        ? ParsedCommand.valid(ProductCommand.adjust(id, delta))
+                        : ParsedCommand.invalid(type, "Campo 'delta' é obrigatório");
+            }
+            case DELETE -> {
+                return ParsedCommand.valid(ProductCommand.delete(id));
+            }
+            case ACTIVATE -> {
+                return ParsedCommand.valid(ProductCommand.activate(id));
+            }
+            default -> {
+                return ParsedCommand.valid(ProductCommand.deactivate(id));
+            }
+        }
+    }
+    
+    private static Integer intValue(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT) {
+            return parser.getIntValue();
+        }
+        return null;
     }
     
     // === ESTATÍSTICAS ===
@@ -195,24 +1085,193 @@ public class ProductJsonService {
      * @throws JsonProcessingException se erro na serialização
      */
     public String getStatistics() throws JsonProcessingException {
-        long totalProducts = productService.countProducts();
-        long activeProducts = productService.countActiveProducts();
-        long inactiveProducts = productService.countInactiveProducts();
-        Double totalValue = productService.calculateTotalStockValue();
-        
-        Optional<Product> mostExpensive = productService.findMostExpensiveProduct();
-        Optional<Product> cheapest = productService.findCheapestProduct();
+        OperationEvent event = OperationEvents.json("getStatistics");
+        ProductStatisticsDTO snapshot = productService.getStatistics();
         
         ProductStatistics stats = new ProductStatistics(
-            totalProducts, activeProducts, inactiveProducts, totalValue,
-            mostExpensive.orElse(null), cheapest.orElse(null)
+            snapshot.getTotalProducts(), snapshot.getActiveProducts(), snapshot.getInactiveProducts(),
+            snapshot.getTotalStockValue(), snapshot.getMostExpensiveProduct(), snapshot.getCheapestProduct()
         );
         
-        return JsonUtils.toJsonPretty(stats);
+        String json = JsonUtils.toJson(stats, outputMode);
+        event.finish(-1);
+        return json;
+    }
+    
+    // === MÉTRICAS ===
+    
+    /**
+     * Chamadas, erros e latências (p50/p99/p999) por método do repositório e
+     * do service, para os instrumentados com {@link MethodMetrics#instrument}
+     * @return JSON array, um item por método já chamado
+     * @throws JsonProcessingException se erro na serialização
+     */
+    public String getMethodMetrics() throws JsonProcessingException {
+        return JsonUtils.toJson(MethodMetrics.getDefault().snapshot(), outputMode);
+    }
+    
+    /**
+     * Contadores do Hibernate por consulta JPQL (execuções, média, máximo),
+     * cargas de entidades, flushes e comandos SQL lentos
+     * 
+     * Só coletados com {@link PersistenceStatistics#PROPERTY} ligada; sem ela
+     * o JSON traz apenas {"enabled": false, ...}.
+     * @return JSON com as estatísticas de persistência
+     * @throws JsonProcessingException se erro na serialização
+     */
+    public String getPersistenceStatistics() throws JsonProcessingException {
+        return JsonUtils.toJson(productService.getPersistenceStatistics(), outputMode);
     }
     
     // === CLASSES AUXILIARES ===
     
+    /**
+     * Varredura de linhas para as listagens diretas do banco
+     */
+    @FunctionalInterface
+    private interface RowScan {
+        long into(ProductRowSink sink) throws IOException;
+    }
+    
+    /**
+     * Formatos de exportação em streaming
+     */
+    public enum ExportFormat {
+        /** Um único array JSON */
+        JSON_ARRAY,
+        /** Newline-delimited JSON: um produto por linha */
+        NDJSON
+    }
+    
+    /**
+     * Página de produtos com o cursor da próxima página
+     */
+    @JsonPropertyOrder({"items", "nextCursor"})
+    public static class ProductPage {
+        private final List<Product> items;
+        private final String nextCursor;
+        
+        public ProductPage(List<Product> items, String nextCursor) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+        }
+        
+        public List<Product> getItems() { return items; }
+        
+        /** null na última página; sempre presente no JSON */
+        @JsonInclude(JsonInclude.Include.ALWAYS)
+        public String getNextCursor() { return nextCursor; }
+    }
+    
+    /**
+     * Página de produtos projetados, no mesmo formato de {@link ProductPage}
+     */
+    @JsonPropertyOrder({"items", "nextCursor"})
+    public static class ProjectedPage {
+        private final ProductProjectionDTO items;
+        private final String nextCursor;
+        
+        public ProjectedPage(ProductProjectionDTO items, String nextCursor) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+        }
+        
+        public ProductProjectionDTO getItems() { return items; }
+        
+        /** null na última página; sempre presente no JSON */
+        @JsonInclude(JsonInclude.Include.ALWAYS)
+        public String getNextCursor() { return nextCursor; }
+    }
+    
+    /**
+     * Resposta de uma leitura condicional: a versão atual e, se mudou, o JSON
+     */
+    public static final class VersionedJson {
+        private final String version;
+        private final boolean modified;
+        private final String json;
+        
+        private VersionedJson(String version, boolean modified, String json) {
+            this.version = version;
+            this.modified = modified;
+            this.json = json;
+        }
+        
+        static VersionedJson modified(String version, String json) {
+            return new VersionedJson(version, true, json);
+        }
+        
+        static VersionedJson notModified(String version) {
+            return new VersionedJson(version, false, null);
+        }
+        
+        /** Versão a enviar na próxima leitura condicional */
+        public String getVersion() { return version; }
+        
+        /** false: o cliente já tem os dados desta versão */
+        public boolean isModified() { return modified; }
+        
+        /** JSON da resposta; null se não modificado (ou produto não encontrado) */
+        public String getJson() { return json; }
+    }
+    
+    /**
+     * Resultado de criação/atualização com erros estruturados
+     */
+    @JsonPropertyOrder({"success", "product", "errors"})
+    public static class ValidationResult {
+        private final boolean success;
+        private final Product product;
+        private final List<ValidationError> errors;
+        
+        private ValidationResult(boolean success, Product product, List<ValidationError> errors) {
+            this.success = success;
+            this.product = product;
+            this.errors = errors;
+        }
+        
+        static ValidationResult success(Product product) {
+            return new ValidationResult(true, product, List.of());
+        }
+        
+        static ValidationResult failure(List<ValidationError> errors) {
+            return new ValidationResult(false, null, errors);
+        }
+        
+        static ValidationResult failure(ValidationError.Code code, String message) {
+            return failure(List.of(new ValidationError(null, code, message)));
+        }
+        
+        public boolean isSuccess() { return success; }
+        
+        public Product getProduct() { return product; }
+        
+        public List<ValidationError> getErrors() { return errors; }
+    }
+    
+    /**
+     * Comando lido do lote: o comando montado ou o motivo da recusa
+     */
+    private static class ParsedCommand {
+        private final ProductCommand.Type type;
+        private final ProductCommand command;
+        private final String error;
+        
+        private ParsedCommand(ProductCommand.Type type, ProductCommand command, String error) {
+            this.type = type;
+            this.command = command;
+            this.error = error;
+        }
+        
+        static ParsedCommand valid(ProductCommand command) {
+            return new ParsedCommand(command.getType(), command, null);
+        }
+        
+        static ParsedCommand invalid(ProductCommand.Type type, String error) {
+            return new ParsedCommand(type, null, error);
+        }
+    }
+    
     /**
      * Classe para resultado de operações
      */
@@ -240,6 +1299,58 @@ public class ProductJsonService {
         public void setId(Integer id) { this.id = id; }
     }
     
+    /**
+     * Resumo de uma importação em massa
+     */
+    @JsonPropertyOrder({"inserted", "rejected", "elapsedMillis", "rejections", "rejectionsTruncated"})
+    public static class ImportSummary {
+        
+        /** Rejeições detalhadas no resumo; as demais são apenas contadas */
+        public static final int MAX_REPORTED_REJECTIONS = 1000;
+        
+        private long inserted;
+        private long rejected;
+        private long elapsedMillis;
+        private final List<ImportRejection> rejections = new ArrayList<>();
+        
+        void reject(long position, String reason) {
+            rejected++;
+            if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                rejections.add(new ImportRejection(position, reason));
+            }
+        }
+        
+        // Getters e Setters
+        public long getInserted() { return inserted; }
+        
+        public long getRejected() { return rejected; }
+        
+        public long getElapsedMillis() { return elapsedMillis; }
+        public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+        
+        public List<ImportRejection> getRejections() { return rejections; }
+        
+        public boolean isRejectionsTruncated() { return rejected > rejections.size(); }
+    }
+    
+    /**
+     * Item rejeitado na importação
+     */
+    public static class ImportRejection {
+        private final long position;
+        private final String reason;
+        
+        public ImportRejection(long position, String reason) {
+            this.position = position;
+            this.reason = reason;
+        }
+        
+        /** Posição do elemento no array de entrada (começando em 0) */
+        public long getPosition() { return position; }
+        
+        public String getReason() { return reason; }
+    }
+    
     /**
      * Classe para estatísticas de produtos
      */
@@ -0,0 +1,262 @@
+package com.ejsjose.services;
+
+import com.ejsjose.entities.Product;
+import com.ejsjose.utils.BKTree;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de nomes de produtos para busca tolerante a erros de digitação
+ *
+ * Os nomes são normalizados (minúsculas, sem acentos, apenas letras e
+ * dígitos) e quebrados em termos; cada termo distinto entra em um
+ * {@link BKTree} apontando para os IDs dos produtos que o contêm.
+ *
+ * Remoções e renomeações não mexem na árvore: o produto sai do mapa e
+ * os termos antigos passam a ser ignorados na busca. Quando os termos
+ * obsoletos ficam numerosos a árvore é reconstruída.
+ */
+public class ProductNameIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, IndexedProduct> products = new HashMap<>();
+    private BKTree<Integer> tree = new BKTree<>();
+    private int staleTerms;
+
+    /**
+     * Reconstrói o índice a partir de uma varredura completa
+     * @param all todos os produtos
+     */
+    public void rebuild(Iterable<Product> all) {
+        lock.writeLock().lock();
+        try {
+            products.clear();
+            tree = new BKTree<>();
+            staleTerms = 0;
+            for (Product product : all) {
+                addUnlocked(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Insere ou atualiza um produto no índice
+     * @param product produto salvo
+     */
+    public void put(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(product.getId());
+            addUnlocked(product);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove um produto do índice
+     * @param id ID do produto removido
+     */
+    public void remove(Integer id) {
+        if (id == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove todos os produtos do índice
+     */
+    public void clear() {
+        rebuild(List.of());
+    }
+
+    /**
+     * Busca produtos cujo nome contém, para cada termo da consulta, um termo
+     * a no máximo {@code maxEdits} edições dele
+     *
+     * Termos curtos toleram menos edições ({@code (tamanho - 1) / 2}) para
+     * que "tv" não case com qualquer palavra de duas letras. O ranking é pela soma das
+     * distâncias dos termos da consulta (menor primeiro) e, em caso de
+     * empate, pelo ID.
+     *
+     * @param query texto digitado pelo usuário
+     * @param maxEdits edições toleradas por termo
+     * @param limit número máximo de resultados
+     * @return produtos encontrados, do mais próximo ao mais distante
+     */
+    public List<Product> search(String query, int maxEdits, int limit) {
+        List<String> queryTerms = new ArrayList<>(terms(query));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> scores = null;
+
+            for (String queryTerm : queryTerms) {
+                Map<Integer, Integer> termScores = new HashMap<>();
+                int termEdits = Math.min(maxEdits, (queryTerm.length() - 1) / 2);
+                for (BKTree.Match<Integer> match : tree.search(queryTerm, termEdits)) {
+                    for (Integer id : match.getValues()) {
+                        IndexedProduct indexed = products.get(id);
+                        if (indexed == null || !indexed.terms.contains(match.getTerm())) {
+                            continue; // termo obsoleto
+                        }
+                        termScores.merge(id, match.getDistance(), Math::min);
+                    }
+                }
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Integer, Integer> combined = new HashMap<>();
+                    for (Map.Entry<Integer, Integer> entry : scores.entrySet()) {
+                        Integer termScore = termScores.get(entry.getKey());
+                        if (termScore != null) {
+                            combined.put(entry.getKey(), entry.getValue() + termScore);
+                        }
+                    }
+                    scores = combined;
+                }
+
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Integer>comparingByValue()
+                            .thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())))
+                    .limit(limit)
+                    .map(entry -> new Product(products.get(entry.getKey()).product))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Número de produtos indexados
+     * @return quantidade de produtos
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normaliza um nome: remove acentos, passa para minúsculas e troca
+     * qualquer caractere que não seja letra ou dígito por espaço
+     * @param text texto original
+     * @return texto normalizado
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+
+        return normalized.toString();
+    }
+
+    private static Set<String> terms(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return Set.of();
+        }
+        return new LinkedHashSet<>(List.of(normalized.split(" ")));
+    }
+
+    private void addUnlocked(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+
+        Set<String> productTerms = terms(product.getName());
+        products.put(product.getId(), new IndexedProduct(new Product(product), productTerms));
+        for (String term : productTerms) {
+            tree.add(term, product.getId());
+        }
+    }
+
+    private void removeUnlocked(Integer id) {
+        IndexedProduct removed = products.remove(id);
+        if (removed != null) {
+            staleTerms += removed.terms.size();
+        }
+    }
+
+    private void compactIfNeeded() {
+        // Reconstrói quando os termos obsoletos passam de metade da árvore
+        if (staleTerms > 64 && staleTerms > tree.size() / 2) {
+            List<Product> current = new ArrayList<>(products.size());
+            for (IndexedProduct indexed : products.values()) {
+                current.add(indexed.product);
+            }
+            products.clear();
+            tree = new BKTree<>();
+            staleTerms = 0;
+            for (Product product : current) {
+                addUnlocked(product);
+            }
+        }
+    }
+
+    private static class IndexedProduct {
+        private final Product product;
+        private final Set<String> terms;
+
+        private IndexedProduct(Product product, Set<String> terms) {
+            this.product = product;
+            this.terms = terms;
+        }
+    }
+}
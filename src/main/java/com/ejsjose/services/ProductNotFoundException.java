@@ -0,0 +1,26 @@
+package com.ejsjose.services;
+
+/**
+ * Produto inexistente para o ID informado
+ *
+ * Subclasse de {@link IllegalArgumentException}, que o serviço já usa
+ * para dados rejeitados: quem trata os dois casos igual não muda, e quem
+ * precisa distinguir (a API HTTP responde 404) captura esta antes.
+ */
+public class ProductNotFoundException extends IllegalArgumentException {
+
+    private final Integer id;
+
+    public ProductNotFoundException(Integer id) {
+        super("Produto com ID " + id + " não encontrado");
+        this.id = id;
+    }
+
+    /**
+     * ID procurado
+     * @return ID do produto
+     */
+    public Integer getId() {
+        return id;
+    }
+}
@@ -0,0 +1,368 @@
+package com.ejsjose.services;
+
+import com.ejsjose.services.dto.ProductCreateDTO;
+import com.ejsjose.services.dto.ProductUpdateDTO;
+import com.ejsjose.services.dto.ValidationError;
+import com.ejsjose.utils.JsonUtils;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Leitura e validação de payloads de produto em uma única passada
+ *
+ * Os campos são validados pelas {@link ProductRules} à medida que os
+ * tokens são lidos, sem montar o DTO antes e validar depois. Valores de
+ * tipo errado e regras violadas viram {@link ValidationError} na lista
+ * do resultado; só JSON malformado lança exceção (do próprio parser).
+ * Campos desconhecidos são ignorados.
+ *
+ * Como no Jackson, números entre aspas são aceitos ("12.5") e quantidades
+ * com casa decimal zerada (3.0) também.
+ */
+public final class ProductPayloadParser {
+
+    private ProductPayloadParser() {}
+
+    /**
+     * Resultado da leitura: o DTO (quando não há erros) e a lista de erros
+     */
+    public static final class Result<T> {
+        private final T value;
+        private final List<ValidationError> errors;
+
+        private Result(T value, List<ValidationError> errors) {
+            this.value = value;
+            this.errors = errors;
+        }
+
+        /**
+         * DTO lido
+         * @return DTO, ou null se há erros
+         */
+        public T getValue() {
+            return value;
+        }
+
+        public List<ValidationError> getErrors() {
+            return errors;
+        }
+
+        public boolean isValid() {
+            return errors.isEmpty();
+        }
+
+        /**
+         * Mensagens dos erros em uma linha
+         * @return mensagens separadas por "; "
+         */
+        public String getErrorMessage() {
+            StringBuilder message = new StringBuilder();
+            for (ValidationError error : errors) {
+                if (message.length() > 0) {
+                    message.append("; ");
+                }
+                message.append(error.getMessage());
+            }
+            return message.toString();
+        }
+    }
+
+    // === CRIAÇÃO ===
+
+    /**
+     * Lê e valida payload de criação
+     * @param json documento JSON
+     * @return DTO validado ou lista de erros
+     * @throws JsonProcessingException se o JSON é malformado ou excede os limites
+     */
+    public static Result<ProductCreateDTO> parseCreate(String json) throws JsonProcessingException {
+        try (JsonParser parser = JsonUtils.createParser(json)) {
+            Result<ProductCreateDTO> result = parseCreate(parser);
+            requireEndOfInput(parser);
+            return result;
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro de leitura em memória", e);
+        }
+    }
+
+    /**
+     * Lê e valida um objeto de criação a partir da posição atual do parser
+     *
+     * Usado na importação em streaming: o parser deve estar no START_OBJECT
+     * (ou antes dele) e termina no END_OBJECT correspondente.
+     * @param parser parser posicionado no objeto
+     * @return DTO validado ou lista de erros
+     * @throws IOException se o JSON é malformado
+     */
+    public static Result<ProductCreateDTO> parseCreate(JsonParser parser) throws IOException {
+        Fields fields = new Fields();
+        List<ValidationError> errors = new ArrayList<>(2);
+        if (!readObject(parser, fields, errors)) {
+            return new Result<>(null, errors);
+        }
+
+        // Regras que dependem da ausência do campo
+        if (!fields.hasName) {
+            add(errors, ProductRules.checkName(null));
+        }
+        if (!fields.hasPrice) {
+            add(errors, ProductRules.checkPrice(null));
+        }
+        if (!errors.isEmpty()) {
+            return new Result<>(null, errors);
+        }
+
+        return new Result<>(new ProductCreateDTO(fields.name, fields.price, fields.quantity, fields.status),
+                Collections.emptyList());
+    }
+
+    // === ATUALIZAÇÃO ===
+
+    /**
+     * Lê e valida payload de atualização parcial
+     * @param json documento JSON
+     * @return DTO validado ou lista de erros
+     * @throws JsonProcessingException se o JSON é malformado ou excede os limites
+     */
+    public static Result<ProductUpdateDTO> parseUpdate(String json) throws JsonProcessingException {
+        try (JsonParser parser = JsonUtils.createParser(json)) {
+            Result<ProductUpdateDTO> result = parseUpdate(parser);
+            requireEndOfInput(parser);
+            return result;
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro de leitura em memória", e);
+        }
+    }
+
+    /**
+     * Lê e valida um objeto de atualização a partir da posição atual do parser
+     * @param parser parser posicionado no objeto (ou antes dele)
+     * @return DTO validado ou lista de erros
+     * @throws IOException se o JSON é malformado
+     */
+    public static Result<ProductUpdateDTO> parseUpdate(JsonParser parser) throws IOException {
+        Fields fields = new Fields();
+        List<ValidationError> errors = new ArrayList<>(2);
+        if (!readObject(parser, fields, errors) || !errors.isEmpty()) {
+            return new Result<>(null, errors);
+        }
+
+        ProductUpdateDTO updateDTO = new ProductUpdateDTO(fields.name, fields.price, fields.quantity, fields.status);
+        if (!updateDTO.hasAnyField()) {
+            errors.add(new ValidationError(null, ValidationError.Code.REQUIRED,
+                    "Pelo menos um campo deve ser fornecido para atualização"));
+            return new Result<>(null, errors);
+        }
+        return new Result<>(updateDTO, Collections.emptyList());
+    }
+
+    // === LEITURA DOS CAMPOS ===
+
+    /** Valores lidos e quais campos apareceram */
+    private static final class Fields {
+        private String name;
+        private Double price;
+        private Integer quantity;
+        private Boolean status;
+        private boolean hasName;
+        private boolean hasPrice;
+    }
+
+    /**
+     * Percorre o objeto validando cada campo conhecido
+     * @return false se o valor não é um objeto (erro já registrado)
+     */
+    private static boolean readObject(JsonParser parser, Fields fields, List<ValidationError> errors) throws IOException {
+        JsonToken token = parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            errors.add(new ValidationError(null, ValidationError.Code.INVALID_TYPE, "Produto deve ser um objeto JSON"));
+            parser.skipChildren();
+            return false;
+        }
+
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            token = parser.nextToken();
+            switch (field) {
+                case "name" -> {
+                    fields.hasName = true;
+                    fields.name = readText(parser, token, field, errors);
+                    if (fields.name != null) {
+                        add(errors, ProductRules.checkName(fields.name));
+                    }
+                }
+                case "price" -> {
+                    fields.hasPrice = true;
+                    fields.price = readDouble(parser, token, field, errors);
+                    if (fields.price != null) {
+                        add(errors, ProductRules.checkPrice(fields.price));
+                    }
+                }
+                case "quantity" -> {
+                    fields.quantity = readInteger(parser, token, field, errors);
+                    if (fields.quantity != null) {
+                        add(errors, ProductRules.checkQuantity(fields.quantity));
+                    }
+                }
+                case "status" -> fields.status = readBoolean(parser, token, field, errors);
+                default -> parser.skipChildren();
+            }
+        }
+        return true;
+    }
+
+    private static String readText(JsonParser parser, JsonToken token, String field,
+                                   List<ValidationError> errors) throws IOException {
+        if (token == JsonToken.VALUE_STRING || token == JsonToken.VALUE_NUMBER_INT
+                || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getText();
+        }
+        if (token != JsonToken.VALUE_NULL) {
+            invalidType(parser, field, "texto", errors);
+        }
+        return null;
+    }
+
+    private static Double readDouble(JsonParser parser, JsonToken token, String field,
+                                     List<ValidationError> errors) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            if (isDecimal(text)) {
+                return Double.parseDouble(text);
+            }
+        }
+        if (token != JsonToken.VALUE_NULL) {
+            invalidType(parser, field, "número", errors);
+        }
+        return null;
+    }
+
+    private static Integer readInteger(JsonParser parser, JsonToken token, String field,
+                                       List<ValidationError> errors) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            if (parser.getNumberType() == JsonParser.NumberType.INT) {
+                return parser.getIntValue();
+            }
+            // Não cabe em int: fora da faixa para um lado ou para o outro
+            add(errors, ProductRules.checkQuantity(parser.getText().startsWith("-") ? -1 : Integer.MAX_VALUE));
+            return null;
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            if (isDecimal(text)) {
+                double value = Double.parseDouble(text);
+                if (value == Math.rint(value) && Math.abs(value) <= Integer.MAX_VALUE) {
+                    return (int) value;
+                }
+            }
+        }
+        if (token != JsonToken.VALUE_NULL) {
+            invalidType(parser, field, "número inteiro", errors);
+        }
+        return null;
+    }
+
+    private static Boolean readBoolean(JsonParser parser, JsonToken token, String field,
+                                       List<ValidationError> errors) throws IOException {
+        if (token == JsonToken.VALUE_TRUE) {
+            return Boolean.TRUE;
+        }
+        if (token == JsonToken.VALUE_FALSE) {
+            return Boolean.FALSE;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            if (text.equalsIgnoreCase("true")) {
+                return Boolean.TRUE;
+            }
+            if (text.equalsIgnoreCase("false")) {
+                return Boolean.FALSE;
+            }
+        }
+        if (token != JsonToken.VALUE_NULL) {
+            invalidType(parser, field, "booleano", errors);
+        }
+        return null;
+    }
+
+    private static void invalidType(JsonParser parser, String field, String expected,
+                                    List<ValidationError> errors) throws IOException {
+        errors.add(new ValidationError(field, ValidationError.Code.INVALID_TYPE,
+                "Campo '" + field + "' deve ser " + expected));
+        parser.skipChildren();
+    }
+
+    /**
+     * Confere o formato de número decimal antes de converter, para que
+     * texto inválido não custe uma NumberFormatException
+     */
+    private static boolean isDecimal(String text) {
+        int length = text.length();
+        int i = 0;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            i++;
+        }
+
+        int digits = 0;
+        while (i < length && isAsciiDigit(text.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < length && text.charAt(i) == '.') {
+            i++;
+            while (i < length && isAsciiDigit(text.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+
+        if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < length && isAsciiDigit(text.charAt(i))) {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static void requireEndOfInput(JsonParser parser) throws IOException {
+        if (parser.nextToken() != null) {
+            throw new JsonParseException(parser, "Conteúdo após o objeto JSON");
+        }
+    }
+
+    private static void add(List<ValidationError> errors, ValidationError error) {
+        if (error != null) {
+            errors.add(error);
+        }
+    }
+}
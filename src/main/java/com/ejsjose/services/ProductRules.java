@@ -0,0 +1,69 @@
+package com.ejsjose.services;
+
+import com.ejsjose.services.dto.ValidationError;
+
+/**
+ * Regras de validação dos campos de produto
+ *
+ * Fonte única das regras usadas pelo {@link ProductService} (que lança
+ * IllegalArgumentException com a mensagem) e pelo
+ * {@link ProductPayloadParser} (que acumula os erros em lista). Cada
+ * verificação devolve null quando o valor é válido.
+ */
+public final class ProductRules {
+
+    public static final int MAX_NAME_LENGTH = 255;
+    public static final double MAX_PRICE = 999999.99;
+    public static final int MAX_QUANTITY = 999999;
+
+    private ProductRules() {}
+
+    /**
+     * Nome obrigatório, com até {@link #MAX_NAME_LENGTH} caracteres após o trim
+     * @param name nome informado
+     * @return erro ou null
+     */
+    public static ValidationError checkName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return new ValidationError("name", ValidationError.Code.REQUIRED, "Nome do produto é obrigatório");
+        }
+        if (name.trim().length() > MAX_NAME_LENGTH) {
+            return new ValidationError("name", ValidationError.Code.TOO_LONG,
+                    "Nome do produto deve ter no máximo " + MAX_NAME_LENGTH + " caracteres");
+        }
+        return null;
+    }
+
+    /**
+     * Preço obrigatório, entre zero e {@link #MAX_PRICE}
+     * @param price preço informado
+     * @return erro ou null
+     */
+    public static ValidationError checkPrice(Double price) {
+        if (price == null) {
+            return new ValidationError("price", ValidationError.Code.REQUIRED, "Preço é obrigatório");
+        }
+        if (price < 0) {
+            return new ValidationError("price", ValidationError.Code.OUT_OF_RANGE, "Preço deve ser maior ou igual a zero");
+        }
+        if (price > MAX_PRICE) {
+            return new ValidationError("price", ValidationError.Code.OUT_OF_RANGE, "Preço deve ser menor que R$ 999.999,99");
+        }
+        return null;
+    }
+
+    /**
+     * Quantidade entre zero e {@link #MAX_QUANTITY}
+     * @param quantity quantidade informada (não nula)
+     * @return erro ou null
+     */
+    public static ValidationError checkQuantity(int quantity) {
+        if (quantity < 0) {
+            return new ValidationError("quantity", ValidationError.Code.OUT_OF_RANGE, "Quantidade deve ser maior ou igual a zero");
+        }
+        if (quantity > MAX_QUANTITY) {
+            return new ValidationError("quantity", ValidationError.Code.OUT_OF_RANGE, "Quantidade deve ser menor que 999.999");
+        }
+        return null;
+    }
+}
@@ -1,14 +1,37 @@
 package com.ejsjose.services;
 
 import com.ejsjose.entities.Product;
+import com.ejsjose.infra.OperationEvent;
+import com.ejsjose.infra.OperationEvents;
+import com.ejsjose.infra.PersistenceStatistics;
 import com.ejsjose.repositories.IProductRepository;
+import com.ejsjose.repositories.ProductChange;
+import com.ejsjose.repositories.ProductCriteria;
+import com.ejsjose.repositories.ProductField;
+import com.ejsjose.repositories.ProductRow;
+import com.ejsjose.repositories.ProductRowSink;
+import com.ejsjose.repositories.events.ProductChangeEvent;
+import com.ejsjose.repositories.events.ProductChangeEventBus;
+import com.ejsjose.services.dto.ProductBatchResult;
+import com.ejsjose.services.dto.ProductChangesDTO;
+import com.ejsjose.services.dto.ProductCommand;
+import com.ejsjose.services.dto.ProductCommandResult;
 import com.ejsjose.services.dto.ProductCreateDTO;
 import com.ejsjose.services.dto.ProductUpdateDTO;
 import com.ejsjose.services.dto.ProductFilterDTO;
+import com.ejsjose.services.dto.ProductProjectionDTO;
+import com.ejsjose.services.dto.ProductStatisticsDTO;
+import com.ejsjose.services.dto.ValidationError;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementação do serviço de produtos
@@ -18,16 +41,32 @@ import java.util.stream.Collectors;
  */
 public class ProductService implements IProductService {
     
+    private static final int MAX_FUZZY_EDITS = 3;
+    private static final int MAX_FUZZY_RESULTS = 100;
+    private static final int MAX_CHANGES_PER_CALL = 1000;
+    
     private final IProductRepository productRepository;
+    private final ProductNameIndex nameIndex = new ProductNameIndex();
+    private volatile boolean nameIndexLoaded;
+    /** Guarda nameIndexLoaded e nameIndexBacklog */
+    private final Object nameIndexEvents = new Object();
+    /** Eventos recebidos durante a reconstrução do índice (null fora dela) */
+    private List<ProductChangeEvent> nameIndexBacklog;
+    private final ProductStatisticsAccumulator statistics = new ProductStatisticsAccumulator();
     
     public ProductService(IProductRepository productRepository) {
         this.productRepository = productRepository;
+        
+        // Índices em memória acompanham as escritas confirmadas no repositório
+        productRepository.getChangeEvents().subscribe(this::onProductChange);
     }
     
     // === OPERAÇÕES BÁSICAS CRUD ===
     
     @Override
     public Product createProduct(ProductCreateDTO createDTO) {
+        OperationEvent event = OperationEvents.service("createProduct");
+        
         // Validações de negócio
         validateProductCreate(createDTO);
         
@@ -36,15 +75,54 @@ public class ProductService implements IProductService {
             throw new IllegalArgumentException("Já existe um produto com o nome: " + createDTO.getName());
         }
         
-        // Converter DTO para entidade
-        Product product = new Product();
-        product.setName(createDTO.getName().trim());
-        product.setPrice(createDTO.getPrice());
-        product.setQuantity(createDTO.getQuantity() != null ? createDTO.getQuantity() : 0);
-        product.setStatus(createDTO.getStatus() != null ? createDTO.getStatus() : true);
-        
         // Salvar
-        return productRepository.save(product);
+        Product created = productRepository.save(toNewProduct(createDTO));
+        event.finish(created.getId(), null, 1);
+        return created;
+    }
+    
+    @Override
+    public List<String> createProducts(List<ProductCreateDTO> createDTOs) {
+        if (createDTOs == null || createDTOs.isEmpty()) {
+            return List.of();
+        }
+        
+        OperationEvent event = OperationEvents.service("createProducts");
+        List<String> rejections = new ArrayList<>(createDTOs.size());
+        Set<String> candidateNames = new HashSet<>();
+        
+        for (ProductCreateDTO createDTO : createDTOs) {
+            try {
+                validateProductCreate(createDTO);
+                candidateNames.add(createDTO.getName().trim().toLowerCase(Locale.ROOT));
+                rejections.add(null);
+            } catch (IllegalArgumentException e) {
+                rejections.add(e.getMessage());
+            }
+        }
+        
+        // Nomes contra o banco em uma consulta por bloco; dentro do lote, a mesma regra
+        Set<String> takenNames = new HashSet<>();
+        for (String existing : productRepository.findExistingNames(candidateNames)) {
+            takenNames.add(existing.toLowerCase(Locale.ROOT));
+        }
+        
+        List<Product> accepted = new ArrayList<>(createDTOs.size());
+        for (int i = 0; i < createDTOs.size(); i++) {
+            if (rejections.get(i) != null) {
+                continue;
+            }
+            String name = createDTOs.get(i).getName().trim();
+            if (!takenNames.add(name.toLowerCase(Locale.ROOT))) {
+                rejections.set(i, "Já existe um produto com o nome: " + name);
+                continue;
+            }
+            accepted.add(toNewProduct(createDTOs.get(i)));
+        }
+        
+        productRepository.insertAll(accepted);
+        event.finish(accepted.size());
+        return rejections;
     }
     
     @Override
@@ -62,6 +140,8 @@ public class ProductService implements IProductService {
     
     @Override
     public Product updateProduct(Integer id, ProductUpdateDTO updateDTO) {
+        OperationEvent event = OperationEvents.service("updateProduct");
+        
         // Validações
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("ID do produto é obrigatório e deve ser maior que zero");
@@ -74,13 +154,14 @@ public class ProductService implements IProductService {
         // Buscar produto existente
         Optional<Product> productOpt = productRepository.findById(id);
         if (productOpt.isEmpty()) {
-            throw new IllegalArgumentException("Produto com ID " + id + " não encontrado");
+            throw new ProductNotFoundException(id);
         }
         
         Product product = productOpt.get();
         
         // Validar nome único se fornecido
         if (updateDTO.getName() != null) {
+            validateName(updateDTO.getName());
             String newName = updateDTO.getName().trim();
             if (productNameExists(newName, id)) {
                 throw new IllegalArgumentException("Já existe outro produto com o nome: " + newName);
@@ -105,7 +186,9 @@ public class ProductService implements IProductService {
             product.setStatus(updateDTO.getStatus());
         }
         
-        return productRepository.update(product);
+        Product updated = productRepository.update(product);
+        event.finish(id, null, 1);
+        return updated;
     }
     
     @Override
@@ -115,29 +198,65 @@ public class ProductService implements IProductService {
         }
         
         if (!productRepository.existsById(id)) {
-            throw new IllegalArgumentException("Produto com ID " + id + " não encontrado");
+            throw new ProductNotFoundException(id);
         }
         
+        OperationEvent event = OperationEvents.service("deleteProduct");
         productRepository.deleteById(id);
+        event.finish(id, null, 1);
     }
     
     // === OPERAÇÕES DE BUSCA ===
     
     @Override
     public List<Product> findProductsWithFilters(ProductFilterDTO filterDTO) {
-        if (filterDTO == null || !filterDTO.hasAnyFilter()) {
-            return findAllProducts();
-        }
-        
+        OperationEvent event = OperationEvents.service("findProductsWithFilters");
         List<Product> products = findAllProducts();
         
-        // Aplicar filtros
-        return products.stream()
-                .filter(product -> matchesNameFilter(product, filterDTO.getName()))
-                .filter(product -> matchesPriceFilter(product, filterDTO.getMinPrice(), filterDTO.getMaxPrice()))
-                .filter(product -> matchesQuantityFilter(product, filterDTO.getMinQuantity(), filterDTO.getMaxQuantity()))
-                .filter(product -> matchesStatusFilter(product, filterDTO.getStatus()))
-                .collect(Collectors.toList());
+        if (filterDTO != null && filterDTO.hasAnyFilter()) {
+            // Aplicar filtros
+            products = products.stream()
+                    .filter(product -> matchesNameFilter(product, filterDTO.getName()))
+                    .filter(product -> matchesPriceFilter(product, filterDTO.getMinPrice(), filterDTO.getMaxPrice()))
+                    .filter(product -> matchesQuantityFilter(product, filterDTO.getMinQuantity(), filterDTO.getMaxQuantity()))
+                    .filter(product -> matchesStatusFilter(product, filterDTO.getStatus()))
+                    .collect(Collectors.toList());
+        }
+        
+        event.finish(null, filterDTO, products.size());
+        return products;
+    }
+    
+    @Override
+    public List<Product> findProductsPage(ProductFilterDTO filterDTO, Integer afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero");
+        }
+        return productRepository.findPage(toCriteria(filterDTO), afterId, limit);
+    }
+    
+    @Override
+    public long scanProducts(ProductFilterDTO filterDTO, ProductRowSink sink) throws IOException {
+        if (sink == null) {
+            throw new IllegalArgumentException("Destino das linhas não pode ser nulo");
+        }
+        OperationEvent event = OperationEvents.service("scanProducts");
+        long rows = productRepository.scanRows(toCriteria(filterDTO), sink);
+        event.finish(null, filterDTO, rows);
+        return rows;
+    }
+    
+    @Override
+    public long scanProductsByStatus(Boolean active, ProductRowSink sink) throws IOException {
+        if (sink == null) {
+            throw new IllegalArgumentException("Destino das linhas não pode ser nulo");
+        }
+        OperationEvent event = OperationEvents.service("scanProductsByStatus");
+        // Só status: sem exigir preço, como findProductsByStatus
+        ProductCriteria criteria = active != null ? new ProductCriteria(null, null, null, null, null, active) : null;
+        long rows = productRepository.scanRows(criteria, sink);
+        event.finish(null, criteria, rows);
+        return rows;
     }
     
     @Override
@@ -148,11 +267,72 @@ public class ProductService implements IProductService {
         return productRepository.findByName(name.trim());
     }
     
+    @Override
+    public ProductProjectionDTO findProductsProjected(ProductFilterDTO filterDTO, Integer afterId, int limit) {
+        if (filterDTO == null || !filterDTO.hasFields()) {
+            throw new IllegalArgumentException("Informe ao menos um campo da projeção");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero");
+        }
+        
+        List<ProductField> fields = new ArrayList<>(filterDTO.getFields().size());
+        for (String name : filterDTO.getFields()) {
+            ProductField field = ProductField.fromName(name);
+            if (field == null) {
+                throw new IllegalArgumentException("Campo desconhecido: " + name);
+            }
+            if (!fields.contains(field)) {
+                fields.add(field);
+            }
+        }
+        
+        // O ID é lido mesmo se não foi pedido: identifica a linha para a paginação
+        List<ProductField> columns = fields;
+        int idColumn = fields.indexOf(ProductField.ID);
+        if (idColumn < 0) {
+            columns = new ArrayList<>(fields);
+            columns.add(ProductField.ID);
+            idColumn = fields.size();
+        }
+        
+        List<Object[]> rows = productRepository.findProjected(toCriteria(filterDTO), columns, afterId, limit);
+        return new ProductProjectionDTO(fields, rows, idColumn);
+    }
+    
+    @Override
+    public List<Product> findProductsByNameFuzzy(String query, int maxEdits, int limit) {
+        if (maxEdits < 0 || maxEdits > MAX_FUZZY_EDITS) {
+            throw new IllegalArgumentException("Número de edições deve estar entre 0 e " + MAX_FUZZY_EDITS);
+        }
+        
+        if (limit <= 0 || limit > MAX_FUZZY_RESULTS) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + MAX_FUZZY_RESULTS);
+        }
+        
+        if (query == null || query.trim().isEmpty()) {
+            return List.of();
+        }
+        
+        OperationEvent event = OperationEvents.service("findProductsByNameFuzzy");
+        List<Product> matches = loadedNameIndex().search(query, maxEdits, limit);
+        event.finish(null, query, matches.size());
+        return matches;
+    }
+    
     @Override
     public List<Product> findProductsByStatus(Boolean active) {
         return productRepository.findByStatus(active);
     }
     
+    @Override
+    public List<Product> findProductsByStatusPage(Boolean active, Integer afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero");
+        }
+        return productRepository.findByStatusPage(active, afterId, limit);
+    }
+    
     @Override
     public List<Product> findProductsByPriceRange(Double minPrice, Double maxPrice) {
         return productRepository.findByPriceRange(minPrice, maxPrice);
@@ -164,7 +344,7 @@ public class ProductService implements IProductService {
     public Product activateProduct(Integer id) {
         Optional<Product> productOpt = findProductById(id);
         if (productOpt.isEmpty()) {
-            throw new IllegalArgumentException("Produto com ID " + id + " não encontrado");
+            throw new ProductNotFoundException(id);
         }
         
         Product product = productOpt.get();
@@ -176,7 +356,7 @@ public class ProductService implements IProductService {
     public Product deactivateProduct(Integer id) {
         Optional<Product> productOpt = findProductById(id);
         if (productOpt.isEmpty()) {
-            throw new IllegalArgumentException("Produto com ID " + id + " não encontrado");
+            throw new ProductNotFoundException(id);
         }
         
         Product product = productOpt.get();
@@ -190,7 +370,7 @@ public class ProductService implements IProductService {
         
         Optional<Product> productOpt = findProductById(id);
         if (productOpt.isEmpty()) {
-            throw new IllegalArgumentException("Produto com ID " + id + " não encontrado");
+            throw new ProductNotFoundException(id);
         }
         
         Product product = productOpt.get();
@@ -207,12 +387,69 @@ public class ProductService implements IProductService {
         return productRepository.update(product);
     }
     
+    @Override
+    public Product adjustProductQuantity(Integer id, int delta) {
+        Optional<Product> productOpt = findProductById(id);
+        if (productOpt.isEmpty()) {
+            throw new ProductNotFoundException(id);
+        }
+        
+        Product product = productOpt.get();
+        long newQuantity = (long) product.getQuantity() + delta;
+        validateQuantity((int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, newQuantity)));
+        
+        product.setQuantity((int) newQuantity);
+        return productRepository.update(product);
+    }
+    
+    @Override
+    public ProductBatchResult executeBatch(List<ProductCommand> commands, ProductBatchResult.Mode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Modo do lote não pode ser nulo");
+        }
+        if (commands == null || commands.isEmpty()) {
+            return new ProductBatchResult(mode, true, List.of());
+        }
+        
+        OperationEvent event = OperationEvents.service("executeBatch");
+        List<ProductCommandResult> results = new ArrayList<>(commands.size());
+        ProductBatchResult batchResult;
+        try {
+            productRepository.inTransaction(() -> {
+                for (int i = 0; i < commands.size(); i++) {
+                    ProductCommand command = commands.get(i);
+                    ProductCommand.Type type = command != null ? command.getType() : null;
+                    try {
+                        results.add(ProductCommandResult.success(i, type, execute(command)));
+                    } catch (RuntimeException e) {
+                        results.add(ProductCommandResult.failure(i, type, e.getMessage()));
+                        if (mode == ProductBatchResult.Mode.ALL_OR_NOTHING) {
+                            throw new BatchAbortedException();
+                        }
+                    }
+                }
+                return null;
+            });
+            batchResult = new ProductBatchResult(mode, true, results);
+        } catch (BatchAbortedException e) {
+            batchResult = new ProductBatchResult(mode, false, 
+                    undone(commands, results, "Lote desfeito: o comando " + (results.size() - 1) + " falhou"));
+        } catch (RuntimeException e) {
+            // Falha no banco ou no commit: nenhum comando foi gravado
+            results.clear();
+            batchResult = new ProductBatchResult(mode, false, undone(commands, results, e.getMessage()));
+        }
+        event.finish(null, mode, batchResult.getSucceeded());
+        return batchResult;
+    }
+    
     @Override
     public int applyDiscount(ProductFilterDTO filterDTO, Double discountPercentage) {
         if (discountPercentage == null || discountPercentage < 0 || discountPercentage > 100) {
             throw new IllegalArgumentException("Percentual de desconto deve estar entre 0 e 100");
         }
         
+        OperationEvent event = OperationEvents.service("applyDiscount");
         List<Product> products = findProductsWithFilters(filterDTO);
         int updatedCount = 0;
         
@@ -225,9 +462,34 @@ public class ProductService implements IProductService {
             }
         }
         
+        event.finish(null, filterDTO, updatedCount);
         return updatedCount;
     }
     
+    // === SINCRONIZAÇÃO INCREMENTAL ===
+    
+    @Override
+    public ProductChangesDTO findChangesSince(long afterSeq, int limit) {
+        if (afterSeq < 0) {
+            throw new IllegalArgumentException("Sequência não pode ser negativa");
+        }
+        if (limit <= 0 || limit > MAX_CHANGES_PER_CALL) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + MAX_CHANGES_PER_CALL);
+        }
+        
+        OperationEvent event = OperationEvents.service("findChangesSince");
+        
+        // Um item a mais só para saber se há próxima página
+        List<ProductChange> changes = productRepository.findChangesSince(afterSeq, limit + 1);
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        long lastSeq = changes.isEmpty() ? afterSeq : changes.get(changes.size() - 1).getSeq();
+        event.finish(changes.size());
+        return new ProductChangesDTO(changes, lastSeq, hasMore);
+    }
+    
     // === ESTATÍSTICAS E RELATÓRIOS ===
     
     @Override
@@ -237,34 +499,73 @@ public class ProductService implements IProductService {
     
     @Override
     public long countActiveProducts() {
-        return productRepository.findByStatus(true).size();
+        return productRepository.countByStatus(true);
     }
     
     @Override
     public long countInactiveProducts() {
-        return productRepository.findByStatus(false).size();
+        return productRepository.countByStatus(false);
     }
     
+    // Relatórios percorrem linhas só de leitura; só o resultado vira Product
+    
     @Override
     public Double calculateTotalStockValue() {
-        return findAllProducts().stream()
-                .filter(product -> product.getPrice() != null && product.getQuantity() > 0)
-                .mapToDouble(product -> product.getPrice() * product.getQuantity())
-                .sum();
+        try (Stream<ProductRow> rows = productRepository.streamRows()) {
+            return rows
+                    .filter(row -> row.price() != null && row.quantity() > 0)
+                    .mapToDouble(row -> row.price() * row.quantity())
+                    .sum();
+        }
     }
     
     @Override
     public Optional<Product> findMostExpensiveProduct() {
-        return findAllProducts().stream()
-                .filter(product -> product.getPrice() != null)
-                .max((p1, p2) -> Double.compare(p1.getPrice(), p2.getPrice()));
+        try (Stream<ProductRow> rows = productRepository.streamRows()) {
+            return rows
+                    .filter(row -> row.price() != null)
+                    .max((r1, r2) -> Double.compare(r1.price(), r2.price()))
+                    .map(ProductRow::toProduct);
+        }
     }
     
     @Override
     public Optional<Product> findCheapestProduct() {
-        return findAllProducts().stream()
-                .filter(product -> product.getPrice() != null)
-                .min((p1, p2) -> Double.compare(p1.getPrice(), p2.getPrice()));
+        try (Stream<ProductRow> rows = productRepository.streamRows()) {
+            return rows
+                    .filter(row -> row.price() != null)
+                    .min((r1, r2) -> Double.compare(r1.price(), r2.price()))
+                    .map(ProductRow::toProduct);
+        }
+    }
+    
+    @Override
+    public ProductStatisticsDTO getStatistics() {
+        OperationEvent event = OperationEvents.service("getStatistics");
+        if (!statistics.isLoaded()) {
+            synchronized (statistics) {
+                if (!statistics.isLoaded()) {
+                    rebuildStatisticsFromDatabase();
+                }
+            }
+        }
+        ProductStatisticsDTO snapshot = statistics.snapshot();
+        event.finish(-1);
+        return snapshot;
+    }
+    
+    @Override
+    public ProductStatisticsDTO rebuildStatistics() {
+        OperationEvent event = OperationEvents.service("rebuildStatistics");
+        rebuildStatisticsFromDatabase();
+        ProductStatisticsDTO snapshot = statistics.snapshot();
+        event.finish(snapshot.getTotalProducts());
+        return snapshot;
+    }
+    
+    @Override
+    public PersistenceStatistics getPersistenceStatistics() {
+        return productRepository.getPersistenceStatistics();
     }
     
     @Override
@@ -287,21 +588,156 @@ public class ProductService implements IProductService {
         return products.stream().anyMatch(product -> !product.getId().equals(excludeId));
     }
     
+    // === EVENTOS ===
+    
+    @Override
+    public ProductChangeEventBus getChangeEvents() {
+        return productRepository.getChangeEvents();
+    }
+    
+    // === ÍNDICES EM MEMÓRIA ===
+    
+    /**
+     * Índice de nomes, reconstruído se necessário
+     *
+     * Os eventos que chegam durante a varredura ficam guardados e são
+     * reaplicados ao final, na ordem: a varredura pode ou não ter visto
+     * cada um deles, e reaplicar a imagem mais recente dá o mesmo resultado.
+     */
+    private ProductNameIndex loadedNameIndex() {
+        if (!nameIndexLoaded) {
+            synchronized (nameIndex) {
+                if (!nameIndexLoaded) {
+                    synchronized (nameIndexEvents) {
+                        nameIndexBacklog = new ArrayList<>();
+                    }
+                    try (Stream<Product> products = productRepository.streamAll()) {
+                        nameIndex.rebuild(products::iterator);
+                    } catch (RuntimeException e) {
+                        synchronized (nameIndexEvents) {
+                            nameIndexBacklog = null;
+                        }
+                        throw e;
+                    }
+                    synchronized (nameIndexEvents) {
+                        List<ProductChangeEvent> backlog = nameIndexBacklog;
+                        nameIndexBacklog = null;
+                        nameIndexLoaded = true;
+                        backlog.forEach(this::applyToNameIndex);
+                    }
+                }
+            }
+        }
+        return nameIndex;
+    }
+    
+    private void applyToNameIndex(ProductChangeEvent event) {
+        synchronized (nameIndexEvents) {
+            if (nameIndexBacklog != null) {
+                nameIndexBacklog.add(event);
+                return;
+            }
+            if (!nameIndexLoaded) {
+                return;
+            }
+            switch (event.getType()) {
+                case INSERT, UPDATE -> nameIndex.put(event.getAfter());
+                case DELETE -> nameIndex.remove(event.getProductId());
+                // Sem imagens por linha: recarrega na próxima busca
+                case BULK_DELETE -> nameIndexLoaded = false;
+            }
+        }
+    }
+    
+    private void rebuildStatisticsFromDatabase() {
+        try (Stream<Product> products = productRepository.streamAll()) {
+            statistics.rebuild(products::iterator);
+        }
+    }
+    
+    private void onProductChange(ProductChangeEvent event) {
+        applyToNameIndex(event);
+        switch (event.getType()) {
+            case INSERT -> statistics.onInsert(event.getAfter());
+            case UPDATE -> statistics.onUpdate(event.getBefore(), event.getAfter());
+            case DELETE -> statistics.onDelete(event.getBefore());
+            // Sem imagens por linha: descarta e recarrega na próxima leitura
+            case BULK_DELETE -> statistics.invalidate();
+        }
+    }
+    
+    // === LOTES DE COMANDOS ===
+    
+    /** Interrompe o lote ALL_OR_NOTHING na primeira falha (o resultado já foi registrado) */
+    private static class BatchAbortedException extends RuntimeException {
+        private BatchAbortedException() {
+            super("Lote interrompido", null, false, false);
+        }
+    }
+    
+    private Product execute(ProductCommand command) {
+        if (command == null || command.getType() == null) {
+            throw new IllegalArgumentException("Tipo de comando é obrigatório");
+        }
+        
+        Integer id = command.getId();
+        return switch (command.getType()) {
+            case CREATE -> createProduct(command.getCreate());
+            case UPDATE -> updateProduct(id, command.getUpdate());
+            case DELETE -> {
+                deleteProduct(id);
+                yield null;
+            }
+            case ACTIVATE -> activateProduct(id);
+            case DEACTIVATE -> deactivateProduct(id);
+            case PRICE -> updateProductPrice(id, command.getPrice());
+            case ADJUST -> {
+                if (command.getDelta() == null) {
+                    throw new IllegalArgumentException("Variação da quantidade é obrigatória");
+                }
+                yield adjustProductQuantity(id, command.getDelta());
+            }
+        };
+    }
+    
+    /**
+     * Resultados de um lote desfeito: falhas são mantidas, sucessos e
+     * comandos não executados viram falha com o motivo informado
+     */
+    private static List<ProductCommandResult> undone(List<ProductCommand> commands,
+                                                     List<ProductCommandResult> executed, String reason) {
+        List<ProductCommandResult> results = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            ProductCommandResult result = i < executed.size() ? executed.get(i) : null;
+            if (result != null && !result.isSuccess()) {
+                results.add(result);
+            } else {
+                ProductCommand command = commands.get(i);
+                results.add(ProductCommandResult.failure(i, command != null ? command.getType() : null, reason));
+            }
+        }
+        return results;
+    }
+    
     // === MÉTODOS DE VALIDAÇÃO PRIVADOS ===
     
+    private Product toNewProduct(ProductCreateDTO createDTO) {
+        // Converter DTO para entidade
+        Product product = new Product();
+        product.setName(createDTO.getName().trim());
+        product.setPrice(createDTO.getPrice());
+        product.setQuantity(createDTO.getQuantity() != null ? createDTO.getQuantity() : 0);
+        product.setStatus(createDTO.getStatus() != null ? createDTO.getStatus() : true);
+        return product;
+    }
+    
     private void validateProductCreate(ProductCreateDTO createDTO) {
         if (createDTO == null) {
             throw new IllegalArgumentException("Dados do produto são obrigatórios");
         }
         
         // Validar nome
-        if (createDTO.getName() == null || createDTO.getName().trim().isEmpty()) {
-            throw new IllegalArgumentException("Nome do produto é obrigatório");
-        }
-        
-        if (createDTO.getName().trim().length() > 255) {
-            throw new IllegalArgumentException("Nome do produto deve ter no máximo 255 caracteres");
-        }
+        validateName(createDTO.getName());
         
         // Validar preço
         validatePrice(createDTO.getPrice());
@@ -312,28 +748,35 @@ public class ProductService implements IProductService {
         }
     }
     
+    // As regras ficam em ProductRules, compartilhadas com ProductPayloadParser
+    
+    private void validateName(String name) {
+        throwIfInvalid(ProductRules.checkName(name));
+    }
+    
     private void validatePrice(Double price) {
-        if (price == null) {
-            throw new IllegalArgumentException("Preço é obrigatório");
-        }
-        
-        if (price < 0) {
-            throw new IllegalArgumentException("Preço deve ser maior ou igual a zero");
-        }
-        
-        if (price > 999999.99) {
-            throw new IllegalArgumentException("Preço deve ser menor que R$ 999.999,99");
-        }
+        throwIfInvalid(ProductRules.checkPrice(price));
     }
     
     private void validateQuantity(Integer quantity) {
-        if (quantity < 0) {
-            throw new IllegalArgumentException("Quantidade deve ser maior ou igual a zero");
+        throwIfInvalid(ProductRules.checkQuantity(quantity));
+    }
+    
+    private static void throwIfInvalid(ValidationError error) {
+        if (error != null) {
+            throw new IllegalArgumentException(error.getMessage());
         }
-        
-        if (quantity > 999999) {
-            throw new IllegalArgumentException("Quantidade deve ser menor que 999.999");
+    }
+    
+    private static ProductCriteria toCriteria(ProductFilterDTO filterDTO) {
+        if (filterDTO == null || !filterDTO.hasAnyFilter()) {
+            return null;
         }
+        ProductCriteria criteria = new ProductCriteria(filterDTO.getName(), filterDTO.getMinPrice(),
+                filterDTO.getMaxPrice(), filterDTO.getMinQuantity(), filterDTO.getMaxQuantity(), filterDTO.getStatus());
+        // Como matchesPriceFilter: com filtro, produto sem preço não entra
+        criteria.setPriceRequired(true);
+        return criteria;
     }
     
     private boolean matchesNameFilter(Product product, String nameFilter) {
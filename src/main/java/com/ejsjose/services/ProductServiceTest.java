@@ -2,11 +2,13 @@ package com.ejsjose.services;
 
 import com.ejsjose.entities.Product;
 import com.ejsjose.repositories.IProductRepository;
-import com.ejsjose.repositories.ProductRepository;
+import com.ejsjose.repositories.ProductRepositories;
+import com.ejsjose.services.dto.ProductBatchResult;
+import com.ejsjose.services.dto.ProductCommand;
 import com.ejsjose.services.dto.ProductCreateDTO;
 import com.ejsjose.services.dto.ProductUpdateDTO;
 import com.ejsjose.services.dto.ProductFilterDTO;
-import com.ejsjose.infra.HibernateUtil;
+import com.ejsjose.services.dto.ProductStatisticsDTO;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,13 +24,14 @@ public class ProductServiceTest {
         System.out.println();
         
         // Configurar dependências
-        IProductRepository repository = new ProductRepository();
+        IProductRepository repository = ProductRepositories.fromSystemProperties();
         IProductService service = new ProductService(repository);
         
         try {
             // Limpar dados
             System.out.println("--- LIMPEZA INICIAL ---");
             cleanupData(service);
+            service.getStatistics();
             
             // Teste 1: Criação com DTOs
             System.out.println("\n--- TESTE 1: CRIAÇÃO COM DTOs ---");
@@ -56,7 +59,7 @@ public class ProductServiceTest {
             System.err.println("❌ TESTE FALHOU: " + e.getMessage());
             e.printStackTrace();
         } finally {
-            HibernateUtil.shutdown();
+            ProductRepositories.shutdown();
             System.out.println("\nRecursos liberados.");
         }
     }
@@ -154,6 +157,17 @@ public class ProductServiceTest {
         } catch (IllegalArgumentException e) {
             System.out.println("✓ Regra de redução de preço funcionou: " + e.getMessage());
         }
+        
+        // Teste de lote: a falha do segundo comando desfaz o primeiro
+        int quantityBefore = service.findProductById(productId).get().getQuantity();
+        ProductBatchResult batch = service.executeBatch(List.of(
+                ProductCommand.adjust(productId, 1),
+                ProductCommand.price(productId, 0.01)), ProductBatchResult.Mode.ALL_OR_NOTHING);
+        if (batch.isCommitted() || service.findProductById(productId).get().getQuantity() != quantityBefore) {
+            System.err.println("❌ Lote com falha deveria ter sido desfeito");
+        } else {
+            System.out.println("✓ Lote desfeito: " + batch.getResults().get(1).getError());
+        }
     }
     
     private static void testAdvancedFilters(IProductService service) {
@@ -188,6 +202,14 @@ public class ProductServiceTest {
         combinedFilter.setMinPrice(1000.0);
         List<Product> expensiveNotebooks = service.findProductsWithFilters(combinedFilter);
         System.out.printf("✓ Notebooks ativos caros: %d%n", expensiveNotebooks.size());
+        
+        // Teste busca aproximada (erros de digitação)
+        List<Product> fuzzy = service.findProductsByNameFuzzy("notebok gamng", 2, 5);
+        if (!fuzzy.isEmpty() && fuzzy.get(0).getName().equals("Notebook Gaming")) {
+            System.out.printf("✓ Busca aproximada 'notebok gamng': %d%n", fuzzy.size());
+        } else {
+            System.err.println("❌ Busca aproximada deveria encontrar 'Notebook Gaming': " + fuzzy);
+        }
     }
     
     private static void testStatistics(IProductService service) {
@@ -213,6 +235,15 @@ public class ProductServiceTest {
                 cheapest.get().getName(), cheapest.get().getPrice());
         }
         
+        // Estatísticas incrementais devem bater com o cálculo completo
+        ProductStatisticsDTO stats = service.getStatistics();
+        if (stats.getTotalProducts() == totalProducts && stats.getActiveProducts() == activeProducts
+                && Math.abs(stats.getTotalStockValue() - totalValue) < 0.01) {
+            System.out.printf("✓ Estatísticas incrementais: %s%n", stats);
+        } else {
+            System.err.printf("❌ Estatísticas incrementais deveriam bater com o cálculo completo: %s%n", stats);
+        }
+        
         // Teste de existência
         if (totalProducts > 0) {
             Product firstProduct = service.findAllProducts().get(0);
@@ -0,0 +1,232 @@
+package com.ejsjose.services;
+
+import com.ejsjose.entities.Product;
+import com.ejsjose.services.dto.ProductStatisticsDTO;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estatísticas do catálogo mantidas incrementalmente a cada escrita
+ *
+ * Todo o estado fica sob o monitor da instância. As escritas chegam pelo
+ * barramento de eventos, que entrega um evento por vez (um único escritor),
+ * então o lock quase nunca é disputado, e a fotografia sai consistente.
+ * O valor do estoque é somado em milionésimos, como inteiro: incluir e
+ * retirar o mesmo produto
+ * se anulam exatamente, sem o resíduo que a soma em double acumula. Os
+ * preços ficam em um multiconjunto ordenado por (preço, ID): o mais caro e
+ * o mais barato saem em O(log n) e, em caso de empate no preço, vence o
+ * menor ID, como na busca sobre a lista completa.
+ *
+ * Cada produto guarda a sequência ({@code updatedSeq}) da última imagem
+ * aplicada. Um evento só é aplicado se a imagem "antes" for essa; um evento
+ * mais antigo que ela é descartado, e qualquer outra lacuna descarta os
+ * valores ({@link #invalidate()}) para que o próximo leitor reconstrua.
+ *
+ * Antes do primeiro {@link #rebuild(Iterable)} as escritas são ignoradas.
+ */
+public class ProductStatisticsAccumulator {
+
+    private static final double MICROS = 1_000_000.0;
+
+    private long total;
+    private long active;
+    private long inactive;
+    /** Valor do estoque em milionésimos */
+    private long stockValueMicros;
+    private final TreeMap<PriceKey, Product> byPrice = new TreeMap<>();
+    /** Sequência da última imagem aplicada, por ID */
+    private final Map<Integer, Long> appliedSeq = new HashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * Indica se as estatísticas já foram carregadas do banco
+     * @return true após o primeiro rebuild
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Recalcula tudo a partir de uma varredura completa
+     *
+     * Escritas concorrentes com a reconstrução podem se perder; use em
+     * momentos de pouca escrita ou aceite a correção no próximo rebuild.
+     *
+     * @param products todos os produtos
+     */
+    public synchronized void rebuild(Iterable<Product> products) {
+        loaded = false;
+        total = 0;
+        active = 0;
+        inactive = 0;
+        stockValueMicros = 0;
+        byPrice.clear();
+        appliedSeq.clear();
+
+        for (Product product : products) {
+            add(product);
+        }
+        loaded = true;
+    }
+
+    /**
+     * Descarta os valores atuais; o próximo leitor deve chamar {@link #rebuild(Iterable)}
+     */
+    public void invalidate() {
+        loaded = false;
+    }
+
+    /**
+     * Registra a inclusão de um produto
+     * @param after produto incluído
+     */
+    public synchronized void onInsert(Product after) {
+        if (!loaded || after == null) {
+            return;
+        }
+        Long applied = appliedSeq.get(after.getId());
+        if (applied == null) {
+            add(after);
+        } else if (after.getUpdatedSeq() > applied) {
+            invalidate();
+        }
+        // Senão o rebuild já viu esta inclusão
+    }
+
+    /**
+     * Registra a alteração de um produto
+     * @param before estado anterior (null se o evento veio sem imagem: vira lacuna)
+     * @param after estado atual
+     */
+    public synchronized void onUpdate(Product before, Product after) {
+        if (!loaded || after == null) {
+            return;
+        }
+        Long applied = appliedSeq.get(after.getId());
+        if (before != null && applied != null && applied == before.getUpdatedSeq()) {
+            subtract(before);
+            add(after);
+        } else if (applied == null || after.getUpdatedSeq() > applied) {
+            invalidate();
+        }
+        // Senão o evento é anterior ao estado já aplicado (sem "antes", nada a desfazer)
+    }
+
+    /**
+     * Registra a remoção de um produto
+     * @param before estado antes da remoção (null se o evento veio sem imagem)
+     */
+    public synchronized void onDelete(Product before) {
+        if (!loaded) {
+            return;
+        }
+        if (before == null) {
+            // Remoção sem imagem: não dá para saber o que retirar
+            invalidate();
+            return;
+        }
+        Long applied = appliedSeq.get(before.getId());
+        if (applied != null && applied == before.getUpdatedSeq()) {
+            subtract(before);
+        } else if (applied != null) {
+            invalidate();
+        }
+        // Sem sequência registrada: o rebuild já não viu o produto
+    }
+
+    /**
+     * Fotografia das estatísticas em O(log n)
+     * @return estatísticas atuais
+     */
+    public synchronized ProductStatisticsDTO snapshot() {
+        Product mostExpensive = null;
+        Product cheapest = null;
+
+        Map.Entry<PriceKey, Product> first = byPrice.firstEntry();
+        if (first != null) {
+            cheapest = new Product(first.getValue());
+        }
+
+        Map.Entry<PriceKey, Product> last = byPrice.lastEntry();
+        if (last != null) {
+            // Entre empatados no maior preço, o de menor ID
+            Map.Entry<PriceKey, Product> lowestId = byPrice.ceilingEntry(
+                    new PriceKey(last.getKey().price, Integer.MIN_VALUE));
+            mostExpensive = new Product(lowestId != null ? lowestId.getValue() : last.getValue());
+        }
+
+        return new ProductStatisticsDTO(total, active, inactive,
+                stockValueMicros / MICROS, mostExpensive, cheapest);
+    }
+
+    private void add(Product product) {
+        total++;
+        if (product.isStatus()) {
+            active++;
+        } else {
+            inactive++;
+        }
+        stockValueMicros += stockValueMicrosOf(product);
+        if (product.getId() != null) {
+            appliedSeq.put(product.getId(), product.getUpdatedSeq());
+            if (product.getPrice() != null) {
+                byPrice.put(new PriceKey(product.getPrice(), product.getId()), new Product(product));
+            }
+        }
+    }
+
+    private void subtract(Product product) {
+        total--;
+        if (product.isStatus()) {
+            active--;
+        } else {
+            inactive--;
+        }
+        stockValueMicros -= stockValueMicrosOf(product);
+        if (product.getId() != null) {
+            appliedSeq.remove(product.getId());
+            if (product.getPrice() != null) {
+                byPrice.remove(new PriceKey(product.getPrice(), product.getId()));
+            }
+        }
+    }
+
+    private static long stockValueMicrosOf(Product product) {
+        if (product.getPrice() == null || product.getQuantity() <= 0) {
+            return 0;
+        }
+        return Math.round(product.getPrice() * product.getQuantity() * MICROS);
+    }
+
+    /**
+     * Chave do multiconjunto de preços: preço e, no empate, ID
+     */
+    private static final class PriceKey implements Comparable<PriceKey> {
+        private final double price;
+        private final int id;
+
+        private PriceKey(double price, int id) {
+            this.price = price;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(PriceKey other) {
+            int byPriceValue = Double.compare(price, other.price);
+            return byPriceValue != 0 ? byPriceValue : Integer.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PriceKey other && compareTo(other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Double.hashCode(price) * 31 + id;
+        }
+    }
+}
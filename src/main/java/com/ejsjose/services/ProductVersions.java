@@ -0,0 +1,66 @@
+package com.ejsjose.services;
+
+import com.ejsjose.repositories.events.ProductChangeEvent;
+import com.ejsjose.repositories.events.ProductChangeListener;
+import com.ejsjose.repositories.events.ProductChangeType;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versões do catálogo e de cada produto, atualizadas a cada escrita
+ *
+ * Uma versão é uma string opaca "época-número": a época muda a cada
+ * inicialização, então versões de outra execução nunca coincidem com as
+ * atuais. O número cresce a cada evento recebido; cada produto guarda o
+ * número do último evento que o alterou (inclusive remoções), e remoções
+ * em massa valem para todos.
+ *
+ * Deve ser o último observador do barramento a tratar o evento: quem lê
+ * a versão antes de consultar recebe dados tão novos quanto ela, e o
+ * estado derivado (caches, estatísticas) já reflete a escrita quando a
+ * versão muda.
+ */
+public class ProductVersions implements ProductChangeListener {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong counter = new AtomicLong();
+    private final ConcurrentMap<Integer, Long> productVersions = new ConcurrentHashMap<>();
+    private final AtomicLong bulkVersion = new AtomicLong();
+
+    /**
+     * Versão do catálogo inteiro
+     * @return versão atual
+     */
+    public String getCatalogVersion() {
+        return format(counter.get());
+    }
+
+    /**
+     * Versão de um produto (também muda quando o produto é removido)
+     * @param id ID do produto
+     * @return versão atual do produto
+     */
+    public String getProductVersion(Integer id) {
+        Long version = id != null ? productVersions.get(id) : null;
+        return format(Math.max(bulkVersion.get(), version != null ? version : 0L));
+    }
+
+    @Override
+    public void onChange(ProductChangeEvent event) {
+        long version = counter.incrementAndGet();
+        if (event.getType() == ProductChangeType.BULK_DELETE) {
+            // Vale para todos os IDs; só saem as versões individuais mais antigas,
+            // já que eventos concorrentes podem ter gravado versões maiores
+            bulkVersion.accumulateAndGet(version, Math::max);
+            productVersions.values().removeIf(productVersion -> productVersion <= version);
+        } else if (event.getProductId() != null) {
+            productVersions.merge(event.getProductId(), version, Math::max);
+        }
+    }
+
+    private String format(long version) {
+        return epoch + "-" + version;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ejsjose.services.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * Resultado de um lote de comandos, com um item por comando na ordem recebida
+ */
+@JsonPropertyOrder({"mode", "committed", "succeeded", "failed", "results"})
+public class ProductBatchResult {
+    
+    /**
+     * Tratamento de falhas no lote
+     */
+    public enum Mode {
+        /** A primeira falha desfaz o lote inteiro */
+        ALL_OR_NOTHING,
+        /** Comandos recusados são pulados e os demais confirmados */
+        BEST_EFFORT
+    }
+    
+    private final Mode mode;
+    private final boolean committed;
+    private final List<ProductCommandResult> results;
+    
+    public ProductBatchResult(Mode mode, boolean committed, List<ProductCommandResult> results) {
+        this.mode = mode;
+        this.committed = committed;
+        this.results = results;
+    }
+    
+    public Mode getMode() {
+        return mode;
+    }
+    
+    /**
+     * Indica se a transação foi confirmada
+     * @return false se nada do lote foi gravado
+     */
+    public boolean isCommitted() {
+        return committed;
+    }
+    
+    public int getSucceeded() {
+        int succeeded = 0;
+        for (ProductCommandResult result : results) {
+            if (result.isSuccess()) {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+    
+    public int getFailed() {
+        return results.size() - getSucceeded();
+    }
+    
+    public List<ProductCommandResult> getResults() {
+        return results;
+    }
+}
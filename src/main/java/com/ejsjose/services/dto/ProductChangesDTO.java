@@ -0,0 +1,47 @@
+package com.ejsjose.services.dto;
+
+import com.ejsjose.repositories.ProductChange;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * Página de alterações da sincronização incremental
+ */
+@JsonPropertyOrder({"changes", "lastSeq", "hasMore"})
+public class ProductChangesDTO {
+    
+    private final List<ProductChange> changes;
+    private final long lastSeq;
+    private final boolean hasMore;
+    
+    public ProductChangesDTO(List<ProductChange> changes, long lastSeq, boolean hasMore) {
+        this.changes = changes;
+        this.lastSeq = lastSeq;
+        this.hasMore = hasMore;
+    }
+    
+    /**
+     * Inclusões, alterações e remoções em ordem de sequência
+     * @return alterações da página
+     */
+    public List<ProductChange> getChanges() {
+        return changes;
+    }
+    
+    /**
+     * Sequência a informar na próxima chamada
+     * @return sequência da última alteração da página (a recebida, se não há alterações)
+     */
+    public long getLastSeq() {
+        return lastSeq;
+    }
+    
+    /**
+     * Indica se há mais alterações depois desta página
+     * @return true se a próxima chamada deve ser feita já
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,144 @@
+package com.ejsjose.services.dto;
+
+import java.util.Locale;
+
+/**
+ * Comando de um lote de alterações de produtos
+ * 
+ * Cada tipo usa apenas os campos que lhe dizem respeito; os demais ficam nulos.
+ * Use as fábricas estáticas para montar comandos consistentes.
+ */
+public class ProductCommand {
+    
+    /**
+     * Operações aceitas em lote
+     */
+    public enum Type {
+        /** Cria produto (usa create) */
+        CREATE,
+        /** Atualização parcial (usa id e update) */
+        UPDATE,
+        /** Remove produto (usa id) */
+        DELETE,
+        /** Ativa produto (usa id) */
+        ACTIVATE,
+        /** Desativa produto (usa id) */
+        DEACTIVATE,
+        /** Altera preço com a regra de redução máxima (usa id e price) */
+        PRICE,
+        /** Soma delta à quantidade em estoque (usa id e delta) */
+        ADJUST;
+        
+        /**
+         * Nome da operação no JSON
+         * @return nome em minúsculas (ex: "create")
+         */
+        public String getCode() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+        
+        /**
+         * Converte o nome da operação, sem diferenciar maiúsculas
+         * @param code nome da operação
+         * @return tipo, ou null se o nome não é conhecido
+         */
+        public static Type fromCode(String code) {
+            if (code == null) {
+                return null;
+            }
+            for (Type type : values()) {
+                if (type.name().equalsIgnoreCase(code.trim())) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+    
+    private final Type type;
+    private final Integer id;
+    private final ProductCreateDTO create;
+    private final ProductUpdateDTO update;
+    private final Double price;
+    private final Integer delta;
+    
+    private ProductCommand(Type type, Integer id, ProductCreateDTO create, ProductUpdateDTO update,
+                           Double price, Integer delta) {
+        this.type = type;
+        this.id = id;
+        this.create = create;
+        this.update = update;
+        this.price = price;
+        this.delta = delta;
+    }
+    
+    // Fábricas
+    public static ProductCommand create(ProductCreateDTO createDTO) {
+        return new ProductCommand(Type.CREATE, null, createDTO, null, null, null);
+    }
+    
+    public static ProductCommand update(Integer id, ProductUpdateDTO updateDTO) {
+        return new ProductCommand(Type.UPDATE, id, null, updateDTO, null, null);
+    }
+    
+    public static ProductCommand delete(Integer id) {
+        return new ProductCommand(Type.DELETE, id, null, null, null, null);
+    }
+    
+    public static ProductCommand activate(Integer id) {
+        return new ProductCommand(Type.ACTIVATE, id, null, null, null, null);
+    }
+    
+    public static ProductCommand deactivate(Integer id) {
+        return new ProductCommand(Type.DEACTIVATE, id, null, null, null, null);
+    }
+    
+    public static ProductCommand price(Integer id, Double newPrice) {
+        return new ProductCommand(Type.PRICE, id, null, null, newPrice, null);
+    }
+    
+    public static ProductCommand adjust(Integer id, Integer delta) {
+        return new ProductCommand(Type.ADJUST, id, null, null, null, delta);
+    }
+    
+    // Getters
+    public Type getType() {
+        return type;
+    }
+    
+    public Integer getId() {
+        return id;
+    }
+    
+    public ProductCreateDTO getCreate() {
+        return create;
+    }
+    
+    public ProductUpdateDTO getUpdate() {
+        return update;
+    }
+    
+    public Double getPrice() {
+        return price;
+    }
+    
+    /**
+     * Variação da quantidade (negativa para baixa de estoque)
+     * @return delta do comando ADJUST
+     */
+    public Integer getDelta() {
+        return delta;
+    }
+    
+    @Override
+    public String toString() {
+        return "ProductCommand{" +
+                "type=" + type +
+                ", id=" + id +
+                ", create=" + create +
+                ", update=" + update +
+                ", price=" + price +
+                ", delta=" + delta +
+                '}';
+    }
+}
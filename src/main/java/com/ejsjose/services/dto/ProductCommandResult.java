@@ -0,0 +1,80 @@
+package com.ejsjose.services.dto;
+
+import com.ejsjose.entities.Product;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Resultado de um comando do lote
+ */
+@JsonPropertyOrder({"index", "op", "success", "product", "error"})
+public class ProductCommandResult {
+    
+    private final int index;
+    private final ProductCommand.Type type;
+    private final boolean success;
+    private final Product product;
+    private final String error;
+    
+    private ProductCommandResult(int index, ProductCommand.Type type, boolean success, Product product, String error) {
+        this.index = index;
+        this.type = type;
+        this.success = success;
+        this.product = product;
+        this.error = error;
+    }
+    
+    /**
+     * @param index posição do comando no lote
+     * @param type tipo do comando
+     * @param product produto resultante (null para DELETE)
+     */
+    public static ProductCommandResult success(int index, ProductCommand.Type type, Product product) {
+        return new ProductCommandResult(index, type, true, product, null);
+    }
+    
+    /**
+     * @param index posição do comando no lote
+     * @param type tipo do comando (null se não foi reconhecido)
+     * @param error motivo da falha
+     */
+    public static ProductCommandResult failure(int index, ProductCommand.Type type, String error) {
+        return new ProductCommandResult(index, type, false, null, error);
+    }
+    
+    /**
+     * Mesmo resultado em outra posição
+     * @param newIndex posição no lote original
+     * @return cópia com o novo índice
+     */
+    public ProductCommandResult withIndex(int newIndex) {
+        return new ProductCommandResult(newIndex, type, success, product, error);
+    }
+    
+    /** Posição do comando no lote (começando em 0) */
+    public int getIndex() {
+        return index;
+    }
+    
+    @JsonIgnore
+    public ProductCommand.Type getType() {
+        return type;
+    }
+    
+    /** Nome da operação como no JSON de entrada */
+    public String getOp() {
+        return type != null ? type.getCode() : null;
+    }
+    
+    public boolean isSuccess() {
+        return success;
+    }
+    
+    public Product getProduct() {
+        return product;
+    }
+    
+    public String getError() {
+        return error;
+    }
+}
@@ -33,6 +33,17 @@ public class ProductCreateDTO {
         this.status = status;
     }
     
+    /**
+     * Construtor de cópia
+     * @param source DTO original
+     */
+    public ProductCreateDTO(ProductCreateDTO source) {
+        this.name = source.name;
+        this.price = source.price;
+        this.quantity = source.quantity;
+        this.status = source.status;
+    }
+    
     // Getters e Setters
     @JsonProperty("name")
     public String getName() {
@@ -3,10 +3,13 @@ package com.ejsjose.services.dto;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * DTO para filtros de busca de produtos
  */
-@JsonPropertyOrder({"name", "minPrice", "maxPrice", "minQuantity", "maxQuantity", "status", "sortBy", "sortDirection"})
+@JsonPropertyOrder({"name", "minPrice", "maxPrice", "minQuantity", "maxQuantity", "status", "sortBy", "sortDirection", "fields"})
 public class ProductFilterDTO {
     
     private String name;
@@ -17,10 +20,27 @@ public class ProductFilterDTO {
     private Boolean status;
     private String sortBy;
     private String sortDirection; // ASC ou DESC
+    private List<String> fields; // campos da resposta (null para todos)
     
     // Construtores
     public ProductFilterDTO() {}
     
+    /**
+     * Construtor de cópia
+     * @param source filtros originais
+     */
+    public ProductFilterDTO(ProductFilterDTO source) {
+        this.name = source.name;
+        this.minPrice = source.minPrice;
+        this.maxPrice = source.maxPrice;
+        this.minQuantity = source.minQuantity;
+        this.maxQuantity = source.maxQuantity;
+        this.status = source.status;
+        this.sortBy = source.sortBy;
+        this.sortDirection = source.sortDirection;
+        this.fields = source.fields != null ? new ArrayList<>(source.fields) : null;
+    }
+    
     // Getters e Setters
     @JsonProperty("name")
     public String getName() {
@@ -94,6 +114,28 @@ public class ProductFilterDTO {
         this.sortDirection = sortDirection;
     }
     
+    /**
+     * Campos a incluir em cada produto da resposta (ex: ["id", "price"]);
+     * só essas colunas são lidas do banco
+     * @return nomes dos campos, ou null para o produto completo
+     */
+    @JsonProperty("fields")
+    public List<String> getFields() {
+        return fields;
+    }
+    
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+    
+    /**
+     * Verifica se a resposta deve trazer só parte dos campos
+     * @return true se fields não é null nem vazio
+     */
+    public boolean hasFields() {
+        return fields != null && !fields.isEmpty();
+    }
+    
     /**
      * Verifica se algum filtro foi definido
      * @return true se pelo menos um filtro não é null
@@ -122,6 +164,7 @@ public class ProductFilterDTO {
                 ", status=" + status +
                 ", sortBy='" + sortBy + '\'' +
                 ", sortDirection='" + sortDirection + '\'' +
+                ", fields=" + fields +
                 '}';
     }
 }
@@ -0,0 +1,64 @@
+package com.ejsjose.services.dto;
+
+import com.ejsjose.repositories.ProductField;
+
+import java.util.List;
+
+/**
+ * Produtos com só parte dos campos, lidos como colunas soltas do banco
+ * 
+ * Cada linha traz os valores na ordem de {@link #getFields()}; a coluna
+ * do ID vem sempre (no fim, se não foi pedida) para a paginação, mas só
+ * os campos pedidos vão para o JSON, como um array de objetos
+ * (ver ProductJsonModule).
+ */
+public class ProductProjectionDTO {
+    
+    private final List<ProductField> fields;
+    private final List<Object[]> rows;
+    private final int idColumn;
+    
+    public ProductProjectionDTO(List<ProductField> fields, List<Object[]> rows, int idColumn) {
+        this.fields = fields;
+        this.rows = rows;
+        this.idColumn = idColumn;
+    }
+    
+    /**
+     * Campos pedidos, na ordem de saída
+     * @return campos da projeção
+     */
+    public List<ProductField> getFields() {
+        return fields;
+    }
+    
+    /**
+     * Valores lidos do banco
+     * @return uma linha por produto, ordenadas por ID
+     */
+    public List<Object[]> getRows() {
+        return rows;
+    }
+    
+    public int size() {
+        return rows.size();
+    }
+    
+    /**
+     * ID do produto de uma linha
+     * @param row índice da linha
+     * @return ID do produto
+     */
+    public Integer getId(int row) {
+        return (Integer) rows.get(row)[idColumn];
+    }
+    
+    /**
+     * Primeiras linhas da projeção
+     * @param count número de linhas
+     * @return projeção com as mesmas colunas
+     */
+    public ProductProjectionDTO limit(int count) {
+        return count >= rows.size() ? this : new ProductProjectionDTO(fields, rows.subList(0, count), idColumn);
+    }
+}
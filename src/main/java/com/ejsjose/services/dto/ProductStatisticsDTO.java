@@ -0,0 +1,76 @@
+package com.ejsjose.services.dto;
+
+import com.ejsjose.entities.Product;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * DTO com as estatísticas do catálogo de produtos
+ * 
+ * Fotografia imutável produzida pela camada de serviço
+ */
+@JsonPropertyOrder({"totalProducts", "activeProducts", "inactiveProducts", "totalStockValue", 
+                    "mostExpensiveProduct", "cheapestProduct"})
+public class ProductStatisticsDTO {
+    
+    private final long totalProducts;
+    private final long activeProducts;
+    private final long inactiveProducts;
+    private final Double totalStockValue;
+    private final Product mostExpensiveProduct;
+    private final Product cheapestProduct;
+    
+    public ProductStatisticsDTO(long totalProducts, long activeProducts, long inactiveProducts,
+                                Double totalStockValue, Product mostExpensiveProduct, Product cheapestProduct) {
+        this.totalProducts = totalProducts;
+        this.activeProducts = activeProducts;
+        this.inactiveProducts = inactiveProducts;
+        this.totalStockValue = totalStockValue;
+        this.mostExpensiveProduct = mostExpensiveProduct;
+        this.cheapestProduct = cheapestProduct;
+    }
+    
+    /**
+     * Construtor de cópia: copia também os produtos, que são mutáveis
+     * @param source estatísticas originais
+     */
+    public ProductStatisticsDTO(ProductStatisticsDTO source) {
+        this(source.totalProducts, source.activeProducts, source.inactiveProducts, source.totalStockValue,
+                source.mostExpensiveProduct != null ? new Product(source.mostExpensiveProduct) : null,
+                source.cheapestProduct != null ? new Product(source.cheapestProduct) : null);
+    }
+    
+    // Getters
+    public long getTotalProducts() {
+        return totalProducts;
+    }
+    
+    public long getActiveProducts() {
+        return activeProducts;
+    }
+    
+    public long getInactiveProducts() {
+        return inactiveProducts;
+    }
+    
+    public Double getTotalStockValue() {
+        return totalStockValue;
+    }
+    
+    public Product getMostExpensiveProduct() {
+        return mostExpensiveProduct;
+    }
+    
+    public Product getCheapestProduct() {
+        return cheapestProduct;
+    }
+    
+    @Override
+    public String toString() {
+        return "ProductStatisticsDTO{" +
+                "totalProducts=" + totalProducts +
+                ", activeProducts=" + activeProducts +
+                ", inactiveProducts=" + inactiveProducts +
+                ", totalStockValue=" + totalStockValue +
+                '}';
+    }
+}
@@ -32,6 +32,17 @@ public class ProductUpdateDTO {
         this.status = status;
     }
     
+    /**
+     * Construtor de cópia
+     * @param source DTO original
+     */
+    public ProductUpdateDTO(ProductUpdateDTO source) {
+        this.name = source.name;
+        this.price = source.price;
+        this.quantity = source.quantity;
+        this.status = source.status;
+    }
+    
     // Getters e Setters
     @JsonProperty("name")
     public String getName() {
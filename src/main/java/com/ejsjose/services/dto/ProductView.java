@@ -0,0 +1,47 @@
+package com.ejsjose.services.dto;
+
+import com.ejsjose.entities.Product;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Visão imutável de um produto
+ * 
+ * Pode ser compartilhada entre threads e entregue direto de caches, sem
+ * cópia defensiva. O JSON é o mesmo de {@link Product}.
+ *
+ * @param id ID do produto
+ * @param name nome
+ * @param price preço
+ * @param quantity quantidade em estoque
+ * @param status ativo ou inativo
+ */
+@JsonPropertyOrder({"id", "name", "price", "quantity", "status"})
+public record ProductView(Integer id, String name, Double price, int quantity, boolean status) {
+    
+    /**
+     * Fotografia do estado atual do produto
+     * @param product produto de origem
+     * @return visão imutável, ou null se o produto é null
+     */
+    public static ProductView of(Product product) {
+        if (product == null) {
+            return null;
+        }
+        return new ProductView(product.getId(), product.getName(), product.getPrice(),
+                product.getQuantity(), product.isStatus());
+    }
+    
+    /**
+     * Nova entidade mutável com os mesmos valores, desacoplada do EntityManager
+     * @return produto
+     */
+    public Product toProduct() {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(price);
+        product.setQuantity(quantity);
+        product.setStatus(status);
+        return product;
+    }
+}
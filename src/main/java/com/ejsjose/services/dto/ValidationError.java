@@ -0,0 +1,65 @@
+package com.ejsjose.services.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Erro de validação de um campo
+ * 
+ * Devolvido em listas pela validação em passada única, sem exceções
+ */
+@JsonPropertyOrder({"field", "code", "message"})
+public class ValidationError {
+    
+    /**
+     * Tipo do erro, estável para tratamento automático pelo cliente
+     */
+    public enum Code {
+        /** JSON malformado */
+        INVALID_JSON,
+        /** Tipo de valor incompatível com o campo */
+        INVALID_TYPE,
+        /** Campo obrigatório ausente ou vazio */
+        REQUIRED,
+        /** Texto acima do tamanho máximo */
+        TOO_LONG,
+        /** Número fora da faixa permitida */
+        OUT_OF_RANGE,
+        /** Recusado por regra de negócio (ex: nome duplicado, produto inexistente) */
+        REJECTED
+    }
+    
+    private final String field;
+    private final Code code;
+    private final String message;
+    
+    public ValidationError(String field, Code code, String message) {
+        this.field = field;
+        this.code = code;
+        this.message = message;
+    }
+    
+    /**
+     * Campo com erro (null para erros do documento inteiro)
+     * @return nome do campo no JSON
+     */
+    public String getField() {
+        return field;
+    }
+    
+    public Code getCode() {
+        return code;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    @Override
+    public String toString() {
+        return "ValidationError{" +
+                "field='" + field + '\'' +
+                ", code=" + code +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
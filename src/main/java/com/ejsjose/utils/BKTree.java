@@ -0,0 +1,182 @@
+package com.ejsjose.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BK-tree (Burkhard-Keller) sobre a distância de Levenshtein
+ *
+ * Cada nó guarda um termo e seus filhos indexados pela distância até ele.
+ * Pela desigualdade triangular, uma busca com tolerância {@code maxEdits}
+ * só precisa descer nos filhos cuja aresta está em
+ * {@code [d - maxEdits, d + maxEdits]}, evitando comparar a consulta
+ * com todos os termos do índice.
+ *
+ * Não é thread-safe para escrita: construa a árvore e depois publique-a
+ * para leitura concorrente.
+ *
+ * @param <V> tipo do valor associado a cada termo
+ */
+public class BKTree<V> {
+
+    private Node<V> root;
+    private int size;
+
+    /**
+     * Adiciona um termo ao índice associando um valor a ele
+     * @param term termo (já normalizado)
+     * @param value valor associado ao termo
+     */
+    public void add(String term, V value) {
+        if (term == null || term.isEmpty()) {
+            return;
+        }
+
+        if (root == null) {
+            root = new Node<>(term);
+            root.values.add(value);
+            size++;
+            return;
+        }
+
+        Node<V> node = root;
+        while (true) {
+            int distance = distance(term, node.term, Integer.MAX_VALUE);
+            if (distance == 0) {
+                node.values.add(value);
+                return;
+            }
+
+            Node<V> child = node.children.get(distance);
+            if (child == null) {
+                child = new Node<>(term);
+                child.values.add(value);
+                node.children.put(distance, child);
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Busca termos a no máximo {@code maxEdits} edições da consulta
+     * @param query termo consultado (já normalizado)
+     * @param maxEdits número máximo de edições (inserção, remoção ou troca)
+     * @return termos encontrados com suas distâncias
+     */
+    public List<Match<V>> search(String query, int maxEdits) {
+        List<Match<V>> matches = new ArrayList<>();
+        if (root == null || query == null || query.isEmpty() || maxEdits < 0) {
+            return matches;
+        }
+
+        List<Node<V>> pending = new ArrayList<>();
+        pending.add(root);
+
+        while (!pending.isEmpty()) {
+            Node<V> node = pending.remove(pending.size() - 1);
+            int distance = distance(query, node.term, Integer.MAX_VALUE);
+
+            if (distance <= maxEdits) {
+                matches.add(new Match<>(node.term, distance, node.values));
+            }
+
+            int from = distance - maxEdits;
+            int to = distance + maxEdits;
+            for (Map.Entry<Integer, Node<V>> entry : node.children.entrySet()) {
+                int edge = entry.getKey();
+                if (edge >= from && edge <= to) {
+                    pending.add(entry.getValue());
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * Número de termos distintos no índice
+     * @return quantidade de termos
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Distância de Levenshtein com duas linhas e corte antecipado
+     * @param a primeiro termo
+     * @param b segundo termo
+     * @param limit distância a partir da qual o cálculo pode parar
+     * @return distância exata, ou um valor maior que {@code limit} se ultrapassado
+     */
+    public static int distance(String a, String b, int limit) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > limit) {
+            return limit + 1;
+        }
+
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+
+            for (int j = 1; j <= m; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return previous[m];
+    }
+
+    private static class Node<V> {
+        private final String term;
+        private final List<V> values = new ArrayList<>(1);
+        private final Map<Integer, Node<V>> children = new HashMap<>();
+
+        private Node(String term) {
+            this.term = term;
+        }
+    }
+
+    /**
+     * Resultado de uma busca no BK-tree
+     * @param <V> tipo do valor associado ao termo
+     */
+    public static class Match<V> {
+        private final String term;
+        private final int distance;
+        private final List<V> values;
+
+        public Match(String term, int distance, List<V> values) {
+            this.term = term;
+            this.distance = distance;
+            this.values = values;
+        }
+
+        public String getTerm() { return term; }
+
+        public int getDistance() { return distance; }
+
+        public List<V> getValues() { return values; }
+    }
+}
@@ -0,0 +1,98 @@
+package com.ejsjose.utils;
+
+import com.fasterxml.jackson.core.StreamReadConstraints;
+
+import java.util.Objects;
+
+/**
+ * Limites aplicados na leitura de JSON
+ *
+ * Valores menores ou iguais a zero desligam o limite correspondente
+ * (exceto a profundidade, que é sempre limitada).
+ */
+public final class JsonLimits {
+
+    public static final int UNLIMITED = -1;
+
+    /** Requisições: corpo de até 8 MiB */
+    public static final JsonLimits DEFAULT = new JsonLimits(8L * 1024 * 1024, 64, 64 * 1024, 100_000);
+
+    /** Importação em streaming: sem limite de tamanho total nem de elementos; o lote limita a memória */
+    public static final JsonLimits BULK = new JsonLimits(UNLIMITED, 64, 64 * 1024, UNLIMITED);
+
+    private final long maxBytes;
+    private final int maxDepth;
+    private final int maxStringLength;
+    private final int maxArrayElements;
+
+    /**
+     * @param maxBytes tamanho máximo do documento (bytes, ou caracteres para String)
+     * @param maxDepth aninhamento máximo de objetos e arrays
+     * @param maxStringLength tamanho máximo de um valor texto
+     * @param maxArrayElements elementos máximos em um único array
+     */
+    public JsonLimits(long maxBytes, int maxDepth, int maxStringLength, int maxArrayElements) {
+        if (maxDepth <= 0) {
+            throw new IllegalArgumentException("Profundidade máxima deve ser maior que zero");
+        }
+        this.maxBytes = maxBytes;
+        this.maxDepth = maxDepth;
+        this.maxStringLength = maxStringLength;
+        this.maxArrayElements = maxArrayElements;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getMaxStringLength() {
+        return maxStringLength;
+    }
+
+    public int getMaxArrayElements() {
+        return maxArrayElements;
+    }
+
+    /**
+     * Restrições equivalentes do Jackson, verificadas pelo próprio parser
+     *
+     * O limite de elementos por array não tem equivalente e só vale em
+     * {@link JsonValidator}.
+     * @return restrições de leitura
+     */
+    public StreamReadConstraints toStreamReadConstraints() {
+        return StreamReadConstraints.builder()
+                .maxDocumentLength(maxBytes > 0 ? maxBytes : 0)
+                .maxNestingDepth(maxDepth)
+                .maxStringLength(maxStringLength > 0 ? maxStringLength : Integer.MAX_VALUE)
+                .build();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JsonLimits other
+                && maxBytes == other.maxBytes
+                && maxDepth == other.maxDepth
+                && maxStringLength == other.maxStringLength
+                && maxArrayElements == other.maxArrayElements;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxBytes, maxDepth, maxStringLength, maxArrayElements);
+    }
+
+    @Override
+    public String toString() {
+        return "JsonLimits{" +
+                "maxBytes=" + maxBytes +
+                ", maxDepth=" + maxDepth +
+                ", maxStringLength=" + maxStringLength +
+                ", maxArrayElements=" + maxArrayElements +
+                '}';
+    }
+}
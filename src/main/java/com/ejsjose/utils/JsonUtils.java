@@ -1,50 +1,260 @@
 package com.ejsjose.utils;
 
+import com.ejsjose.entities.Product;
+import com.ejsjose.services.dto.ProductCreateDTO;
+import com.ejsjose.services.dto.ProductFilterDTO;
+import com.ejsjose.services.dto.ProductStatisticsDTO;
+import com.ejsjose.services.dto.ProductUpdateDTO;
+import com.ejsjose.services.dto.ProductView;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.StreamReadConstraints;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
 
 /**
  * Utilitário para conversão JSON usando Jackson
  * Centraliza toda a configuração de serialização/deserialização
+ * 
+ * Leitores e escritores são montados uma vez por tipo e modo de saída e
+ * reaproveitados: {@link ObjectReader} e {@link ObjectWriter} são
+ * imutáveis e seguros entre threads. A saída padrão é compacta; a
+ * formatada fica para depuração e exemplos ({@link OutputMode#PRETTY}).
  */
 public class JsonUtils {
     
+    /**
+     * Modo de saída do JSON
+     */
+    public enum OutputMode {
+        /** Sem espaços nem quebras de linha (padrão) */
+        COMPACT,
+        /** Indentado, para leitura humana */
+        PRETTY
+    }
+    
+    /**
+     * Formatos de transporte suportados
+     * 
+     * Smile e CBOR são binários: payloads menores e leitura mais rápida,
+     * indicados para chamadas internas entre serviços. Todos usam a mesma
+     * configuração e os mesmos serializadores do JSON.
+     */
+    public enum WireFormat {
+        JSON("application/json"),
+        SMILE("application/x-jackson-smile"),
+        CBOR("application/cbor");
+        
+        private final String contentType;
+        
+        WireFormat(String contentType) {
+            this.contentType = contentType;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        /**
+         * Formato correspondente a um Content-Type ou Accept
+         * @param contentType tipo de mídia, com ou sem parâmetros (null ou vazio = JSON)
+         * @return formato correspondente
+         * @throws IllegalArgumentException se o tipo não é suportado
+         */
+        public static WireFormat fromContentType(String contentType) {
+            if (contentType == null || contentType.isBlank()) {
+                return JSON;
+            }
+            
+            int parameters = contentType.indexOf(';');
+            String mediaType = (parameters >= 0 ? contentType.substring(0, parameters) : contentType).trim();
+            for (WireFormat format : values()) {
+                if (format.contentType.equalsIgnoreCase(mediaType)) {
+                    return format;
+                }
+            }
+            if (mediaType.equals("*/*") || mediaType.equalsIgnoreCase("application/*")) {
+                return JSON;
+            }
+            throw new IllegalArgumentException("Formato não suportado: " + contentType);
+        }
+    }
+    
     private static final ObjectMapper objectMapper;
+    private static final JsonFactory bulkFactory;
+    private static final ObjectWriter compactWriter;
+    private static final ObjectWriter prettyWriter;
+    private static final ObjectWriter streamWriter;
+    
+    private static final Map<WireFormat, ObjectMapper> mappers = new EnumMap<>(WireFormat.class);
+    private static final Map<WireFormat, ObjectWriter> baseWriters = new EnumMap<>(WireFormat.class);
+    private static final Map<WireFormat, ConcurrentMap<Class<?>, ObjectReader>> readers = new EnumMap<>(WireFormat.class);
+    private static final Map<WireFormat, ConcurrentMap<Class<?>, ObjectWriter>> writers = new EnumMap<>(WireFormat.class);
+    private static final ConcurrentMap<JavaType, ObjectReader> listReaders = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, ObjectWriter> prettyWriters = new ConcurrentHashMap<>();
+    
+    private static final Map<Class<?>, UnaryOperator<Object>> copiers = Map.of(
+        Product.class, source -> new Product((Product) source),
+        ProductCreateDTO.class, source -> new ProductCreateDTO((ProductCreateDTO) source),
+        ProductUpdateDTO.class, source -> new ProductUpdateDTO((ProductUpdateDTO) source),
+        ProductFilterDTO.class, source -> new ProductFilterDTO((ProductFilterDTO) source),
+        ProductStatisticsDTO.class, source -> new ProductStatisticsDTO((ProductStatisticsDTO) source),
+        ProductView.class, source -> source);
     
     static {
-        objectMapper = new ObjectMapper();
+        // Leitura limitada por JsonLimits.DEFAULT: corpos grandes ou muito
+        // aninhados falham no parser, antes de ocupar memória
+        StreamReadConstraints constraints = JsonLimits.DEFAULT.toStreamReadConstraints();
+        objectMapper = configure(new ObjectMapper(
+            JsonFactory.builder().streamReadConstraints(constraints).build()));
+        
+        // Importação em streaming: sem limite de tamanho total (JsonLimits.BULK)
+        bulkFactory = objectMapper.getFactory().rebuild()
+            .streamReadConstraints(JsonLimits.BULK.toStreamReadConstraints())
+            .build();
+        bulkFactory.setCodec(objectMapper);
         
+        // Escritores base: compacto (padrão) e formatado
+        compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        prettyWriter = objectMapper.writerWithDefaultPrettyPrinter();
+        
+        // Escrita em streaming: compacta e sem flush a cada valor
+        streamWriter = compactWriter.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        
+        // Formatos binários com a mesma configuração
+        mappers.put(WireFormat.JSON, objectMapper);
+        mappers.put(WireFormat.SMILE, configure(new ObjectMapper(
+            SmileFactory.builder().streamReadConstraints(constraints).build())));
+        mappers.put(WireFormat.CBOR, configure(new ObjectMapper(
+            CBORFactory.builder().streamReadConstraints(constraints).build())));
+        for (WireFormat format : WireFormat.values()) {
+            baseWriters.put(format, format == WireFormat.JSON ? compactWriter : mappers.get(format).writer());
+            readers.put(format, new ConcurrentHashMap<>());
+            writers.put(format, new ConcurrentHashMap<>());
+        }
+    }
+    
+    private static ObjectMapper configure(ObjectMapper mapper) {
         // Configurações gerais
-        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
-        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
         
         // Incluir apenas propriedades não nulas
-        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         
         // Suporte a Java Time API
-        objectMapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new JavaTimeModule());
         
-        // Formatação legível
-        objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+        // Serializadores dedicados de Product e DTOs (ver ProductJsonModule)
+        mapper.registerModule(new ProductJsonModule());
+        return mapper;
+    }
+    
+    // === REGISTRO DE CODECS ===
+    
+    /**
+     * Leitor JSON pré-montado para o tipo
+     * @param clazz classe do objeto
+     * @return leitor reaproveitável entre threads
+     */
+    public static ObjectReader reader(Class<?> clazz) {
+        return reader(clazz, WireFormat.JSON);
+    }
+    
+    /**
+     * Leitor pré-montado para o tipo e formato
+     * @param clazz classe do objeto
+     * @param format formato de transporte
+     * @return leitor reaproveitável entre threads
+     */
+    public static ObjectReader reader(Class<?> clazz, WireFormat format) {
+        return readers.get(format).computeIfAbsent(clazz, mappers.get(format)::readerFor);
+    }
+    
+    /**
+     * Escritor JSON pré-montado para o tipo e modo de saída
+     * @param clazz classe do objeto
+     * @param mode compacto ou formatado
+     * @return escritor reaproveitável entre threads
+     */
+    public static ObjectWriter writer(Class<?> clazz, OutputMode mode) {
+        if (mode == OutputMode.PRETTY) {
+            return prettyWriters.computeIfAbsent(clazz, prettyWriter::forType);
+        }
+        return writer(clazz, WireFormat.JSON);
+    }
+    
+    /**
+     * Escritor pré-montado para o tipo e formato (JSON sai compacto)
+     * @param clazz classe do objeto
+     * @param format formato de transporte
+     * @return escritor reaproveitável entre threads
+     */
+    public static ObjectWriter writer(Class<?> clazz, WireFormat format) {
+        return writers.get(format).computeIfAbsent(clazz, baseWriters.get(format)::forType);
     }
     
+    private static ObjectWriter writerFor(Object object, OutputMode mode) {
+        if (mode == OutputMode.PRETTY) {
+            return isPolymorphicContainer(object) ? prettyWriter : writer(object.getClass(), mode);
+        }
+        return writerFor(object, WireFormat.JSON);
+    }
+    
+    private static ObjectWriter writerFor(Object object, WireFormat format) {
+        return isPolymorphicContainer(object) ? baseWriters.get(format) : writer(object.getClass(), format);
+    }
+    
+    private static boolean isPolymorphicContainer(Object object) {
+        // Listas e mapas variam de tipo concreto; ficam com o escritor base,
+        // que resolve o serializador dos elementos em tempo de execução
+        return object == null || object instanceof Collection || object instanceof Map;
+    }
+    
+    // === ESCRITA ===
+    
     /**
-     * Converte objeto para JSON string
+     * Converte objeto para JSON string compacto
      * @param object objeto a ser convertido
      * @return JSON string
      * @throws JsonProcessingException se ocorrer erro na conversão
      */
     public static String toJson(Object object) throws JsonProcessingException {
-        return objectMapper.writeValueAsString(object);
+        return writerFor(object, OutputMode.COMPACT).writeValueAsString(object);
+    }
+    
+    /**
+     * Converte objeto para JSON string no modo indicado
+     * @param object objeto a ser convertido
+     * @param mode compacto ou formatado
+     * @return JSON string
+     * @throws JsonProcessingException se ocorrer erro na conversão
+     */
+    public static String toJson(Object object, OutputMode mode) throws JsonProcessingException {
+        return writerFor(object, mode).writeValueAsString(object);
     }
     
     /**
@@ -54,9 +264,106 @@ public class JsonUtils {
      * @throws JsonProcessingException se ocorrer erro na conversão
      */
     public static String toJsonPretty(Object object) throws JsonProcessingException {
-        return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(object);
+        return writerFor(object, OutputMode.PRETTY).writeValueAsString(object);
+    }
+    
+    /**
+     * Converte objeto para JSON compacto em UTF-8, sem passar por String
+     * @param object objeto a ser convertido
+     * @return bytes UTF-8 do JSON
+     * @throws JsonProcessingException se ocorrer erro na conversão
+     */
+    public static byte[] toJsonBytes(Object object) throws JsonProcessingException {
+        return writerFor(object, OutputMode.COMPACT).writeValueAsBytes(object);
+    }
+    
+    /**
+     * Converte objeto para JSON em UTF-8 no modo indicado
+     * @param object objeto a ser convertido
+     * @param mode compacto ou formatado
+     * @return bytes UTF-8 do JSON
+     * @throws JsonProcessingException se ocorrer erro na conversão
+     */
+    public static byte[] toJsonBytes(Object object, OutputMode mode) throws JsonProcessingException {
+        return writerFor(object, mode).writeValueAsBytes(object);
     }
     
+    /**
+     * Escreve objeto como JSON direto no OutputStream
+     * 
+     * O OutputStream não é fechado
+     * @param outputStream destino do JSON
+     * @param object objeto a ser escrito
+     * @param mode compacto ou formatado
+     * @throws IOException se ocorrer erro na escrita
+     */
+    public static void writeValue(OutputStream outputStream, Object object, OutputMode mode) throws IOException {
+        try (JsonGenerator generator = createGenerator(outputStream)) {
+            if (mode == OutputMode.PRETTY) {
+                generator.useDefaultPrettyPrinter();
+            }
+            writerFor(object, mode).writeValue(generator, object);
+        }
+    }
+    
+    // === FORMATOS BINÁRIOS ===
+    
+    /**
+     * Converte objeto para bytes no formato indicado
+     * @param object objeto a ser convertido
+     * @param format formato de transporte
+     * @return payload codificado
+     * @throws JsonProcessingException se ocorrer erro na conversão
+     */
+    public static byte[] toBytes(Object object, WireFormat format) throws JsonProcessingException {
+        return writerFor(object, format).writeValueAsBytes(object);
+    }
+    
+    /**
+     * Escreve objeto no formato indicado direto no OutputStream
+     * 
+     * O OutputStream não é fechado
+     * @param outputStream destino do payload
+     * @param object objeto a ser escrito
+     * @param format formato de transporte
+     * @throws IOException se ocorrer erro na escrita
+     */
+    public static void writeValue(OutputStream outputStream, Object object, WireFormat format) throws IOException {
+        try (JsonGenerator generator = mappers.get(format).getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            writerFor(object, format).writeValue(generator, object);
+        }
+    }
+    
+    /**
+     * Converte bytes no formato indicado para objeto
+     * @param payload bytes recebidos
+     * @param clazz classe do objeto
+     * @param format formato de transporte
+     * @param <T> tipo do objeto
+     * @return objeto deserializado
+     * @throws IOException se ocorrer erro na conversão
+     */
+    public static <T> T fromBytes(byte[] payload, Class<T> clazz, WireFormat format) throws IOException {
+        JsonValidator.checkDocumentLength(payload.length, JsonLimits.DEFAULT);
+        return reader(clazz, format).readValue(payload);
+    }
+    
+    /**
+     * Lê objeto no formato indicado de um InputStream
+     * @param inputStream origem do payload
+     * @param clazz classe do objeto
+     * @param format formato de transporte
+     * @param <T> tipo do objeto
+     * @return objeto deserializado
+     * @throws IOException se ocorrer erro na leitura
+     */
+    public static <T> T readValue(InputStream inputStream, Class<T> clazz, WireFormat format) throws IOException {
+        return reader(clazz, format).readValue(inputStream);
+    }
+    
+    // === LEITURA ===
+    
     /**
      * Converte JSON string para objeto
      * @param json JSON string
@@ -66,7 +373,21 @@ public class JsonUtils {
      * @throws JsonProcessingException se ocorrer erro na conversão
      */
     public static <T> T fromJson(String json, Class<T> clazz) throws JsonProcessingException {
-        return objectMapper.readValue(json, clazz);
+        JsonValidator.checkDocumentLength(json.length(), JsonLimits.DEFAULT);
+        return reader(clazz).readValue(json);
+    }
+    
+    /**
+     * Converte JSON em bytes UTF-8 para objeto
+     * @param json bytes do JSON
+     * @param clazz classe do objeto
+     * @param <T> tipo do objeto
+     * @return objeto deserializado
+     * @throws IOException se ocorrer erro na conversão
+     */
+    public static <T> T fromJson(byte[] json, Class<T> clazz) throws IOException {
+        JsonValidator.checkDocumentLength(json.length, JsonLimits.DEFAULT);
+        return reader(clazz).readValue(json);
     }
     
     /**
@@ -78,8 +399,9 @@ public class JsonUtils {
      * @throws JsonProcessingException se ocorrer erro na conversão
      */
     public static <T> List<T> fromJsonList(String json, Class<T> clazz) throws JsonProcessingException {
-        return objectMapper.readValue(json, 
-            objectMapper.getTypeFactory().constructCollectionType(List.class, clazz));
+        JsonValidator.checkDocumentLength(json.length(), JsonLimits.DEFAULT);
+        JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, clazz);
+        return listReaders.computeIfAbsent(listType, objectMapper::readerFor).readValue(json);
     }
     
     /**
@@ -91,11 +413,77 @@ public class JsonUtils {
      * @throws IOException se ocorrer erro na leitura
      */
     public static <T> T fromJson(InputStream inputStream, Class<T> clazz) throws IOException {
-        return objectMapper.readValue(inputStream, clazz);
+        return reader(clazz).readValue(inputStream);
+    }
+    
+    /**
+     * Cria parser de streaming para ler JSON incrementalmente
+     * 
+     * Usa os limites de {@link JsonLimits#BULK}: o documento pode ter
+     * qualquer tamanho, mas profundidade e textos continuam limitados
+     * @param inputStream InputStream com JSON
+     * @return parser posicionado antes do primeiro token
+     * @throws IOException se ocorrer erro na leitura
+     */
+    public static JsonParser createParser(InputStream inputStream) throws IOException {
+        return bulkFactory.createParser(inputStream);
+    }
+    
+    /**
+     * Cria parser de streaming para um documento já em memória
+     * 
+     * Usa os limites de {@link JsonLimits#DEFAULT}, como as demais leituras
+     * @param json documento JSON
+     * @return parser posicionado antes do primeiro token
+     * @throws IOException se o documento excede o limite de tamanho
+     */
+    public static JsonParser createParser(String json) throws IOException {
+        JsonValidator.checkDocumentLength(json.length(), JsonLimits.DEFAULT);
+        return objectMapper.getFactory().createParser(json);
+    }
+    
+    /**
+     * Cria gerador de streaming que escreve direto no OutputStream
+     * 
+     * O OutputStream não é fechado junto com o gerador
+     * @param outputStream destino do JSON
+     * @return gerador compacto
+     * @throws IOException se ocorrer erro na escrita
+     */
+    public static JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
     }
     
     /**
-     * Clona objeto via JSON (deep copy)
+     * Escreve objeto no gerador em formato compacto, sem flush
+     * @param generator gerador de destino
+     * @param object objeto a ser escrito
+     * @throws IOException se ocorrer erro na escrita
+     */
+    public static void writeValue(JsonGenerator generator, Object object) throws IOException {
+        streamWriter.writeValue(generator, object);
+    }
+    
+    /**
+     * Converte nó JSON já lido para objeto
+     * @param node nó JSON
+     * @param clazz classe do objeto
+     * @param <T> tipo do objeto
+     * @return objeto deserializado
+     * @throws JsonProcessingException se ocorrer erro na conversão
+     */
+    public static <T> T fromJson(JsonNode node, Class<T> clazz) throws JsonProcessingException {
+        return reader(clazz).treeToValue(node, clazz);
+    }
+    
+    /**
+     * Clona objeto (deep copy)
+     * 
+     * Product e os DTOs são copiados pelos construtores de cópia, sem
+     * serializar; {@link ProductView} é imutável e volta a mesma instância.
+     * Outros tipos, ou conversão entre tipos diferentes, passam por JSON.
      * @param object objeto a ser clonado
      * @param clazz classe do objeto
      * @param <T> tipo do objeto
@@ -103,22 +491,29 @@ public class JsonUtils {
      * @throws JsonProcessingException se ocorrer erro na conversão
      */
     public static <T> T clone(Object object, Class<T> clazz) throws JsonProcessingException {
+        if (object == null) {
+            return null;
+        }
+        
+        // Classe exata: proxies do Hibernate não têm os campos preenchidos
+        UnaryOperator<Object> copier = copiers.get(object.getClass());
+        if (copier != null && clazz == object.getClass()) {
+            return clazz.cast(copier.apply(object));
+        }
+        
         String json = toJson(object);
         return fromJson(json, clazz);
     }
     
     /**
-     * Verifica se uma string é um JSON válido
+     * Verifica se uma string é um JSON válido, sem montar árvore
+     * 
+     * Exige um único valor JSON dentro de {@link JsonLimits#DEFAULT}
      * @param json string a ser verificada
      * @return true se for JSON válido
      */
     public static boolean isValidJson(String json) {
-        try {
-            objectMapper.readTree(json);
-            return true;
-        } catch (JsonProcessingException e) {
-            return false;
-        }
+        return JsonValidator.isValid(json, JsonLimits.DEFAULT);
     }
     
     /**
@@ -128,9 +523,7 @@ public class JsonUtils {
      * @throws JsonProcessingException se ocorrer erro na conversão
      */
     public static String toJsonCompact(Object object) throws JsonProcessingException {
-        ObjectMapper compactMapper = objectMapper.copy();
-        compactMapper.disable(SerializationFeature.INDENT_OUTPUT);
-        return compactMapper.writeValueAsString(object);
+        return toJson(object, OutputMode.COMPACT);
     }
     
     /**
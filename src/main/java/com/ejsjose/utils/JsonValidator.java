@@ -0,0 +1,164 @@
+package com.ejsjose.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validador de JSON por streaming de tokens
+ *
+ * Não monta árvore: a memória usada é a do buffer do parser mais dois
+ * vetores do tamanho da profundidade máxima, independente do tamanho do
+ * documento. Tamanho total, profundidade e tamanho de textos são
+ * verificados pelo parser ({@link JsonLimits#toStreamReadConstraints()});
+ * elementos por array são contados aqui. O documento deve ter exatamente
+ * um valor JSON.
+ */
+public final class JsonValidator {
+
+    private static final Map<JsonLimits, JsonFactory> factories = new ConcurrentHashMap<>();
+
+    private JsonValidator() {}
+
+    /**
+     * Valida JSON em texto
+     * @param json documento
+     * @param limits limites aplicados
+     * @throws JsonProcessingException se o JSON é inválido ou excede um limite
+     *         ({@link StreamConstraintsException})
+     */
+    public static void validate(String json, JsonLimits limits) throws JsonProcessingException {
+        checkDocumentLength(json.length(), limits);
+        try (JsonParser parser = factory(limits).createParser(json)) {
+            walk(parser, limits);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro de leitura em memória", e);
+        }
+    }
+
+    /**
+     * Valida JSON em UTF-8
+     * @param json documento
+     * @param limits limites aplicados
+     * @throws JsonProcessingException se o JSON é inválido ou excede um limite
+     */
+    public static void validate(byte[] json, JsonLimits limits) throws JsonProcessingException {
+        checkDocumentLength(json.length, limits);
+        try (JsonParser parser = factory(limits).createParser(json)) {
+            walk(parser, limits);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro de leitura em memória", e);
+        }
+    }
+
+    /**
+     * Valida JSON lido de um InputStream, parando no primeiro problema
+     *
+     * O InputStream não é fechado
+     * @param input origem do documento
+     * @param limits limites aplicados
+     * @throws JsonProcessingException se o JSON é inválido ou excede um limite
+     * @throws IOException se erro de leitura
+     */
+    public static void validate(InputStream input, JsonLimits limits) throws IOException {
+        try (JsonParser parser = factory(limits).createParser(input)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            walk(parser, limits);
+        }
+    }
+
+    /**
+     * Verifica se uma string é um JSON válido dentro dos limites
+     * @param json string a ser verificada
+     * @param limits limites aplicados
+     * @return true se for JSON válido
+     */
+    public static boolean isValid(String json, JsonLimits limits) {
+        if (json == null) {
+            return false;
+        }
+        try {
+            validate(json, limits);
+            return true;
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    private static JsonFactory factory(JsonLimits limits) {
+        return factories.computeIfAbsent(limits, l -> JsonFactory.builder()
+                .streamReadConstraints(l.toStreamReadConstraints())
+                .build());
+    }
+
+    /**
+     * Confere o tamanho de um documento já em memória; o parser só
+     * confere o limite ao carregar mais dados de um InputStream
+     * @param length tamanho em bytes (ou caracteres)
+     * @param limits limites aplicados
+     * @throws StreamConstraintsException se excede o limite
+     */
+    static void checkDocumentLength(long length, JsonLimits limits) throws StreamConstraintsException {
+        if (limits.getMaxBytes() > 0 && length > limits.getMaxBytes()) {
+            throw new StreamConstraintsException("Documento excede o limite de " + limits.getMaxBytes() + " bytes");
+        }
+    }
+
+    private static void walk(JsonParser parser, JsonLimits limits) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new JsonParseException(parser, "Documento JSON vazio");
+        }
+
+        int maxElements = limits.getMaxArrayElements();
+        // Por nível: se é array e quantos elementos já vieram
+        boolean[] inArray = new boolean[limits.getMaxDepth() + 1];
+        int[] elements = new int[limits.getMaxDepth() + 1];
+        int depth = 0;
+
+        while (true) {
+            if (token == JsonToken.END_ARRAY || token == JsonToken.END_OBJECT) {
+                depth--;
+            } else if (token != JsonToken.FIELD_NAME) {
+                if (depth > 0 && inArray[depth] && maxElements > 0 && ++elements[depth] > maxElements) {
+                    throw new StreamConstraintsException("Array excede o limite de " + maxElements
+                            + " elementos", parser.currentLocation());
+                }
+                if (token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT) {
+                    depth++;
+                    inArray[depth] = token == JsonToken.START_ARRAY;
+                    elements[depth] = 0;
+                } else if (token == JsonToken.VALUE_STRING) {
+                    // O parser só confere o limite quando o buffer de texto cresce;
+                    // textos curtos acima do limite são pegos aqui
+                    int maxLength = limits.getMaxStringLength();
+                    if (maxLength > 0 && parser.getTextLength() > maxLength) {
+                        throw new StreamConstraintsException("Texto excede o limite de " + maxLength
+                                + " caracteres", parser.currentLocation());
+                    }
+                }
+            }
+
+            if (depth == 0) {
+                break;
+            }
+            token = parser.nextToken();
+        }
+
+        if (parser.nextToken() != null) {
+            throw new JsonParseException(parser, "Conteúdo após o valor JSON");
+        }
+    }
+}
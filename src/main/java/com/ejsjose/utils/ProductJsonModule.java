@@ -0,0 +1,342 @@
+package com.ejsjose.utils;
+
+import com.ejsjose.entities.Product;
+import com.ejsjose.repositories.ProductField;
+import com.ejsjose.repositories.ProductRowSink;
+import com.ejsjose.services.dto.ProductCreateDTO;
+import com.ejsjose.services.dto.ProductProjectionDTO;
+import com.ejsjose.services.dto.ProductUpdateDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Serializadores escritos à mão para Product e os DTOs de entrada
+ *
+ * Substituem a introspecção de beans do Jackson no caminho quente das
+ * listagens e da importação: os nomes dos campos vão pré-codificados
+ * ({@link SerializedString}) e a leitura despacha por um switch no nome
+ * do campo, sem criar mapas nem chamar getters por reflexão.
+ *
+ * O formato é o mesmo do serializador padrão com a configuração de
+ * {@link JsonUtils}: ordem id, name, price, quantity, status e campos
+ * nulos omitidos. Na leitura, tokens fora do esperado (ex: número
+ * entre aspas) seguem as coerções padrão do Jackson e campos
+ * desconhecidos respeitam FAIL_ON_UNKNOWN_PROPERTIES.
+ */
+public class ProductJsonModule extends SimpleModule {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString PRICE = new SerializedString("price");
+    private static final SerializedString QUANTITY = new SerializedString("quantity");
+    private static final SerializedString STATUS = new SerializedString("status");
+
+    public ProductJsonModule() {
+        super("ProductJsonModule");
+        addSerializer(Product.class, new ProductSerializer());
+        addSerializer(ProductProjectionDTO.class, new ProductProjectionSerializer());
+        addDeserializer(Product.class, new ProductDeserializer());
+        addDeserializer(ProductCreateDTO.class, new ProductCreateDeserializer());
+        addDeserializer(ProductUpdateDTO.class, new ProductUpdateDeserializer());
+    }
+
+    // === ESCRITA ===
+
+    static class ProductSerializer extends StdSerializer<Product> {
+
+        ProductSerializer() {
+            super(Product.class);
+        }
+
+        @Override
+        public void serialize(Product product, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(product);
+            if (product.getId() != null) {
+                generator.writeFieldName(ID);
+                generator.writeNumber(product.getId());
+            }
+            if (product.getName() != null) {
+                generator.writeFieldName(NAME);
+                generator.writeString(product.getName());
+            }
+            if (product.getPrice() != null) {
+                generator.writeFieldName(PRICE);
+                generator.writeNumber(product.getPrice());
+            }
+            generator.writeFieldName(QUANTITY);
+            generator.writeNumber(product.getQuantity());
+            generator.writeFieldName(STATUS);
+            generator.writeBoolean(product.isStatus());
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Escreve as linhas de uma varredura ({@link ProductRowSink}) direto no
+     * gerador, cada uma como o objeto que o ProductSerializer produziria
+     * @param generator gerador de destino
+     * @return sink que escreve um objeto por linha
+     */
+    public static ProductRowSink rowWriter(JsonGenerator generator) {
+        return (id, name, price, hasPrice, quantity, status) -> {
+            generator.writeStartObject();
+            generator.writeFieldName(ID);
+            generator.writeNumber(id);
+            if (name != null) {
+                generator.writeFieldName(NAME);
+                generator.writeString(name);
+            }
+            if (hasPrice) {
+                generator.writeFieldName(PRICE);
+                generator.writeNumber(price);
+            }
+            generator.writeFieldName(QUANTITY);
+            generator.writeNumber(quantity);
+            generator.writeFieldName(STATUS);
+            generator.writeBoolean(status);
+            generator.writeEndObject();
+        };
+    }
+
+    /**
+     * Projeção como array de objetos só com os campos pedidos, na ordem
+     * pedida; valores nulos são omitidos, como no produto completo
+     */
+    static class ProductProjectionSerializer extends StdSerializer<ProductProjectionDTO> {
+
+        ProductProjectionSerializer() {
+            super(ProductProjectionDTO.class);
+        }
+
+        @Override
+        public void serialize(ProductProjectionDTO projection, JsonGenerator generator,
+                              SerializerProvider provider) throws IOException {
+            List<ProductField> fields = projection.getFields();
+            SerializedString[] names = new SerializedString[fields.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = fieldName(fields.get(i));
+            }
+
+            generator.writeStartArray(projection, projection.size());
+            for (Object[] row : projection.getRows()) {
+                generator.writeStartObject();
+                for (int i = 0; i < names.length; i++) {
+                    Object value = row[i];
+                    if (value == null) {
+                        continue;
+                    }
+                    generator.writeFieldName(names[i]);
+                    switch (fields.get(i)) {
+                        case ID, QUANTITY -> generator.writeNumber((Integer) value);
+                        case NAME -> generator.writeString((String) value);
+                        case PRICE -> generator.writeNumber((Double) value);
+                        case STATUS -> generator.writeBoolean((Boolean) value);
+                    }
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+
+        private static SerializedString fieldName(ProductField field) {
+            return switch (field) {
+                case ID -> ID;
+                case NAME -> NAME;
+                case PRICE -> PRICE;
+                case QUANTITY -> QUANTITY;
+                case STATUS -> STATUS;
+            };
+        }
+    }
+
+    // === LEITURA ===
+
+    /**
+     * Base dos deserializadores: percorre os campos do objeto e entrega
+     * cada um a {@link #readField}
+     */
+    abstract static class FieldSwitchDeserializer<T> extends StdDeserializer<T> {
+
+        FieldSwitchDeserializer(Class<T> type) {
+            super(type);
+        }
+
+        protected abstract T newInstance();
+
+        /**
+         * Lê o valor do campo, com o parser posicionado no token do valor
+         * @return false se o campo não é conhecido
+         */
+        protected abstract boolean readField(T target, String field, JsonParser parser,
+                                             DeserializationContext context) throws IOException;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            String field;
+            if (parser.isExpectedStartObjectToken()) {
+                field = parser.nextFieldName();
+            } else if (parser.hasToken(JsonToken.FIELD_NAME)) {
+                field = parser.currentName();
+            } else if (parser.hasToken(JsonToken.END_OBJECT)) {
+                return newInstance();
+            } else {
+                return (T) context.handleUnexpectedToken(handledType(), parser);
+            }
+
+            T target = newInstance();
+            for (; field != null; field = parser.nextFieldName()) {
+                parser.nextToken();
+                if (!readField(target, field, parser, context)) {
+                    context.handleUnknownProperty(parser, this, target, field);
+                }
+            }
+            return target;
+        }
+    }
+
+    static class ProductDeserializer extends FieldSwitchDeserializer<Product> {
+
+        ProductDeserializer() {
+            super(Product.class);
+        }
+
+        @Override
+        protected Product newInstance() {
+            return new Product();
+        }
+
+        @Override
+        protected boolean readField(Product product, String field, JsonParser parser,
+                                    DeserializationContext context) throws IOException {
+            switch (field) {
+                case "id" -> product.setId(readInteger(parser, context));
+                case "name" -> product.setName(readString(parser, context));
+                case "price" -> product.setPrice(readDouble(parser, context));
+                case "quantity" -> {
+                    Integer quantity = readInteger(parser, context);
+                    product.setQuantity(quantity != null ? quantity : 0);
+                }
+                case "status" -> product.setStatus(Boolean.TRUE.equals(readBoolean(parser, context)));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static class ProductCreateDeserializer extends FieldSwitchDeserializer<ProductCreateDTO> {
+
+        ProductCreateDeserializer() {
+            super(ProductCreateDTO.class);
+        }
+
+        @Override
+        protected ProductCreateDTO newInstance() {
+            return new ProductCreateDTO();
+        }
+
+        @Override
+        protected boolean readField(ProductCreateDTO dto, String field, JsonParser parser,
+                                    DeserializationContext context) throws IOException {
+            switch (field) {
+                case "name" -> dto.setName(readString(parser, context));
+                case "price" -> dto.setPrice(readDouble(parser, context));
+                case "quantity" -> dto.setQuantity(readInteger(parser, context));
+                case "status" -> dto.setStatus(readBoolean(parser, context));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static class ProductUpdateDeserializer extends FieldSwitchDeserializer<ProductUpdateDTO> {
+
+        ProductUpdateDeserializer() {
+            super(ProductUpdateDTO.class);
+        }
+
+        @Override
+        protected ProductUpdateDTO newInstance() {
+            return new ProductUpdateDTO();
+        }
+
+        @Override
+        protected boolean readField(ProductUpdateDTO dto, String field, JsonParser parser,
+                                    DeserializationContext context) throws IOException {
+            switch (field) {
+                case "name" -> dto.setName(readString(parser, context));
+                case "price" -> dto.setPrice(readDouble(parser, context));
+                case "quantity" -> dto.setQuantity(readInteger(parser, context));
+                case "status" -> dto.setStatus(readBoolean(parser, context));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // === VALORES ===
+    // Caminho rápido para o token esperado; o resto vai para o Jackson
+
+    private static String readString(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return context.readValue(parser, String.class);
+    }
+
+    private static Double readDouble(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return context.readValue(parser, Double.class);
+    }
+
+    private static Integer readInteger(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return context.readValue(parser, Integer.class);
+    }
+
+    private static Boolean readBoolean(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_TRUE) {
+            return Boolean.TRUE;
+        }
+        if (token == JsonToken.VALUE_FALSE) {
+            return Boolean.FALSE;
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return context.readValue(parser, Boolean.class);
+    }
+}